@@ -1,9 +1,22 @@
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.PrintStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.Scanner;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.management.JMException;
 
 public class App {
 
@@ -12,27 +25,190 @@ public class App {
      */
     static String nomeArquivoDados;
 
-    /** Scanner para leitura de dados do teclado */
-    static Scanner teclado;
+    /** Entrada das respostas do usuário: teclado ou arquivo de roteiro */
+    static EntradaComandos entrada;
+
+    /**
+     * Catálogo de produtos cadastrados, com seu índice por data de validade.
+     * Substituído por inteiro a cada retirada de vencidos ou recarga do arquivo;
+     * quem o lê deve guardar a referência em uma variável local.
+     */
+    static volatile CatalogoProdutos catalogo;
+
+    /** Serializa as substituições do catálogo (as leituras não esperam) */
+    private static final Object TROCA_CATALOGO = new Object();
+
+    /** Linhas por página nas listagens (0 para não paginar). Configurável por -DlinhasPorPagina=N */
+    static int linhasPorPagina = Integer.getInteger("linhasPorPagina", 0);
+
+    /**
+     * Regras de preço das listagens e dos pedidos: as do arquivo informado em
+     * -DregrasPreco=arquivo (ver {@link RegraPreco}) ou, sem ele, as regras
+     * equivalentes aos descontos fixos de perecíveis e de pagamento à vista.
+     */
+    static MotorPrecos motorPrecos = criarMotorPrecos(System.getProperty("regrasPreco"));
+
+    /**
+     * Preços de venda dos produtos do {@link #catalogo}, recriada a cada versão
+     * publicada e reprecificada diariamente (null até o catálogo ser carregado).
+     */
+    static volatile TabelaPrecos tabelaPrecos;
+
+    /** Quantidade de pedidos e faturamento por dia, alimentados a cada pedido enfileirado */
+    static ResumoPorDia resumoPedidos = new ResumoPorDia();
+
+    /**
+     * Pedidos enfileirados (finalizados ou importados) pelo número, para as
+     * consultas por faixa de números
+     */
+    static MapaOrdenado<Integer, Pedido> pedidosPorNumero = new ArvoreBMais<>();
+
+    /**
+     * Fila de pedidos. Por padrão FIFO (First In, First Out); com
+     * -DordemPedidos=valor ou -DordemPedidos=data, atende primeiro os pedidos de
+     * maior valor ou os mais antigos; com -DordemPedidos=fragmentada, divide a
+     * fila em fragmentos com bloqueio próprio. Guarda os resultados das últimas consultas
+     * (-DcacheConsultas=N, padrão: 32) até a fila mudar. Cada pedido enfileirado
+     * entra no {@link #resumoPedidos} e no {@link #pedidosPorNumero}, e é contado
+     * nas métricas.
+     */
+    static FilaConsultasEmCache<Pedido> filaPedidos = new FilaConsultasEmCache<>(
+            new FilaMedida<>(new FilaPedidosIndexada(
+                    new FilaPedidosResumida(criarFilaPedidos(System.getProperty("ordemPedidos", "fifo")), resumoPedidos),
+                    pedidosPorNumero)),
+            Integer.getInteger("cacheConsultas", 32));
+
+    /**
+     * Agregados dos últimos pedidos finalizados. O tamanho da janela é configurável
+     * por -DjanelaPedidos=K (padrão: 100).
+     */
+    static JanelaDeslizante janelaPedidos = new JanelaDeslizante(Integer.getInteger("janelaPedidos", 100));
+
+    /**
+     * Ranking dos produtos mais pedidos, com -DmaisVendidos=N contadores (padrão:
+     * 1000) ou exato, com -DmaisVendidos=exato.
+     */
+    static MaisVendidos maisVendidos = criarMaisVendidos(System.getProperty("maisVendidos", "1000"));
+
+    /**
+     * Estoque dos produtos, reservado durante a montagem dos pedidos. Ligado com
+     * -Destoque=N (quantidade inicial de cada produto); null caso contrário. A
+     * recarga do catálogo o amplia com os produtos novos (ver
+     * {@link #trocarCatalogo(CatalogoProdutos)}).
+     */
+    static volatile EstoqueProdutos estoque;
+
+    /**
+     * Sessão de edição dos pedidos montados no menu. O menu monta um pedido por
+     * vez, então a mesma sessão (e as suas pilhas) é reaproveitada a cada pedido.
+     */
+    private static final EdicaoPedido EDICAO_PEDIDO = new EdicaoPedido(null);
+
+    /**
+     * Pipeline de processamento dos pedidos finalizados (validação, precificação,
+     * reserva de estoque e atendimento). Ligado com -Dpipeline=true; null caso
+     * contrário.
+     */
+    static PipelinePedidos pipelinePedidos;
+
+    /**
+     * Cria a fila de pedidos conforme a ordem de atendimento desejada.
+     * 
+     * @param ordem "fifo", "valor" (maior valor primeiro), "data" (mais antigo primeiro) ou
+     *              "fragmentada" (FIFO por número do pedido, em -DfragmentosPedidos=N filas,
+     *              padrão: uma por processador). Na ordem "fifo", -DreciclarCelulas=true liga a
+     *              reciclagem de células da fila.
+     * @return A fila de pedidos vazia.
+     */
+    static FilaConsultavel<Pedido> criarFilaPedidos(String ordem) {
+        return switch (ordem) {
+            case "valor" -> FilaPrioridade.porMaiorValor();
+            case "data" -> FilaPrioridade.porMaisAntigo();
+            case "fragmentada" -> new FilaPedidosFragmentada(
+                    Integer.getInteger("fragmentosPedidos", Runtime.getRuntime().availableProcessors()));
+            default -> new Fila<>(Boolean.getBoolean("reciclarCelulas"));
+        };
+    }
+
+    static MotorPrecos criarMotorPrecos(String arquivoRegras) {
+        if (arquivoRegras == null) {
+            return MotorPrecos.padrao();
+        }
+        try {
+            return MotorPrecos.carregar(arquivoRegras);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Regras de preço inválidas em " + arquivoRegras + " (" + e.getMessage()
+                    + "); usando as regras padrão.");
+            return MotorPrecos.padrao();
+        }
+    }
+
+    /**
+     * Preço de venda atual do produto, pelas regras de {@link #motorPrecos}, lido
+     * da {@link #tabelaPrecos}.
+     * 
+     * @throws IllegalArgumentException se o produto estiver vencido.
+     */
+    static double precoDeVenda(Produto produto) {
+        TabelaPrecos tabela = tabelaPrecos;
+        return (tabela != null) ? tabela.preco(produto) : motorPrecos.valorDeVenda(produto, LocalDate.now());
+    }
 
-    /** Vetor de produtos cadastrados */
-    static Produto[] produtosCadastrados;
+    /**
+     * Valor final atual do pedido, pelas regras de {@link #motorPrecos}, com os
+     * preços da {@link #tabelaPrecos}.
+     * 
+     * @throws IllegalArgumentException se algum produto do pedido estiver vencido.
+     */
+    static double valorFinal(Pedido pedido) {
 
-    /** Quantidade de produtos cadastrados atualmente no vetor */
-    static int quantosProdutos = 0;
+        long inicio = Metricas.ATIVAS ? System.nanoTime() : 0;
+        TabelaPrecos tabela = tabelaPrecos;
+        double valor = (tabela != null) ? tabela.valorFinal(pedido) : motorPrecos.valorFinal(pedido, LocalDate.now());
 
-    /** Fila de pedidos (FIFO - First In, First Out) */
-    static Fila<Pedido> filaPedidos = new Fila<>();
+        if (Metricas.ATIVAS) {
+            Metricas.VALOR_FINAL.registrar(System.nanoTime() - inicio);
+        }
+        return valor;
+    }
+
+    /**
+     * Identifica os preços em vigor, para que resultados guardados que dependem
+     * de {@link #valorFinal(Pedido)} deixem de valer quando eles mudam: a
+     * publicação atual da tabela de preços (muda na reprecificação diária e a
+     * cada recarga do catálogo) ou, antes de haver tabela, o dia de hoje.
+     */
+    static Object versaoPrecos() {
+        TabelaPrecos tabela = tabelaPrecos;
+        return (tabela != null) ? (Object) tabela.getVersao() : LocalDate.now();
+    }
+
+    static MaisVendidos criarMaisVendidos(String contadores) {
+        return contadores.equals("exato") ? MaisVendidos.exato() : new MaisVendidos(Integer.parseInt(contadores));
+    }
 
     static void limparTela() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
     }
 
-    /** Gera um efeito de pausa na CLI. Espera por um enter para continuar */
+    /**
+     * Gera um efeito de pausa na CLI. Espera por um enter para continuar, se a
+     * entrada for interativa; em um roteiro, segue direto para o próximo comando.
+     */
     static void pausa() {
-        System.out.println("Digite enter para continuar...");
-        teclado.nextLine();
+        if (entrada.isInterativa()) {
+            System.out.println("Digite enter para continuar...");
+            entrada.proximaLinha();
+        }
+    }
+
+    /**
+     * Cria um relatório sobre a saída padrão, paginado conforme
+     * {@link #linhasPorPagina}, com uma pausa ao fim de cada página.
+     */
+    static Relatorio novoRelatorio() {
+        return new Relatorio(System.out, linhasPorPagina, App::pausa);
     }
 
     /** Cabeçalho principal da CLI do sistema */
@@ -41,39 +217,68 @@ public class App {
         System.out.println("=============================");
     }
 
-    static <T extends Number> T lerOpcao(String mensagem, Class<T> classe) {
+    /**
+     * Lê um número inteiro.
+     * 
+     * @param mensagem Mensagem exibida antes da leitura.
+     * @return O número lido, ou null se o texto não for um número inteiro.
+     */
+    static Integer lerInteiro(String mensagem) {
+        System.out.println(mensagem);
+        return entrada.proximoInteiro();
+    }
 
-        T valor;
+    /**
+     * Lê um número real, com ponto decimal.
+     * 
+     * @param mensagem Mensagem exibida antes da leitura.
+     * @return O número lido, ou null se o texto não for um número.
+     */
+    static Double lerReal(String mensagem) {
+        System.out.println(mensagem);
+        return entrada.proximoReal();
+    }
+
+    /**
+     * Lê uma data no formato dd/MM/yyyy.
+     * 
+     * @param mensagem Mensagem exibida antes da leitura.
+     * @return A data lida, ou null se o texto não for uma data válida.
+     */
+    static LocalDate lerData(String mensagem) {
 
         System.out.println(mensagem);
         try {
-            valor = classe.getConstructor(String.class).newInstance(teclado.nextLine());
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e) {
+            return LocalDate.parse(entrada.proximaLinha().trim(), Produto.FORMATO_DATA);
+        } catch (DateTimeParseException e) {
             return null;
         }
-        return valor;
     }
 
     /**
-     * Imprime o menu principal, lê a opção do usuário e a retorna (int).
+     * Imprime o menu principal, a partir da tabela de comandos, lê a opção do
+     * usuário e a retorna (int). Linhas em branco são ignoradas.
      * 
-     * @return Um inteiro com a opção do usuário.
+     * @return Um inteiro com a opção do usuário, ou -1 se ela não for um número.
      */
     static int menu() {
         cabecalho();
-        System.out.println("1 - Listar todos os produtos");
-        System.out.println("2 - Procurar por um produto, por código");
-        System.out.println("3 - Procurar por um produto, por nome");
-        System.out.println("4 - Iniciar novo pedido");
-        System.out.println("5 - Fechar pedido");
-        System.out.println("6 - Listar produtos dos primeiros pedidos");
-        System.out.println("7 - Exibir valor total médio dos N primeiros pedidos");
-        System.out.println("8 - Exibir primeiros pedidos com valor acima de X");
-        System.out.println("9 - Exibir primeiros pedidos que contêm um produto");
-        System.out.println("0 - Sair");
+        for (int opcao = 1; opcao < COMANDOS.length; opcao++) {
+            System.out.println(opcao + " - " + COMANDOS[opcao].descricao);
+        }
+        System.out.println("0 - " + COMANDOS[0].descricao);
         System.out.print("Digite sua opção: ");
-        return Integer.parseInt(teclado.nextLine());
+
+        String linha;
+        do {
+            linha = entrada.proximaLinha().trim();
+        } while (linha.isEmpty());
+
+        try {
+            return Integer.parseInt(linha);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     /**
@@ -81,8 +286,11 @@ public class App {
      * no formato
      * N (quantidade de produtos) <br/>
      * tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade] <br/>
-     * Deve haver uma linha para cada um dos produtos. Retorna um vetor vazio em
-     * caso de problemas com o arquivo.
+     * Deve haver uma linha para cada um dos produtos. As linhas inválidas são
+     * conferidas antes da criação dos produtos ({@link ValidadorCatalogo}),
+     * relatadas na saída de erros e ignoradas; o vetor retornado contém apenas os
+     * produtos válidos, sem posições vazias. Retorna um vetor vazio em caso de
+     * problemas com o arquivo.
      * 
      * @param nomeArquivoDados Nome do arquivo de dados a ser aberto.
      * @return Um vetor com os produtos carregados, ou vazio em caso de problemas de
@@ -90,32 +298,62 @@ public class App {
      */
     static Produto[] lerProdutos(String nomeArquivoDados) {
 
-        Scanner arquivo = null;
-        int numProdutos;
-        String linha;
-        Produto produto;
+        long inicio = Metricas.ATIVAS ? System.nanoTime() : 0;
+        List<String> linhas;
         Produto[] produtosCadastrados;
 
         try {
-            arquivo = new Scanner(new File(nomeArquivoDados), Charset.forName("UTF-8"));
+            linhas = Files.readAllLines(Path.of(nomeArquivoDados), StandardCharsets.UTF_8);
+        } catch (IOException excecaoArquivo) {
+            System.err.println("Não foi possível ler o arquivo de produtos: " + excecaoArquivo.getMessage());
+            return new Produto[0];
+        }
 
-            numProdutos = Integer.parseInt(arquivo.nextLine());
-            produtosCadastrados = new Produto[numProdutos];
+        Fila<ValidadorCatalogo.Problema> problemas = ValidadorCatalogo.validarArquivo(linhas,
+                Runtime.getRuntime().availableProcessors());
+        Iterator<ValidadorCatalogo.Problema> invalidas = problemas.iterator();
+        ValidadorCatalogo.Problema proximaInvalida = invalidas.hasNext() ? invalidas.next() : null;
 
-            for (int i = 0; i < numProdutos; i++) {
-                linha = arquivo.nextLine();
-                produto = Produto.criarDoTexto(linha);
-                produtosCadastrados[i] = produto;
+        if (proximaInvalida != null && proximaInvalida.getLinha() == 1) {
+            System.err.println("Arquivo de produtos inválido. " + proximaInvalida);
+            return new Produto[0];
+        }
+
+        int numProdutos = Math.min(Integer.parseInt(linhas.get(0).trim()), linhas.size() - 1);
+        produtosCadastrados = new Produto[numProdutos];
+        int quantosProdutos = 0;
+
+        for (int i = 0; i < numProdutos; i++) {
+            if (proximaInvalida != null && proximaInvalida.getLinha() == i + 2) {
+                proximaInvalida = invalidas.hasNext() ? invalidas.next() : null;
+            } else {
+                produtosCadastrados[quantosProdutos++] = Produto.criarDoTexto(linhas.get(i + 1));
             }
-            quantosProdutos = numProdutos;
+        }
 
-        } catch (IOException excecaoArquivo) {
-            produtosCadastrados = null;
-        } finally {
-            arquivo.close();
+        if (!problemas.vazia()) {
+            relatarLinhasInvalidas(nomeArquivoDados, problemas);
         }
 
-        return produtosCadastrados;
+        if (Metricas.ATIVAS) {
+            Metricas.LEITURA_PRODUTOS.registrar(System.nanoTime() - inicio);
+        }
+        return quantosProdutos == numProdutos ? produtosCadastrados
+                : Arrays.copyOf(produtosCadastrados, quantosProdutos);
+    }
+
+    /** Exibe, na saída de erros, as primeiras linhas inválidas de um arquivo de produtos. */
+    private static void relatarLinhasInvalidas(String nomeArquivoDados, Fila<ValidadorCatalogo.Problema> problemas) {
+
+        System.err.println(nomeArquivoDados + ": " + problemas.tamanho() + " linhas inválidas ignoradas.");
+        int exibidos = 0;
+        for (ValidadorCatalogo.Problema problema : problemas) {
+            if (exibidos++ == 10) {
+                System.err.println("...");
+                break;
+            }
+            System.err.println(problema);
+        }
     }
 
     /**
@@ -125,19 +363,28 @@ public class App {
      */
     static Produto localizarProduto() {
 
-        Produto produto = null;
-        Boolean localizado = false;
-
         cabecalho();
         System.out.println("Localizando um produto...");
-        int idProduto = lerOpcao("Digite o código identificador do produto desejado: ", Integer.class);
-        for (int i = 0; (i < quantosProdutos && !localizado); i++) {
-            if (produtosCadastrados[i].hashCode() == idProduto) {
-                produto = produtosCadastrados[i];
-                localizado = true;
-            }
-        }
+        Integer idProduto = lerInteiro("Digite o código identificador do produto desejado: ");
 
+        return (idProduto == null) ? null : buscarProdutoPorCodigo(idProduto);
+    }
+
+    /**
+     * Procura, no índice por código do catálogo, o produto com o código
+     * identificador informado.
+     * 
+     * @param idProduto Código identificador do produto.
+     * @return O produto encontrado ou null, caso não exista.
+     */
+    static Produto buscarProdutoPorCodigo(int idProduto) {
+
+        long inicio = Metricas.ATIVAS ? System.nanoTime() : 0;
+        Produto produto = catalogo.getPorCodigo().buscar(idProduto);
+
+        if (Metricas.ATIVAS) {
+            Metricas.BUSCA_PRODUTO.registrar(System.nanoTime() - inicio);
+        }
         return produto;
     }
 
@@ -151,22 +398,43 @@ public class App {
      *         localizado no vetor de produtos cadastrados.
      */
     static Produto localizarProdutoDescricao() {
-        Produto produto = null;
-        boolean localizado = false;
         String descricao;
     
         cabecalho();
         System.out.println("Localizando um produto...");
         System.out.println("Digite o nome ou a descrição do produto desejado:");
-        descricao = teclado.nextLine();
+        descricao = entrada.proximaLinha();
     
+        return buscarProdutoPorDescricao(descricao);
+    }
+
+    /**
+     * Procura, no vetor de produtos cadastrados, o produto com a descrição
+     * informada. A busca não é sensível ao caso.
+     * 
+     * @param descricao Nome ou descrição do produto.
+     * @return O produto encontrado ou null, caso não exista.
+     */
+    static Produto buscarProdutoPorDescricao(String descricao) {
+
+        long inicio = Metricas.ATIVAS ? System.nanoTime() : 0;
+        CatalogoProdutos atual = catalogo;
+        Produto[] produtosCadastrados = atual.getProdutos();
+        int quantosProdutos = atual.getQuantidade();
+        byte[] descricaoUtf8 = descricao.getBytes(StandardCharsets.UTF_8);
+        Produto produto = null;
+        boolean localizado = false;
+
         for (int i = 0; (i < quantosProdutos && !localizado); i++) {
-            if (produtosCadastrados[i].descricao.equalsIgnoreCase(descricao)) {
+            if (produtosCadastrados[i].descricaoIgualIgnorandoCaso(descricao, descricaoUtf8)) {
                 produto = produtosCadastrados[i];
                 localizado = true;
             }
         }
-    
+
+        if (Metricas.ATIVAS) {
+            Metricas.BUSCA_PRODUTO.registrar(System.nanoTime() - inicio);
+        }
         return produto;
     }
 
@@ -175,48 +443,178 @@ public class App {
         cabecalho();
         String mensagem = "Dados inválidos para o produto!";
 
-        if (produto != null) {
-            mensagem = String.format("Dados do produto:\n%s", produto);
+        if (produto == null) {
+            System.out.println(mensagem);
+            return;
         }
 
-        System.out.println(mensagem);
+        System.out.println("Dados do produto:");
+        Relatorio relatorio = novoRelatorio();
+        relatorio.produto(produto);
+        relatorio.descarregar();
+    }
+
+    /**
+     * Retira do catálogo os produtos perecíveis já vencidos, evitando que
+     * listagens e pedidos falhem ao calcular seus valores de venda.
+     * Só percorre os produtos vencidos, não o catálogo inteiro, e nada é copiado:
+     * a nova versão compartilha o vetor, os índices e a tabela de preços com a
+     * anterior.
+     */
+    static void retirarProdutosVencidos() {
+
+        Fila<ProdutoPerecivel> vencidos = new Fila<>();
+
+        synchronized (TROCA_CATALOGO) {
+            trocarCatalogo(catalogo.semVencidos(LocalDate.now(), vencidos));
+        }
+
+        exibirVencidosRetirados(vencidos);
+    }
+
+    /**
+     * Publica um novo catálogo (recarregado do arquivo de produtos), já sem os
+     * produtos vencidos.
+     * 
+     * @param novo O novo catálogo.
+     */
+    static void publicarCatalogo(CatalogoProdutos novo) {
+
+        Fila<ProdutoPerecivel> vencidos = new Fila<>();
+
+        synchronized (TROCA_CATALOGO) {
+            trocarCatalogo(novo.semVencidos(LocalDate.now(), vencidos));
+        }
+
+        exibirVencidosRetirados(vencidos);
+    }
+
+    /**
+     * Publica a versão do catálogo. Uma versão que só retira vencidos da atual
+     * mantém a tabela de preços (nela, os retirados já têm preço de vencido); uma
+     * versão recarregada do arquivo recebe uma nova tabela, e o estoque passa a
+     * cobrir os produtos novos, com a quantidade inicial, mantendo o saldo dos
+     * demais. Chamado com o monitor {@link #TROCA_CATALOGO}.
+     */
+    private static void trocarCatalogo(CatalogoProdutos novo) {
+
+        if (tabelaPrecos == null || !novo.derivadaDe(catalogo)) {
+            tabelaPrecos = new TabelaPrecos(novo.getProdutos(), novo.getQuantidade(), motorPrecos, LocalDate.now());
+            if (estoque != null) {
+                estoque = estoque.ampliado(novo.getProdutos(), novo.getQuantidade(), Long.getLong("estoque", 0));
+            }
+        }
+        catalogo = novo;
+    }
+
+    /** Agenda a reprecificação diária da tabela de preços, em uma thread de fundo. */
+    static void iniciarReprecificacao() {
+
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "reprecificacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TabelaPrecos.agendarReprecificacaoDiaria(agendador, () -> tabelaPrecos);
+    }
+
+    private static void exibirVencidosRetirados(Fila<ProdutoPerecivel> vencidos) {
+
+        while (!vencidos.vazia()) {
+            System.out.println("Produto vencido retirado do catálogo: " + vencidos.desenfileirar().getDescricao());
+        }
+    }
+
+    /**
+     * Lista os produtos perecíveis que vencem dentro do prazo de desconto por
+     * validade, em ordem de validade.
+     */
+    static void listarProdutosProximosDoVencimento() {
+
+        retirarProdutosVencidos();
+        cabecalho();
+
+        Fila<ProdutoPerecivel> proximos = catalogo.getIndiceValidade().proximosDoVencimento(LocalDate.now(),
+                ProdutoPerecivel.PRAZO_DESCONTO);
+
+        System.out.println("\nPRODUTOS PRÓXIMOS DO VENCIMENTO:");
+        if (proximos.vazia()) {
+            System.out.println("Nenhum produto próximo do vencimento.");
+        }
+        Relatorio relatorio = novoRelatorio();
+        while (!proximos.vazia()) {
+            relatorio.produto(proximos.desenfileirar());
+        }
+        relatorio.descarregar();
     }
 
     /** Lista todos os produtos cadastrados, numerados, um por linha */
     static void listarTodosOsProdutos() {
 
+        retirarProdutosVencidos();
         cabecalho();
         System.out.println("\nPRODUTOS CADASTRADOS:");
-        for (int i = 0; i < quantosProdutos; i++) {
-            System.out.println(String.format("%02d - %s", (i + 1), produtosCadastrados[i].toString()));
+        CatalogoProdutos atual = catalogo;
+        Relatorio relatorio = novoRelatorio();
+        for (int i = 0; i < atual.getQuantidade(); i++) {
+            relatorio.produtoNumerado(i + 1, atual.getProdutos()[i]);
         }
+        relatorio.descarregar();
     }
 
     /**
      * Inicia um novo pedido.
-     * Permite ao usuário escolher e incluir produtos no pedido.
+     * Permite ao usuário escolher e incluir produtos no pedido. Durante a inclusão,
+     * "desfazer" retira o último produto incluído e "refazer" o inclui novamente.
      * 
      * @return O novo pedido
      */
     public static Pedido iniciarPedido() {
 
-        int formaPagamento = lerOpcao(
-                "Digite a forma de pagamento do pedido, sendo 1 para pagamento à vista e 2 para pagamento a prazo",
-                Integer.class);
+        Integer formaPagamento = lerInteiro(
+                "Digite a forma de pagamento do pedido, sendo 1 para pagamento à vista e 2 para pagamento a prazo");
+        if (formaPagamento == null || (formaPagamento != 1 && formaPagamento != 2)) {
+            System.out.println("Forma de pagamento inválida!");
+            return null;
+        }
         Pedido pedido = new Pedido(LocalDate.now(), formaPagamento);
+        EdicaoPedido edicao = EDICAO_PEDIDO;
+        edicao.editar(pedido, estoque);
         Produto produto;
-        int numProdutos;
+        String descricao;
+        Integer numProdutos;
 
         listarTodosOsProdutos();
         System.out.println("Incluindo produtos no pedido...");
-        numProdutos = lerOpcao("Quantos produtos serão incluídos no pedido?", Integer.class);
-        for (int i = 0; i < numProdutos; i++) {
-            produto = localizarProdutoDescricao();
-            if (produto == null) {
-                System.out.println("Produto não encontrado");
-                i--;
+        numProdutos = lerInteiro("Quantos produtos serão incluídos no pedido?");
+        if (numProdutos == null) {
+            System.out.println("Quantidade inválida!");
+            return pedido;
+        }
+        while (pedido.getQuantosProdutos() < numProdutos) {
+            System.out.println("Digite o nome ou a descrição do produto desejado (ou desfazer/refazer):");
+            descricao = entrada.proximaLinha();
+
+            if (descricao.equalsIgnoreCase("desfazer")) {
+                produto = edicao.desfazer();
+                System.out.println(produto == null ? "Nada a desfazer" : "Produto retirado: " + produto.getDescricao());
+            } else if (descricao.equalsIgnoreCase("refazer")) {
+                if (!edicao.podeRefazer()) {
+                    System.out.println("Nada a refazer");
+                } else {
+                    produto = edicao.refazer();
+                    System.out.println(produto == null ? "Produto sem estoque" : "Produto incluído: " + produto.getDescricao());
+                }
             } else {
-                pedido.incluirProduto(produto);
+                produto = buscarProdutoPorDescricao(descricao);
+                if (produto == null) {
+                    System.out.println("Produto não encontrado");
+                } else if (pedido.getQuantosProdutos() == Pedido.MAX_PRODUTOS) {
+                    System.out.println("O pedido atingiu a quantidade máxima de produtos!");
+                    break;
+                } else if (!edicao.incluirProduto(produto)) {
+                    System.out.println("Produto sem estoque");
+                }
             }
         }
 
@@ -233,13 +631,45 @@ public class App {
 
         if (pedido != null) {
             filaPedidos.enfileirar(pedido);
+            janelaPedidos.incluir(pedido);
+            maisVendidos.registrar(pedido);
+            enviarAoPipeline(pedido);
             System.out.println("Pedido finalizado com sucesso!");
-            System.out.println(pedido);
+            Relatorio relatorio = novoRelatorio();
+            relatorio.pedido(pedido);
+            relatorio.descarregar();
         } else {
             System.out.println("Nenhum pedido foi iniciado ainda!");
         }
     }
 
+    /**
+     * Descarta um pedido iniciado e não finalizado, devolvendo ao estoque os
+     * produtos reservados para ele.
+     * 
+     * @param pedido O pedido descartado (null se não houver)
+     */
+    static void descartarPedido(Pedido pedido) {
+
+        if (pedido != null && estoque != null) {
+            estoque.liberar(pedido);
+        }
+    }
+
+    /** Envia o pedido finalizado ao pipeline de processamento, se ligado. */
+    static void enviarAoPipeline(Pedido pedido) {
+
+        if (pipelinePedidos == null) {
+            return;
+        }
+        try {
+            pipelinePedidos.receber(pedido);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Pedido não enviado ao processamento: operação interrompida.");
+        }
+    }
+
     /**
      * Lista os produtos dos primeiros pedidos da fila.
      */
@@ -252,9 +682,9 @@ public class App {
             return;
         }
 
-        int numPedidos = lerOpcao("Quantos primeiros pedidos deseja visualizar?", Integer.class);
+        Integer numPedidos = lerInteiro("Quantos primeiros pedidos deseja visualizar?");
 
-        if (numPedidos <= 0) {
+        if (numPedidos == null || numPedidos <= 0) {
             System.out.println("Número inválido de pedidos!");
             return;
         }
@@ -262,31 +692,17 @@ public class App {
         try {
             // Usa o método filtrar para obter os primeiros N pedidos (todos passam no
             // teste)
-            Fila<Pedido> primeirosPedidos = filaPedidos.filtrar(pedido -> true, numPedidos);
+            Fila<Pedido> primeirosPedidos = filaPedidos.filtrar("todos", pedido -> true, numPedidos);
 
             System.out.println("\n=== PRODUTOS DOS PRIMEIROS PEDIDOS ===\n");
 
+            Relatorio relatorio = novoRelatorio();
             int contadorPedidos = 1;
             while (!primeirosPedidos.vazia()) {
-                Pedido pedido = primeirosPedidos.desenfileirar();
-
-                System.out.println("--- Pedido #" + contadorPedidos + " ---");
-                System.out.println("Número do pedido: " + String.format("%02d", pedido.getIdPedido()));
-                System.out.println("Data do pedido: " + pedido.getDataPedido());
-                System.out.println("Quantidade de produtos: " + pedido.getQuantosProdutos());
-                System.out.println("\nProdutos:");
-
-                Produto[] produtos = pedido.getProdutos();
-                for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
-                    System.out.println("  " + (i + 1) + ". " + produtos[i].descricao +
-                            " - R$ " + String.format("%.2f", produtos[i].valorDeVenda()));
-                }
-
-                System.out.println("Valor total do pedido: R$ " + String.format("%.2f", pedido.valorFinal()));
-                System.out.println();
-
+                relatorio.resumoPedido(contadorPedidos, primeirosPedidos.desenfileirar(), true);
                 contadorPedidos++;
             }
+            relatorio.descarregar();
 
         } catch (IllegalArgumentException e) {
             System.out.println("Erro: " + e.getMessage());
@@ -305,9 +721,9 @@ public class App {
             return;
         }
 
-        int numPedidos = lerOpcao("Quantos primeiros pedidos deseja considerar no cálculo?", Integer.class);
+        Integer numPedidos = lerInteiro("Quantos primeiros pedidos deseja considerar no cálculo?");
 
-        if (numPedidos <= 0) {
+        if (numPedidos == null || numPedidos <= 0) {
             System.out.println("Número inválido de pedidos!");
             return;
         }
@@ -315,7 +731,8 @@ public class App {
         try {
             // Usa o método calcularValorMedio com uma função que extrai o valor final de
             // cada pedido
-            double valorMedio = filaPedidos.calcularValorMedio(Pedido::valorFinal, numPedidos);
+            double valorMedio = filaPedidos.calcularValorMedio(List.of("valorFinal", versaoPrecos()),
+                    App::valorFinal, numPedidos);
 
             System.out.println("\n=== VALOR MÉDIO DOS PRIMEIROS PEDIDOS ===\n");
             System.out.println("Quantidade de pedidos analisados: " + numPedidos);
@@ -337,14 +754,14 @@ public class App {
             return;
         }
 
-        int numPedidos = lerOpcao("Quantos primeiros pedidos deseja analisar?", Integer.class);
+        Integer numPedidos = lerInteiro("Quantos primeiros pedidos deseja analisar?");
 
-        if (numPedidos <= 0) {
+        if (numPedidos == null || numPedidos <= 0) {
             System.out.println("Número inválido de pedidos!");
             return;
         }
 
-        Double valorMinimo = lerOpcao("Digite o valor mínimo do pedido:", Double.class);
+        Double valorMinimo = lerReal("Digite o valor mínimo do pedido:");
 
         if (valorMinimo == null || valorMinimo < 0) {
             System.out.println("Valor inválido!");
@@ -354,8 +771,8 @@ public class App {
         try {
             // Usa o método filtrar com um predicado que testa se o valor do pedido é maior
             // que o mínimo
-            Fila<Pedido> pedidosFiltrados = filaPedidos.filtrar(
-                    pedido -> pedido.valorFinal() > valorMinimo,
+            Fila<Pedido> pedidosFiltrados = filaPedidos.filtrar(List.of(valorMinimo, versaoPrecos()),
+                    pedido -> valorFinal(pedido) > valorMinimo,
                     numPedidos);
 
             System.out.println("\n=== PEDIDOS COM VALOR ACIMA DE R$ " + String.format("%.2f", valorMinimo) + " ===\n");
@@ -364,19 +781,13 @@ public class App {
                 System.out.println(
                         "Nenhum pedido encontrado com valor acima de R$ " + String.format("%.2f", valorMinimo));
             } else {
+                Relatorio relatorio = novoRelatorio();
                 int contador = 1;
                 while (!pedidosFiltrados.vazia()) {
-                    Pedido pedido = pedidosFiltrados.desenfileirar();
-
-                    System.out.println("--- Pedido #" + contador + " ---");
-                    System.out.println("Número do pedido: " + String.format("%02d", pedido.getIdPedido()));
-                    System.out.println("Data do pedido: " + pedido.getDataPedido());
-                    System.out.println("Quantidade de produtos: " + pedido.getQuantosProdutos());
-                    System.out.println("Valor total: R$ " + String.format("%.2f", pedido.valorFinal()));
-                    System.out.println();
-
+                    relatorio.resumoPedido(contador, pedidosFiltrados.desenfileirar(), false);
                     contador++;
                 }
+                relatorio.descarregar();
                 System.out.println("Total de pedidos encontrados: " + (contador - 1));
             }
 
@@ -396,9 +807,9 @@ public class App {
             return;
         }
 
-        int numPedidos = lerOpcao("Quantos primeiros pedidos deseja analisar?", Integer.class);
+        Integer numPedidos = lerInteiro("Quantos primeiros pedidos deseja analisar?");
 
-        if (numPedidos <= 0) {
+        if (numPedidos == null || numPedidos <= 0) {
             System.out.println("Número inválido de pedidos!");
             return;
         }
@@ -413,7 +824,7 @@ public class App {
         try {
             // Usa o método filtrar com um predicado que testa se o pedido contém o produto
             // buscado
-            Fila<Pedido> pedidosFiltrados = filaPedidos.filtrar(
+            Fila<Pedido> pedidosFiltrados = filaPedidos.filtrar(produtoBuscado,
                     pedido -> {
                         Produto[] produtos = pedido.getProdutos();
                         for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
@@ -425,24 +836,18 @@ public class App {
                     },
                     numPedidos);
 
-            System.out.println("\n=== PEDIDOS QUE CONTÊM O PRODUTO: " + produtoBuscado.descricao + " ===\n");
+            System.out.println("\n=== PEDIDOS QUE CONTÊM O PRODUTO: " + produtoBuscado.getDescricao() + " ===\n");
 
             if (pedidosFiltrados.vazia()) {
-                System.out.println("Nenhum pedido encontrado com o produto " + produtoBuscado.descricao);
+                System.out.println("Nenhum pedido encontrado com o produto " + produtoBuscado.getDescricao());
             } else {
+                Relatorio relatorio = novoRelatorio();
                 int contador = 1;
                 while (!pedidosFiltrados.vazia()) {
-                    Pedido pedido = pedidosFiltrados.desenfileirar();
-
-                    System.out.println("--- Pedido #" + contador + " ---");
-                    System.out.println("Número do pedido: " + String.format("%02d", pedido.getIdPedido()));
-                    System.out.println("Data do pedido: " + pedido.getDataPedido());
-                    System.out.println("Quantidade de produtos: " + pedido.getQuantosProdutos());
-                    System.out.println("Valor total: R$ " + String.format("%.2f", pedido.valorFinal()));
-                    System.out.println();
-
+                    relatorio.resumoPedido(contador, pedidosFiltrados.desenfileirar(), false);
                     contador++;
                 }
+                relatorio.descarregar();
                 System.out.println("Total de pedidos encontrados: " + (contador - 1));
             }
 
@@ -451,33 +856,357 @@ public class App {
         }
     }
 
-    public static void main(String[] args) {
+    /**
+     * Modo sem interface interativa: carrega os produtos e atende pedidos pelo
+     * {@link ServidorPedidos} até o processo ser encerrado.
+     * 
+     * @param args "servidor", seguido opcionalmente da porta.
+     */
+    static void executarServidor(String[] args) throws IOException {
+
+        int porta = args.length > 1 ? Integer.parseInt(args[1]) : ServidorPedidos.PORTA_PADRAO;
+        FilaInstantanea<Pedido> pedidos = new FilaInstantanea<>();
+        ServidorPedidos.ligarNoDelay();
+        ServidorPedidos servidor = new ServidorPedidos(porta, pedidos);
+        Metricas.monitorarFilaPedidos(pedidos::tamanho);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(servidor::parar));
+        servidor.iniciar();
+        System.out.println("Servidor de pedidos em http://localhost:" + servidor.getPorta());
+    }
+
+    /**
+     * Importa em lote os pedidos de um arquivo para a fila de pedidos, antes do
+     * início da CLI. Ver {@link ImportadorPedidos} para o formato do arquivo.
+     * 
+     * @param nomeArquivoPedidos Nome do arquivo de pedidos.
+     */
+    static void importarPedidos(String nomeArquivoPedidos) throws IOException {
 
-        teclado = new Scanner(System.in, Charset.forName("UTF-8"));
+        CatalogoProdutos atual = catalogo;
+        ImportadorPedidos importador = new ImportadorPedidos(atual.getProdutos(), atual.getQuantidade());
 
-        nomeArquivoDados = "C://users//1446843//Documents//estruturas-de-dados-lineares-gguilhermelana//src//produtos.txt";
-        produtosCadastrados = lerProdutos(nomeArquivoDados);
+        long inicio = System.nanoTime();
+        importador.importar(nomeArquivoPedidos, filaPedidos);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
 
-        Pedido pedido = null;
+        System.out.println(String.format("%d pedidos importados em %.2f s (%.0f pedidos/min). Linhas inválidas: %d",
+                importador.getPedidosImportados(), segundos, importador.getPedidosImportados() / segundos * 60,
+                importador.getLinhasInvalidas()));
+    }
 
-        int opcao = -1;
+    /**
+     * Grava o catálogo atual no formato do arquivo de produtos (ver
+     * {@link EscritorCatalogo}).
+     * 
+     * @param nomeArquivo Nome do arquivo de destino.
+     * @param partes      Quantidade de partes formatadas em paralelo (1 para
+     *                    gravar em sequência).
+     */
+    static void exportarProdutos(String nomeArquivo, int partes) throws IOException {
 
-        do {
-            opcao = menu();
-            switch (opcao) {
-                case 1 -> listarTodosOsProdutos();
-                case 2 -> mostrarProduto(localizarProduto());
-                case 3 -> mostrarProduto(localizarProdutoDescricao());
-                case 4 -> pedido = iniciarPedido();
-                case 5 -> finalizarPedido(pedido);
-                case 6 -> listarProdutosPrimerosPedidos();
-                case 7 -> exibirValorMedioPrimerosPedidos();
-                case 8 -> exibirPedidosAcimaDeValor();
-                case 9 -> exibirPedidosComProduto();
+        CatalogoProdutos atual = catalogo;
+
+        try (FileOutputStream arquivo = new FileOutputStream(nomeArquivo)) {
+            if (partes > 1) {
+                EscritorCatalogo.escreverEmPartes(atual.getProdutos(), atual.getQuantidade(), arquivo, partes);
+            } else {
+                EscritorCatalogo.escrever(atual.getProdutos(), atual.getQuantidade(), arquivo);
             }
-            pausa();
-        } while (opcao != 0);
+        }
+        System.out.println(atual.getQuantidade() + " produtos exportados para " + nomeArquivo);
+    }
+
+    /**
+     * Com as métricas ligadas (-Dmetricas=true), registra o MBean de métricas e
+     * imprime o relatório na saída de erros a cada -Dmetricas.intervalo segundos
+     * (padrão: 60).
+     */
+    static void iniciarMetricas() {
+
+        if (!Metricas.ATIVAS) {
+            return;
+        }
 
-        teclado.close();
+        Metricas.monitorarFilaPedidos(filaPedidos::tamanho);
+        try {
+            Metricas metricas = Metricas.registrarJmx();
+            ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "metricas");
+                thread.setDaemon(true);
+                return thread;
+            });
+            metricas.agendarDespejo(agendador, Long.getLong("metricas.intervalo", 60), System.err);
+        } catch (JMException e) {
+            System.err.println("Não foi possível registrar as métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exibe a média e os pedidos de maior e menor valor entre os últimos pedidos
+     * finalizados (janela deslizante), sem percorrer a fila de pedidos.
+     */
+    public static void exibirResumoUltimosPedidos() {
+        cabecalho();
+
+        if (janelaPedidos.quantidade() == 0) {
+            System.out.println("Nenhum pedido finalizado ainda!");
+            return;
+        }
+
+        Pedido maior = janelaPedidos.maior();
+        Pedido menor = janelaPedidos.menor();
+
+        System.out.println("\n=== RESUMO DOS ÚLTIMOS " + janelaPedidos.quantidade() + " PEDIDOS ===\n");
+        System.out.println("Valor total médio: R$ " + String.format("%.2f", janelaPedidos.media()));
+        System.out.println("Maior pedido: " + String.format("%02d", maior.getIdPedido()) + " - R$ "
+                + String.format("%.2f", valorFinal(maior)));
+        System.out.println("Menor pedido: " + String.format("%02d", menor.getIdPedido()) + " - R$ "
+                + String.format("%.2f", valorFinal(menor)));
+    }
+
+    /**
+     * Exibe os K produtos mais pedidos entre os pedidos finalizados, a partir do
+     * ranking mantido a cada pedido (sem percorrer a fila de pedidos).
+     */
+    public static void exibirProdutosMaisPedidos() {
+        cabecalho();
+
+        Integer k = lerInteiro("Quantos produtos deseja visualizar?");
+
+        if (k == null) {
+            System.out.println("Quantidade inválida!");
+            return;
+        }
+
+        Fila<MaisVendidos.Contagem> ranking = maisVendidos.maisPedidos(k);
+
+        if (ranking.vazia()) {
+            System.out.println("Nenhum pedido finalizado ainda!");
+            return;
+        }
+
+        System.out.println("\n=== PRODUTOS MAIS PEDIDOS ===\n");
+        int posicao = 1;
+        while (!ranking.vazia()) {
+            MaisVendidos.Contagem contagem = ranking.desenfileirar();
+            String quantidade = (contagem.getErro() == 0) ? String.valueOf(contagem.getQuantidade())
+                    : (contagem.getQuantidade() - contagem.getErro()) + " a " + contagem.getQuantidade();
+            System.out.println(String.format("%02d", posicao++) + " - " + contagem.getProduto().getDescricao() + ": "
+                    + quantidade + " pedido(s)");
+        }
+    }
+
+    /**
+     * Exibe a quantidade de pedidos e o faturamento de um período, no total e
+     * separados entre à vista e parcelados, a partir dos agregados por dia (sem
+     * percorrer a fila de pedidos).
+     */
+    public static void exibirFaturamentoPeriodo() {
+        cabecalho();
+
+        LocalDate inicio = lerData("Data inicial do período (dd/mm/aaaa):");
+        LocalDate fim = (inicio == null) ? null : lerData("Data final do período (dd/mm/aaaa):");
+
+        if (fim == null) {
+            System.out.println("Data inválida!");
+            return;
+        }
+
+        ResumoPorDia.Resumo resumo = resumoPedidos.resumir(inicio, fim);
+
+        System.out.println("\n=== FATURAMENTO DE " + Produto.FORMATO_DATA.format(inicio) + " A "
+                + Produto.FORMATO_DATA.format(fim) + " ===\n");
+        System.out.println("Pedidos: " + resumo.getPedidos() + " - R$ "
+                + String.format("%.2f", resumo.getFaturamento()));
+        System.out.println("À vista: " + resumo.getPedidosAVista() + " - R$ "
+                + String.format("%.2f", resumo.getFaturamentoAVista()));
+        System.out.println("Parcelados: " + resumo.getPedidosParcelados() + " - R$ "
+                + String.format("%.2f", resumo.getFaturamentoParcelado()));
+    }
+
+    /**
+     * Lista os produtos com código na faixa informada pelo usuário, em ordem de
+     * código, a partir do índice por código do catálogo.
+     */
+    static void listarProdutosPorFaixaDeCodigo() {
+
+        retirarProdutosVencidos();
+        cabecalho();
+        Integer de = lerInteiro("Código inicial da faixa:");
+        Integer ate = (de == null) ? null : lerInteiro("Código final da faixa:");
+
+        if (ate == null) {
+            System.out.println("Código inválido!");
+            return;
+        }
+
+        Fila<Produto> produtos = catalogo.getPorCodigo().intervalo(de, ate);
+        System.out.println("\nPRODUTOS COM CÓDIGO DE " + de + " A " + ate + ":");
+        Relatorio relatorio = novoRelatorio();
+        int contador = 1;
+        while (!produtos.vazia()) {
+            relatorio.produtoNumerado(contador++, produtos.desenfileirar());
+        }
+        relatorio.descarregar();
+        System.out.println("Total de produtos encontrados: " + (contador - 1));
+    }
+
+    /**
+     * Exibe os pedidos finalizados com número na faixa informada pelo usuário, em
+     * ordem de número.
+     */
+    static void exibirPedidosPorFaixaDeNumero() {
+
+        cabecalho();
+        Integer de = lerInteiro("Número inicial da faixa:");
+        Integer ate = (de == null) ? null : lerInteiro("Número final da faixa:");
+
+        if (ate == null) {
+            System.out.println("Número inválido!");
+            return;
+        }
+
+        Fila<Pedido> pedidos = pedidosPorNumero.intervalo(de, ate);
+        System.out.println("\n=== PEDIDOS DE NÚMERO " + de + " A " + ate + " ===\n");
+        Relatorio relatorio = novoRelatorio();
+        int contador = 1;
+        while (!pedidos.vazia()) {
+            relatorio.resumoPedido(contador++, pedidos.desenfileirar(), false);
+        }
+        relatorio.descarregar();
+        System.out.println("Total de pedidos encontrados: " + (contador - 1));
+    }
+
+    /** Pedido iniciado pela opção 4 e ainda não fechado (null se não houver) */
+    static Pedido pedidoAtual;
+
+    /**
+     * Comandos do menu principal, indexados pela opção. Cada comando lê as
+     * próprias respostas da {@link #entrada}.
+     */
+    static final Comando[] COMANDOS = {
+            new Comando("Sair", () -> {
+            }),
+            new Comando("Listar todos os produtos", App::listarTodosOsProdutos),
+            new Comando("Procurar por um produto, por código", () -> mostrarProduto(localizarProduto())),
+            new Comando("Procurar por um produto, por nome", () -> mostrarProduto(localizarProdutoDescricao())),
+            new Comando("Iniciar novo pedido", () -> {
+                descartarPedido(pedidoAtual);
+                pedidoAtual = iniciarPedido();
+            }),
+            new Comando("Fechar pedido", () -> {
+                finalizarPedido(pedidoAtual);
+                pedidoAtual = null;
+            }),
+            new Comando("Listar produtos dos primeiros pedidos", App::listarProdutosPrimerosPedidos),
+            new Comando("Exibir valor total médio dos N primeiros pedidos", App::exibirValorMedioPrimerosPedidos),
+            new Comando("Exibir primeiros pedidos com valor acima de X", App::exibirPedidosAcimaDeValor),
+            new Comando("Exibir primeiros pedidos que contêm um produto", App::exibirPedidosComProduto),
+            new Comando("Listar produtos próximos do vencimento", App::listarProdutosProximosDoVencimento),
+            new Comando("Exibir resumo dos últimos pedidos finalizados", App::exibirResumoUltimosPedidos),
+            new Comando("Exibir produtos mais pedidos", App::exibirProdutosMaisPedidos),
+            new Comando("Exibir faturamento de um período", App::exibirFaturamentoPeriodo),
+            new Comando("Listar produtos por faixa de código", App::listarProdutosPorFaixaDeCodigo),
+            new Comando("Exibir pedidos por faixa de número", App::exibirPedidosPorFaixaDeNumero),
+    };
+
+    /** Opção do menu principal: descrição exibida e ação executada. */
+    static class Comando {
+        final String descricao;
+        final Runnable acao;
+
+        Comando(String descricao, Runnable acao) {
+            this.descricao = descricao;
+            this.acao = acao;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        iniciarMetricas();
+
+        nomeArquivoDados = System.getProperty("produtos",
+                "C://users//1446843//Documents//estruturas-de-dados-lineares-gguilhermelana//src//produtos.txt");
+        Produto[] produtosLidos = lerProdutos(nomeArquivoDados);
+        catalogo = new CatalogoProdutos(produtosLidos);
+
+        retirarProdutosVencidos();
+        iniciarReprecificacao();
+
+        Long estoqueInicial = Long.getLong("estoque");
+        if (estoqueInicial != null) {
+            CatalogoProdutos atual = catalogo;
+            estoque = EstoqueProdutos.doCatalogo(atual.getProdutos(), atual.getQuantidade(), estoqueInicial);
+        }
+
+        if (Boolean.getBoolean("recarregarProdutos")) {
+            new RecarregadorCatalogo(Path.of(nomeArquivoDados), produtosLidos, App::publicarCatalogo).iniciar();
+        }
+
+        if (args.length > 0 && args[0].equals("servidor")) {
+            executarServidor(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("importar")) {
+            importarPedidos(args[1]);
+        }
+        if (args.length > 1 && args[0].equals("exportar")) {
+            exportarProdutos(args[1], args.length > 2 ? Integer.parseInt(args[2]) : 1);
+            return;
+        }
+
+        if (Boolean.getBoolean("pipeline")) {
+            pipelinePedidos = PipelinePedidos.padrao(1024, 1, 32).iniciar();
+        }
+
+        entrada = (args.length > 1 && args[0].equals("roteiro"))
+                ? EntradaComandos.doArquivo(Path.of(args[1]))
+                : EntradaComandos.doTeclado();
+        if (!entrada.isInterativa()) {
+            System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                    false, Charset.defaultCharset()));
+        }
+
+        try {
+            executarMenu();
+            entrada.close();
+
+            if (pipelinePedidos != null) {
+                try {
+                    pipelinePedidos.encerrar();
+                    System.out.print(pipelinePedidos.relatorio());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            // Fora do modo interativo a saída é bufferizada: descarrega tudo, inclusive o
+            // relatório do pipeline e o que foi impresso antes de uma exceção
+            System.out.flush();
+        }
+    }
+
+    /** Executa as opções do menu até a opção 0 ou o fim da entrada. */
+    private static void executarMenu() {
+
+        int opcao = -1;
+
+        try {
+            do {
+                opcao = menu();
+                if (opcao < 0 || opcao >= COMANDOS.length) {
+                    System.out.println("Opção inválida!");
+                } else if (opcao > 0) {
+                    COMANDOS[opcao].acao.run();
+                }
+                pausa();
+            } while (opcao != 0);
+        } catch (NoSuchElementException e) {
+            // fim do roteiro (ou da entrada redirecionada) sem a opção 0
+            if (!entrada.terminou()) {
+                throw e;
+            }
+        }
     }
 }
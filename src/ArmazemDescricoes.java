@@ -0,0 +1,307 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Armazém de descrições de produtos fora do heap.
+ *
+ * Cada descrição é dividida em palavras (separadas por espaço) e gravada, em UTF-8, em blocos de
+ * memória direta ({@link ByteBuffer#allocateDirect(int)}), que o coletor de lixo não percorre.
+ * As palavras frequentes nos catálogos ("Fita", "adesiva", nomes de cores...) entram em um
+ * dicionário e são gravadas só como o seu número; as demais são gravadas por extenso. Uma palavra
+ * só entra no dicionário quando se repete: a primeira ocorrência deixa apenas o hash da palavra
+ * em uma tabela de candidatas, de tamanho fixo, em que cada nova candidata substitui a que ocupava
+ * a sua posição. Assim, catálogos com muitas palavras únicas (números, códigos) não enchem o
+ * dicionário antes das palavras comuns. A busca no dicionário compara os bytes UTF-8 gravados,
+ * sem manter as palavras como String. Uma descrição é identificada por uma referência (bloco e posição), e só
+ * é decodificada para String quando alguém pede.
+ *
+ * Formato de uma descrição: quantidade de palavras e, para cada palavra, um código
+ * (2 × número no dicionário) ou (2 × tamanho + 1) seguido dos bytes da palavra. Todos os números
+ * são gravados com 7 bits por byte (o bit mais alto indica continuação).
+ *
+ * A comparação sem distinção de maiúsculas é feita direto sobre os bytes, sem decodificar
+ * (ver {@link #igualIgnorandoCaso(long, byte[], String)}).
+ *
+ * Gravações são sincronizadas; leituras não bloqueiam. Uma referência só deve ser usada por
+ * outra thread depois de publicada com segurança (por exemplo, dentro de um catálogo publicado).
+ */
+public class ArmazemDescricoes {
+
+	private static final int TAMANHO_BLOCO = 1 << 20;
+	private static final int MAXIMO_PALAVRAS_DICIONARIO = 1 << 16;
+	private static final int TAMANHO_CANDIDATAS = 1 << 15;
+
+	/** Blocos de memória; o vetor é substituído (não alterado) quando cresce */
+	private volatile ByteBuffer[] blocos = new ByteBuffer[0];
+	private ByteBuffer atual;
+
+	/**
+	 * Tabela de espalhamento do dicionário (endereçamento aberto, sondagem linear): número da
+	 * palavra + 1 na posição do seu hash, ou 0 se a posição estiver livre
+	 */
+	private final int[] numeros = new int[MAXIMO_PALAVRAS_DICIONARIO * 2];
+
+	/** Hash das palavras vistas uma vez e ainda fora do dicionário, na posição do hash */
+	private final long[] candidatas = new long[TAMANHO_CANDIDATAS];
+
+	/** Bytes UTF-8 de cada palavra do dicionário; o vetor é substituído quando cresce */
+	private volatile byte[][] palavras = new byte[16][];
+	private int quantasPalavras;
+
+	private long bytesGravados;
+
+	/**
+	 * Grava uma descrição.
+	 *
+	 * @param descricao A descrição
+	 * @return A referência da descrição gravada
+	 */
+	public synchronized long armazenar(String descricao) {
+
+		// O espaço (0x20) nunca aparece dentro de um caractere UTF-8 de vários bytes
+		byte[] utf8 = descricao.getBytes(StandardCharsets.UTF_8);
+		int quantasPartes = 1;
+		for (byte b : utf8) {
+			if (b == ' ') {
+				quantasPartes++;
+			}
+		}
+		ByteBuffer codificada = ByteBuffer.allocate(5 + utf8.length + quantasPartes * 5);
+
+		gravarNumero(codificada, quantasPartes);
+		int inicio = 0;
+		for (int i = 0; i <= utf8.length; i++) {
+			if (i < utf8.length && utf8[i] != ' ') {
+				continue;
+			}
+			int numero = numeroNoDicionario(utf8, inicio, i);
+			if (numero >= 0) {
+				gravarNumero(codificada, numero << 1);
+			} else {
+				gravarNumero(codificada, ((i - inicio) << 1) | 1);
+				codificada.put(utf8, inicio, i - inicio);
+			}
+			inicio = i + 1;
+		}
+		codificada.flip();
+
+		int tamanho = codificada.remaining();
+		if (atual == null || atual.remaining() < tamanho) {
+			novoBloco(tamanho);
+		}
+		long referencia = ((long) (blocos.length - 1) << 32) | atual.position();
+		atual.put(codificada);
+		bytesGravados += tamanho;
+		return referencia;
+	}
+
+	/**
+	 * Decodifica uma descrição.
+	 *
+	 * @param referencia Referência retornada por {@link #armazenar(String)}
+	 * @return A descrição
+	 */
+	public String decodificar(long referencia) {
+
+		ByteBuffer bloco = blocos[(int) (referencia >>> 32)];
+		byte[][] dicionario = palavras;
+		int[] posicao = { (int) referencia };
+		StringBuilder descricao = new StringBuilder();
+
+		int quantas = lerNumero(bloco, posicao);
+		for (int i = 0; i < quantas; i++) {
+			if (i > 0) {
+				descricao.append(' ');
+			}
+			int codigo = lerNumero(bloco, posicao);
+			byte[] bytes;
+			if ((codigo & 1) == 0) {
+				bytes = dicionario[codigo >>> 1];
+			} else {
+				bytes = new byte[codigo >>> 1];
+				bloco.get(posicao[0], bytes);
+				posicao[0] += bytes.length;
+			}
+			descricao.append(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return descricao.toString();
+	}
+
+	/**
+	 * Compara uma descrição gravada com um texto, sem distinção de maiúsculas, com o mesmo
+	 * resultado de String.equalsIgnoreCase. A comparação percorre os bytes gravados e os do texto
+	 * lado a lado e para na primeira diferença; letras ASCII e as acentuadas do Latin-1 (À-Þ/à-þ)
+	 * são comparadas sem decodificar. Só quando a diferença envolve outro caractere não ASCII a
+	 * descrição é decodificada e comparada com equalsIgnoreCase.
+	 *
+	 * @param referencia Referência da descrição
+	 * @param textoUtf8  Bytes UTF-8 do texto
+	 * @param texto      O texto (usado apenas no caso de decodificação)
+	 * @return true se forem iguais sem distinção de maiúsculas
+	 */
+	public boolean igualIgnorandoCaso(long referencia, byte[] textoUtf8, String texto) {
+
+		ByteBuffer bloco = blocos[(int) (referencia >>> 32)];
+		byte[][] dicionario = palavras;
+		int[] posicao = { (int) referencia };
+		int noTexto = 0;
+		boolean anteriorC3 = false;
+
+		int quantas = lerNumero(bloco, posicao);
+		for (int i = 0; i < quantas; i++) {
+			if (i > 0) {
+				if (noTexto == textoUtf8.length || textoUtf8[noTexto] != ' ') {
+					return false;
+				}
+				noTexto++;
+				anteriorC3 = false;
+			}
+
+			int codigo = lerNumero(bloco, posicao);
+			byte[] palavra = null;
+			int tamanho;
+			int inicio;
+			if ((codigo & 1) == 0) {
+				palavra = dicionario[codigo >>> 1];
+				tamanho = palavra.length;
+				inicio = 0;
+			} else {
+				tamanho = codigo >>> 1;
+				inicio = posicao[0];
+				posicao[0] += tamanho;
+			}
+
+			for (int j = 0; j < tamanho; j++) {
+				if (noTexto == textoUtf8.length) {
+					return false;
+				}
+				byte gravado = (palavra != null) ? palavra[j] : bloco.get(inicio + j);
+				byte consultado = textoUtf8[noTexto++];
+				if (gravado != consultado && !mesmaLetra(gravado, consultado, anteriorC3)) {
+					return (gravado < 0 || consultado < 0) && decodificar(referencia).equalsIgnoreCase(texto);
+				}
+				anteriorC3 = gravado == (byte) 0xC3;
+			}
+		}
+		return noTexto == textoUtf8.length;
+	}
+
+	/** @return Total de bytes de descrições gravados nos blocos */
+	public synchronized long getBytesGravados() {
+		return bytesGravados;
+	}
+
+	/** @return Quantidade de palavras no dicionário */
+	public synchronized int getPalavrasNoDicionario() {
+		return quantasPalavras;
+	}
+
+	/**
+	 * Verifica se dois bytes diferentes, na mesma posição, são a mesma letra em maiúscula e
+	 * minúscula: ASCII, ou o segundo byte de uma letra Latin-1 (primeiro byte 0xC3).
+	 */
+	private static boolean mesmaLetra(byte a, byte b, boolean anteriorC3) {
+
+		if (a >= 0 && b >= 0) {
+			return minusculaAscii(a) == minusculaAscii(b) && minusculaAscii(a) >= 'a' && minusculaAscii(a) <= 'z';
+		}
+		if (!anteriorC3 || a >= 0 || b >= 0) {
+			return false;
+		}
+		// 0xC3 0x80-0x9E (À-Þ, exceto ×) e 0xC3 0xA0-0xBE (à-þ, exceto ÷)
+		int x = a & 0xFF;
+		int y = b & 0xFF;
+		int menor = Math.min(x, y);
+		return Math.abs(x - y) == 0x20 && menor >= 0x80 && menor <= 0x9E && menor != 0x97;
+	}
+
+	private static int minusculaAscii(byte b) {
+		return (b >= 'A' && b <= 'Z') ? b + ('a' - 'A') : b;
+	}
+
+	/**
+	 * Procura a palavra (bytes de inicio a fim) no dicionário. Se ela não estiver lá, inclui-a caso
+	 * já seja candidata e haja espaço, ou a registra como candidata.
+	 *
+	 * @return O número da palavra no dicionário, ou -1
+	 */
+	private int numeroNoDicionario(byte[] texto, int inicio, int fim) {
+
+		if (inicio == fim) {
+			return -1;
+		}
+
+		long hash = hash(texto, inicio, fim);
+		int posicao = (int) hash & (numeros.length - 1);
+		while (numeros[posicao] != 0) {
+			int numero = numeros[posicao] - 1;
+			if (Arrays.equals(palavras[numero], 0, palavras[numero].length, texto, inicio, fim)) {
+				return numero;
+			}
+			posicao = (posicao + 1) & (numeros.length - 1);
+		}
+		if (quantasPalavras == MAXIMO_PALAVRAS_DICIONARIO) {
+			return -1;
+		}
+
+		int candidata = (int) (hash >>> 32) & (TAMANHO_CANDIDATAS - 1);
+		if (candidatas[candidata] != hash) {
+			candidatas[candidata] = hash;
+			return -1;
+		}
+		candidatas[candidata] = 0;
+
+		byte[][] dicionario = palavras;
+		if (quantasPalavras == dicionario.length) {
+			byte[][] maior = new byte[dicionario.length * 2][];
+			System.arraycopy(dicionario, 0, maior, 0, quantasPalavras);
+			dicionario = maior;
+		}
+		dicionario[quantasPalavras] = Arrays.copyOfRange(texto, inicio, fim);
+		palavras = dicionario;
+		numeros[posicao] = quantasPalavras + 1;
+		return quantasPalavras++;
+	}
+
+	/** Hash FNV-1a de 64 bits dos bytes de inicio a fim; nunca é 0 (posição livre das candidatas). */
+	private static long hash(byte[] texto, int inicio, int fim) {
+
+		long hash = 0xcbf29ce484222325L;
+		for (int i = inicio; i < fim; i++) {
+			hash = (hash ^ (texto[i] & 0xFF)) * 0x100000001b3L;
+		}
+		return (hash == 0) ? 1 : hash;
+	}
+
+	private void novoBloco(int minimo) {
+
+		atual = ByteBuffer.allocateDirect(Math.max(TAMANHO_BLOCO, minimo));
+		ByteBuffer[] maiores = new ByteBuffer[blocos.length + 1];
+		System.arraycopy(blocos, 0, maiores, 0, blocos.length);
+		maiores[blocos.length] = atual;
+		blocos = maiores;
+	}
+
+	private static void gravarNumero(ByteBuffer destino, int numero) {
+		while ((numero & ~0x7F) != 0) {
+			destino.put((byte) ((numero & 0x7F) | 0x80));
+			numero >>>= 7;
+		}
+		destino.put((byte) numero);
+	}
+
+	/** Lê um número na posição posicao[0] do bloco e avança a posição. */
+	private static int lerNumero(ByteBuffer bloco, int[] posicao) {
+
+		int numero = 0;
+		int deslocamento = 0;
+		byte b;
+		do {
+			b = bloco.get(posicao[0]++);
+			numero |= (b & 0x7F) << deslocamento;
+			deslocamento += 7;
+		} while (b < 0);
+		return numero;
+	}
+}
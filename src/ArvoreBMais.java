@@ -0,0 +1,336 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa ordenado em árvore B+: cada nó guarda até {@link #ORDEM_PADRAO} chaves em um vetor
+ * contínuo, percorrido por busca binária, e os valores ficam apenas nas folhas, que são
+ * encadeadas da menor para a maior chave. Uma busca visita log<sub>B</sub>(n) nós (3 para um
+ * catálogo de 100 mil produtos), e uma consulta por faixa desce uma vez até a primeira folha e
+ * segue o encadeamento, lendo vetores em sequência em vez de perseguir um ponteiro por elemento.
+ *
+ * Não há remoção: as versões do catálogo compartilham a árvore da carga e filtram os produtos
+ * retirados (ver {@link CatalogoProdutos}), e os pedidos finalizados não saem do histórico. Sem remoções, a primeira chave de cada folha
+ * nunca diminui, o que permite calcular o piso sem encadear as folhas nos dois sentidos.
+ *
+ * Quando a chave inserida é a maior da árvore (códigos sequenciais), a folha cheia é dividida
+ * deixando a esquerda completa, em vez de ao meio, para que a carga em ordem crescente não
+ * produza folhas pela metade.
+ *
+ * Não é segura para escritas concorrentes; ver {@link ListaSaltosConcorrente}.
+ *
+ * @param <K> Tipo das chaves
+ * @param <V> Tipo dos valores
+ */
+public class ArvoreBMais<K extends Comparable<? super K>, V> implements MapaOrdenado<K, V> {
+
+	/** Quantidade máxima de chaves por nó */
+	public static final int ORDEM_PADRAO = 64;
+
+	private final int ordem;
+	private No raiz;
+	private Folha primeira;
+	private int tamanho;
+
+	/** Resultado da divisão de um nó durante a inserção: chave que sobe e novo nó à direita */
+	private Object chaveDivisao;
+	private No noDivisao;
+
+	/**
+	 * Cria a árvore vazia, com a ordem padrão.
+	 */
+	public ArvoreBMais() {
+		this(ORDEM_PADRAO);
+	}
+
+	/**
+	 * Cria a árvore vazia.
+	 *
+	 * @param ordem Quantidade máxima de chaves por nó (mínimo 3)
+	 */
+	public ArvoreBMais(int ordem) {
+
+		if (ordem < 3) {
+			throw new IllegalArgumentException("A ordem da árvore deve ser de pelo menos 3 chaves!");
+		}
+		this.ordem = ordem;
+		this.primeira = new Folha(ordem);
+		this.raiz = primeira;
+	}
+
+	@Override
+	public V inserir(K chave, V valor) {
+
+		if (chave == null || valor == null) {
+			throw new IllegalArgumentException("Chave e valor não podem ser nulos!");
+		}
+
+		V anterior = inserir(raiz, chave, valor);
+		if (noDivisao != null) {
+			Interno novaRaiz = new Interno(ordem);
+			novaRaiz.chaves[0] = chaveDivisao;
+			novaRaiz.filhos[0] = raiz;
+			novaRaiz.filhos[1] = noDivisao;
+			novaRaiz.quantidade = 1;
+			raiz = novaRaiz;
+			chaveDivisao = null;
+			noDivisao = null;
+		}
+		return anterior;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V buscar(K chave) {
+
+		Folha folha = folha(chave);
+		int posicao = primeiraMaiorOuIgual(folha.chaves, folha.quantidade, chave);
+		if (posicao < folha.quantidade && chave.compareTo((K) folha.chaves[posicao]) == 0) {
+			return (V) folha.valores[posicao];
+		}
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V piso(K chave) {
+
+		Folha folha = folha(chave);
+		int posicao = primeiraMaior(folha.chaves, folha.quantidade, chave) - 1;
+		return posicao >= 0 ? (V) folha.valores[posicao] : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V teto(K chave) {
+
+		Folha folha = folha(chave);
+		int posicao = primeiraMaiorOuIgual(folha.chaves, folha.quantidade, chave);
+		if (posicao == folha.quantidade) {
+			folha = folha.proxima;
+			posicao = 0;
+		}
+		return folha != null ? (V) folha.valores[posicao] : null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Fila<V> intervalo(K de, K ate) {
+
+		Fila<V> encontrados = new Fila<>();
+		if (de.compareTo(ate) > 0) {
+			return encontrados;
+		}
+
+		Folha folha = folha(de);
+		int posicao = primeiraMaiorOuIgual(folha.chaves, folha.quantidade, de);
+		while (folha != null) {
+			for (; posicao < folha.quantidade; posicao++) {
+				if (ate.compareTo((K) folha.chaves[posicao]) < 0) {
+					return encontrados;
+				}
+				encontrados.enfileirar((V) folha.valores[posicao]);
+			}
+			folha = folha.proxima;
+			posicao = 0;
+		}
+		return encontrados;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Percorre os valores em ordem crescente de chave.
+	 */
+	@Override
+	public Iterator<V> iterator() {
+		return new Iterator<V>() {
+
+			private Folha folha = primeira;
+			private int posicao;
+
+			@Override
+			public boolean hasNext() {
+				while (folha != null && posicao == folha.quantidade) {
+					folha = folha.proxima;
+					posicao = 0;
+				}
+				return folha != null;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public V next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException("Não há mais itens no mapa!");
+				}
+				return (V) folha.valores[posicao++];
+			}
+		};
+	}
+
+	/** Desce da raiz até a folha onde a chave está ou deveria estar. */
+	private Folha folha(K chave) {
+
+		No no = raiz;
+		while (no instanceof Interno) {
+			Interno interno = (Interno) no;
+			no = interno.filhos[primeiraMaior(interno.chaves, interno.quantidade, chave)];
+		}
+		return (Folha) no;
+	}
+
+	/**
+	 * Insere a chave na subárvore. Se o nó for dividido, deixa em chaveDivisao e noDivisao a
+	 * chave separadora e o novo nó, que o chamador deve incluir no nó pai.
+	 */
+	@SuppressWarnings("unchecked")
+	private V inserir(No no, K chave, V valor) {
+
+		if (no instanceof Folha) {
+			Folha folha = (Folha) no;
+			int posicao = primeiraMaiorOuIgual(folha.chaves, folha.quantidade, chave);
+			if (posicao < folha.quantidade && chave.compareTo((K) folha.chaves[posicao]) == 0) {
+				V anterior = (V) folha.valores[posicao];
+				folha.valores[posicao] = valor;
+				return anterior;
+			}
+			abrirEspaco(folha.chaves, folha.quantidade, posicao);
+			abrirEspaco(folha.valores, folha.quantidade, posicao);
+			folha.chaves[posicao] = chave;
+			folha.valores[posicao] = valor;
+			folha.quantidade++;
+			tamanho++;
+			if (folha.quantidade > ordem) {
+				boolean maiorDaArvore = folha.proxima == null && posicao == folha.quantidade - 1;
+				dividir(folha, maiorDaArvore ? ordem : folha.quantidade / 2);
+			}
+			return null;
+		}
+
+		Interno interno = (Interno) no;
+		int filho = primeiraMaior(interno.chaves, interno.quantidade, chave);
+		V anterior = inserir(interno.filhos[filho], chave, valor);
+		if (noDivisao != null) {
+			abrirEspaco(interno.chaves, interno.quantidade, filho);
+			abrirEspaco(interno.filhos, interno.quantidade + 1, filho + 1);
+			interno.chaves[filho] = chaveDivisao;
+			interno.filhos[filho + 1] = noDivisao;
+			interno.quantidade++;
+			chaveDivisao = null;
+			noDivisao = null;
+			if (interno.quantidade > ordem) {
+				dividir(interno);
+			}
+		}
+		return anterior;
+	}
+
+	/** Move para uma nova folha as chaves a partir da posição informada. */
+	private void dividir(Folha folha, int meio) {
+
+		Folha direita = new Folha(ordem);
+		direita.quantidade = folha.quantidade - meio;
+		System.arraycopy(folha.chaves, meio, direita.chaves, 0, direita.quantidade);
+		System.arraycopy(folha.valores, meio, direita.valores, 0, direita.quantidade);
+		limpar(folha.chaves, meio, folha.quantidade);
+		limpar(folha.valores, meio, folha.quantidade);
+		folha.quantidade = meio;
+
+		direita.proxima = folha.proxima;
+		folha.proxima = direita;
+		chaveDivisao = direita.chaves[0];
+		noDivisao = direita;
+	}
+
+	/** Divide o nó interno ao meio; a chave do meio sobe para o pai. */
+	private void dividir(Interno interno) {
+
+		int meio = interno.quantidade / 2;
+		Interno direita = new Interno(ordem);
+		direita.quantidade = interno.quantidade - meio - 1;
+		System.arraycopy(interno.chaves, meio + 1, direita.chaves, 0, direita.quantidade);
+		System.arraycopy(interno.filhos, meio + 1, direita.filhos, 0, direita.quantidade + 1);
+		chaveDivisao = interno.chaves[meio];
+		limpar(interno.chaves, meio, interno.quantidade);
+		limpar(interno.filhos, meio + 1, interno.quantidade + 1);
+		interno.quantidade = meio;
+		noDivisao = direita;
+	}
+
+	/** @return A posição da primeira chave maior ou igual à informada (ou quantidade) */
+	@SuppressWarnings("unchecked")
+	private static <K extends Comparable<? super K>> int primeiraMaiorOuIgual(Object[] chaves, int quantidade, K chave) {
+
+		int inicio = 0;
+		int fim = quantidade;
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (chave.compareTo((K) chaves[meio]) > 0) {
+				inicio = meio + 1;
+			} else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	}
+
+	/** @return A posição da primeira chave maior que a informada (ou quantidade) */
+	@SuppressWarnings("unchecked")
+	private static <K extends Comparable<? super K>> int primeiraMaior(Object[] chaves, int quantidade, K chave) {
+
+		int inicio = 0;
+		int fim = quantidade;
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (chave.compareTo((K) chaves[meio]) >= 0) {
+				inicio = meio + 1;
+			} else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	}
+
+	private static void abrirEspaco(Object[] vetor, int quantidade, int posicao) {
+		System.arraycopy(vetor, posicao, vetor, posicao + 1, quantidade - posicao);
+	}
+
+	private static void limpar(Object[] vetor, int de, int ate) {
+		for (int i = de; i < ate; i++) {
+			vetor[i] = null;
+		}
+	}
+
+	private abstract static class No {
+		/** Chaves do nó; uma posição a mais que a ordem, ocupada só até a divisão */
+		final Object[] chaves;
+		int quantidade;
+
+		No(int ordem) {
+			chaves = new Object[ordem + 1];
+		}
+	}
+
+	private static class Folha extends No {
+		final Object[] valores;
+		Folha proxima;
+
+		Folha(int ordem) {
+			super(ordem);
+			valores = new Object[ordem + 1];
+		}
+	}
+
+	/** Nó interno: o filho i contém as chaves entre chaves[i - 1] (inclusive) e chaves[i] */
+	private static class Interno extends No {
+		final No[] filhos;
+
+		Interno(int ordem) {
+			super(ordem);
+			filhos = new No[ordem + 2];
+		}
+	}
+}
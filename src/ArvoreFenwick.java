@@ -0,0 +1,90 @@
+/**
+ * Árvore de Fenwick (árvore binária indexada) sobre um vetor de inteiros longos: soma um valor a
+ * uma posição e calcula a soma de qualquer intervalo de posições, ambos em O(log n).
+ */
+public class ArvoreFenwick {
+
+	/** Somas parciais; a posição i (a partir de 1) cobre as (i & -i) posições terminadas em i */
+	private final long[] arvore;
+
+	/**
+	 * Cria a árvore com todas as posições zeradas.
+	 *
+	 * @param tamanho Quantidade de posições (0 a tamanho - 1)
+	 */
+	public ArvoreFenwick(int tamanho) {
+		arvore = new long[tamanho + 1];
+	}
+
+	/**
+	 * Cria a árvore com os valores informados, em O(n).
+	 *
+	 * @param valores Valor de cada posição
+	 */
+	public ArvoreFenwick(long[] valores) {
+
+		this(valores.length);
+		for (int i = 1; i < arvore.length; i++) {
+			arvore[i] += valores[i - 1];
+			int pai = i + (i & -i);
+			if (pai < arvore.length) {
+				arvore[pai] += arvore[i];
+			}
+		}
+	}
+
+	/** @return Quantidade de posições */
+	public int tamanho() {
+		return arvore.length - 1;
+	}
+
+	/**
+	 * Soma um valor à posição informada.
+	 *
+	 * @param posicao Posição (0 a tamanho - 1)
+	 * @param valor   Valor a ser somado
+	 */
+	public void somar(int posicao, long valor) {
+		for (int i = posicao + 1; i < arvore.length; i += i & -i) {
+			arvore[i] += valor;
+		}
+	}
+
+	/**
+	 * @param fim Posição final (exclusiva)
+	 * @return Soma das posições 0 a fim - 1
+	 */
+	public long prefixo(int fim) {
+
+		long soma = 0;
+		for (int i = fim; i > 0; i -= i & -i) {
+			soma += arvore[i];
+		}
+		return soma;
+	}
+
+	/**
+	 * @param inicio Posição inicial (inclusiva)
+	 * @param fim    Posição final (exclusiva)
+	 * @return Soma das posições do intervalo
+	 */
+	public long soma(int inicio, int fim) {
+		return prefixo(fim) - prefixo(inicio);
+	}
+
+	/** @return Os valores de todas as posições, em O(n). */
+	public long[] valores() {
+
+		long[] valores = new long[tamanho()];
+		long[] copia = arvore.clone();
+		// Desfaz a construção em O(n), do fim para o início
+		for (int i = copia.length - 1; i > 0; i--) {
+			int pai = i + (i & -i);
+			if (pai < copia.length) {
+				copia[pai] -= copia[i];
+			}
+		}
+		System.arraycopy(copia, 1, valores, 0, valores.length);
+		return valores;
+	}
+}
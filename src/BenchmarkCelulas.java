@@ -0,0 +1,94 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compara {@link Fila} e {@link Pilha} com e sem reciclagem de células: tempo e bytes alocados
+ * por operação, em regime de troca contínua (cada inserção é seguida, em algum momento, de uma
+ * remoção), com a estrutura oscilando em torno de um tamanho fixo.
+ *
+ * Os bytes alocados são medidos pela JVM para a thread corrente
+ * ({@code com.sun.management.ThreadMXBean}); os itens inseridos são criados antes da medição.
+ *
+ * Uso: java BenchmarkCelulas [operacoes] [tamanho]
+ */
+public class BenchmarkCelulas {
+
+	public static void main(String[] args) {
+
+		int operacoes = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		int tamanho = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+
+		Integer[] itens = new Integer[tamanho];
+		for (int i = 0; i < tamanho; i++) {
+			itens[i] = i;
+		}
+
+		System.out.println("=== RECICLAGEM DE CÉLULAS (" + operacoes + " operações, tamanho " + tamanho + ") ===");
+		System.out.println(String.format("%-8s %-10s %12s %14s", "", "reciclagem", "ns/op", "bytes/op"));
+
+		// Duas rodadas: a primeira aquece o JIT
+		for (int rodada = 0; rodada < 2; rodada++) {
+			for (boolean reciclar : new boolean[] { false, true }) {
+				medirFila(reciclar, itens, operacoes, rodada == 1);
+				medirPilha(reciclar, itens, operacoes, rodada == 1);
+			}
+		}
+	}
+
+	private static void medirFila(boolean reciclar, Integer[] itens, int operacoes, boolean exibir) {
+
+		Fila<Integer> fila = new Fila<>(reciclar);
+		long soma = 0;
+		long bytes = bytesAlocados();
+		long inicio = System.nanoTime();
+
+		for (int i = 0; i < operacoes; i += itens.length * 2) {
+			for (Integer item : itens) {
+				fila.enfileirar(item);
+			}
+			while (!fila.vazia()) {
+				soma += fila.desenfileirar();
+			}
+		}
+
+		exibir(exibir, "Fila", reciclar, inicio, bytes, operacoes, soma);
+	}
+
+	private static void medirPilha(boolean reciclar, Integer[] itens, int operacoes, boolean exibir) {
+
+		Pilha<Integer> pilha = new Pilha<>(reciclar);
+		long soma = 0;
+		long bytes = bytesAlocados();
+		long inicio = System.nanoTime();
+
+		for (int i = 0; i < operacoes; i += itens.length * 2) {
+			for (Integer item : itens) {
+				pilha.empilhar(item);
+			}
+			while (!pilha.vazia()) {
+				soma += pilha.desempilhar();
+			}
+		}
+
+		exibir(exibir, "Pilha", reciclar, inicio, bytes, operacoes, soma);
+	}
+
+	private static void exibir(boolean exibir, String estrutura, boolean reciclar, long inicio, long bytesIniciais,
+			int operacoes, long soma) {
+
+		double nsPorOperacao = (System.nanoTime() - inicio) / (double) operacoes;
+		double bytesPorOperacao = (bytesAlocados() - bytesIniciais) / (double) operacoes;
+
+		if (soma < 0) {
+			throw new IllegalStateException("Soma inválida!");
+		}
+		if (exibir) {
+			System.out.println(String.format("%-8s %-10s %12.2f %14.2f", estrutura, reciclar ? "sim" : "não",
+					nsPorOperacao, bytesPorOperacao));
+		}
+	}
+
+	private static long bytesAlocados() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,116 @@
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mede a vazão de reservas de estoque com várias threads montando pedidos ao mesmo tempo.
+ *
+ * Cada thread monta pedidos de 1 a 10 produtos sorteados com forte concentração nos primeiros
+ * produtos do catálogo (os mais vendidos), reserva o pedido inteiro em {@link EstoqueProdutos}
+ * e em seguida o libera. Compara três variantes: CAS com uma linha de cache por produto, CAS
+ * com as quantidades contíguas e um único bloqueio global (o estoque inteiro serializado).
+ * Ao final, confere que todo o estoque voltou à quantidade inicial.
+ *
+ * Uso: java BenchmarkEstoque arquivoProdutos [threads] [segundos por variante]
+ */
+public class BenchmarkEstoque {
+
+	private static final long ESTOQUE_INICIAL = 1_000_000;
+
+	public static void main(String[] args) throws InterruptedException {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java BenchmarkEstoque arquivoProdutos [threads] [segundos por variante]");
+			return;
+		}
+
+		Produto[] produtos = App.lerProdutos(args[0]);
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+		Pedido[] pedidos = new Pedido[4096];
+		Random aleatorio = new Random(42);
+		for (int i = 0; i < pedidos.length; i++) {
+			pedidos[i] = new Pedido(LocalDate.now(), 1 + aleatorio.nextInt(2));
+			int numProdutos = 1 + aleatorio.nextInt(Pedido.MAX_PRODUTOS);
+			for (int j = 0; j < numProdutos; j++) {
+				double u = aleatorio.nextDouble();
+				pedidos[i].incluirProduto(produtos[(int) (u * u * u * produtos.length)]);
+			}
+		}
+
+		System.out.println("=== ESTOQUE: " + threads + " threads, " + segundos + " s por variante ===");
+		for (int rodada = 0; rodada < 2; rodada++) {
+			medir("CAS, linha de cache por produto", criarEstoque(produtos, EstoqueProdutos.ESPACAMENTO_LINHA_CACHE),
+					false, pedidos, threads, segundos, rodada == 1);
+			medir("CAS, contíguo", criarEstoque(produtos, 1), false, pedidos, threads, segundos, rodada == 1);
+			medir("bloqueio global", criarEstoque(produtos, 1), true, pedidos, threads, segundos, rodada == 1);
+		}
+	}
+
+	private static EstoqueProdutos criarEstoque(Produto[] produtos, int espacamento) {
+
+		int primeiroId = produtos[0].hashCode();
+		EstoqueProdutos estoque = new EstoqueProdutos(primeiroId,
+				produtos[produtos.length - 1].hashCode() - primeiroId + 1, espacamento);
+		for (Produto produto : produtos) {
+			estoque.definir(produto, ESTOQUE_INICIAL);
+		}
+		return estoque;
+	}
+
+	private static void medir(String nome, EstoqueProdutos estoque, boolean bloqueioGlobal, Pedido[] pedidos,
+			int threads, int segundos, boolean exibir) throws InterruptedException {
+
+		long[] operacoes = new long[threads];
+		Thread[] trabalhadores = new Thread[threads];
+		long fim = System.nanoTime() + segundos * 1_000_000_000L;
+
+		for (int t = 0; t < threads; t++) {
+			int numero = t;
+			trabalhadores[t] = new Thread(() -> {
+				ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+				long feitas = 0;
+				while ((feitas & 1023) != 0 || System.nanoTime() < fim) {
+					Pedido pedido = pedidos[aleatorio.nextInt(pedidos.length)];
+					if (bloqueioGlobal) {
+						synchronized (estoque) {
+							reservarELiberar(estoque, pedido);
+						}
+					} else {
+						reservarELiberar(estoque, pedido);
+					}
+					feitas++;
+				}
+				operacoes[numero] = feitas;
+			});
+			trabalhadores[t].start();
+		}
+
+		long total = 0;
+		for (int t = 0; t < threads; t++) {
+			trabalhadores[t].join();
+			total += operacoes[t];
+		}
+
+		for (Pedido pedido : pedidos) {
+			Produto[] doPedido = pedido.getProdutos();
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				if (estoque.disponivel(doPedido[i]) != ESTOQUE_INICIAL) {
+					throw new IllegalStateException("Estoque inconsistente: " + doPedido[i].getDescricao());
+				}
+			}
+		}
+
+		if (exibir) {
+			System.out.println(String.format("%-34s %,14.0f pedidos/s", nome, total / (double) segundos));
+		}
+	}
+
+	private static void reservarELiberar(EstoqueProdutos estoque, Pedido pedido) {
+		if (!estoque.reservar(pedido)) {
+			throw new IllegalStateException("Reserva recusada com estoque disponível!");
+		}
+		estoque.liberar(pedido);
+	}
+}
@@ -0,0 +1,83 @@
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mede a vazão da {@link FilaPedidosFragmentada} com produtores e consumidores concorrentes,
+ * para quantidades crescentes de fragmentos. Com um fragmento, a fila equivale a uma única
+ * {@link Fila} protegida por um bloqueio, a referência da comparação.
+ *
+ * Os produtores enfileiram partes iguais dos pedidos, criados antes da medição; os consumidores
+ * retiram com roubo de trabalho até todos os pedidos serem atendidos.
+ *
+ * Uso: java BenchmarkFilaPedidosFragmentada [pedidos] [produtores] [consumidores]
+ * [fragmentos, ex.: 1,2,4,8]
+ */
+public class BenchmarkFilaPedidosFragmentada {
+
+	public static void main(String[] args) throws InterruptedException {
+
+		int numPedidos = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int produtores = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int consumidores = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		String[] fragmentos = (args.length > 3 ? args[3] : "1,2,4,8,16").split(",");
+
+		LocalDate hoje = LocalDate.now();
+		Pedido[] pedidos = new Pedido[numPedidos];
+		for (int i = 0; i < numPedidos; i++) {
+			pedidos[i] = new Pedido(hoje, 1 + i % 2);
+		}
+
+		System.out.println("=== FILA DE PEDIDOS FRAGMENTADA (" + numPedidos + " pedidos, " + produtores
+				+ " produtores, " + consumidores + " consumidores) ===");
+		System.out.println(String.format("%10s %16s %16s", "fragmentos", "ns por pedido", "pedidos/s"));
+
+		for (String quantidade : fragmentos) {
+			int n = Integer.parseInt(quantidade);
+			double nanosPorPedido = 0;
+			// Duas rodadas: a primeira aquece o JIT
+			for (int rodada = 0; rodada < 2; rodada++) {
+				nanosPorPedido = medir(new FilaPedidosFragmentada(n), pedidos, produtores, consumidores);
+			}
+			System.out.println(String.format("%10d %16.1f %16.0f", n, nanosPorPedido, 1e9 / nanosPorPedido));
+		}
+	}
+
+	/** Enfileira e atende todos os pedidos; retorna o tempo médio por pedido, em nanossegundos. */
+	private static double medir(FilaPedidosFragmentada fila, Pedido[] pedidos, int produtores, int consumidores)
+			throws InterruptedException {
+
+		AtomicInteger atendidos = new AtomicInteger();
+		int parte = (pedidos.length + produtores - 1) / produtores;
+
+		long inicio = System.nanoTime();
+		Thread[] threadsConsumidoras = fila.iniciarConsumidores(consumidores, pedido -> atendidos.incrementAndGet());
+
+		Thread[] threadsProdutoras = new Thread[produtores];
+		for (int p = 0; p < produtores; p++) {
+			int de = Math.min(pedidos.length, p * parte);
+			int ate = Math.min(pedidos.length, de + parte);
+			threadsProdutoras[p] = new Thread(() -> {
+				for (int i = de; i < ate; i++) {
+					fila.enfileirar(pedidos[i]);
+				}
+			}, "produtor-pedidos-" + p);
+			threadsProdutoras[p].start();
+		}
+		for (Thread produtor : threadsProdutoras) {
+			produtor.join();
+		}
+		while (atendidos.get() < pedidos.length) {
+			Thread.onSpinWait();
+		}
+		long duracao = System.nanoTime() - inicio;
+
+		for (Thread consumidor : threadsConsumidoras) {
+			consumidor.interrupt();
+		}
+		for (Thread consumidor : threadsConsumidoras) {
+			consumidor.join();
+		}
+
+		return duracao / (double) pedidos.length;
+	}
+}
@@ -0,0 +1,76 @@
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Mede o custo por operação da {@link FilaPrioridade} para tamanhos crescentes de fila
+ * (até 1 milhão de pedidos). Se as operações são O(log n), o custo dividido por log2(n)
+ * permanece aproximadamente constante.
+ *
+ * Prioridade: um valor por pedido, guardado em um vetor e alterado antes de cada
+ * {@link FilaPrioridade#atualizar(Object)}.
+ *
+ * Uso: java -Xmx2g BenchmarkFilaPrioridade [tamanhoMaximo]
+ */
+public class BenchmarkFilaPrioridade {
+
+	public static void main(String[] args) {
+
+		int tamanhoMaximo = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		Random aleatorio = new Random(42);
+		LocalDate hoje = LocalDate.now();
+
+		Pedido[] pedidos = new Pedido[tamanhoMaximo];
+		for (int i = 0; i < tamanhoMaximo; i++) {
+			pedidos[i] = new Pedido(hoje.minusDays(aleatorio.nextInt(365)), 1 + aleatorio.nextInt(2));
+		}
+		int primeiroId = pedidos[0].getIdPedido();
+		double[] prioridades = new double[tamanhoMaximo];
+		Comparator<Pedido> comparador = Comparator.comparingDouble(p -> prioridades[p.getIdPedido() - primeiroId]);
+
+		System.out.println("=== FILA DE PRIORIDADE (HEAP BINÁRIO) ===");
+		System.out.println(String.format("%10s %14s %14s %14s %18s", "n", "enfileirar", "atualizar", "desenfileirar",
+				"desenfileirar/log2n"));
+
+		for (int n = 1_000; n <= tamanhoMaximo; n *= 10) {
+			// Duas rodadas: a primeira aquece o JIT
+			for (int rodada = 0; rodada < 2; rodada++) {
+				for (int i = 0; i < n; i++) {
+					prioridades[i] = aleatorio.nextDouble();
+				}
+				FilaPrioridade<Pedido> fila = new FilaPrioridade<>(comparador);
+
+				long inicio = System.nanoTime();
+				for (int i = 0; i < n; i++) {
+					fila.enfileirar(pedidos[i]);
+				}
+				double enfileirar = (System.nanoTime() - inicio) / (double) n;
+
+				int atualizacoes = Math.min(n, 100_000);
+				inicio = System.nanoTime();
+				for (int i = 0; i < atualizacoes; i++) {
+					int indice = aleatorio.nextInt(n);
+					prioridades[indice] = aleatorio.nextDouble();
+					fila.atualizar(pedidos[indice]);
+				}
+				double atualizar = (System.nanoTime() - inicio) / (double) atualizacoes;
+
+				inicio = System.nanoTime();
+				double anterior = -1;
+				while (!fila.vazia()) {
+					double atual = prioridades[fila.desenfileirar().getIdPedido() - primeiroId];
+					if (atual < anterior) {
+						throw new IllegalStateException("Heap fora de ordem!");
+					}
+					anterior = atual;
+				}
+				double desenfileirar = (System.nanoTime() - inicio) / (double) n;
+
+				if (rodada == 1) {
+					System.out.println(String.format("%10d %11.1f ns %11.1f ns %11.1f ns %15.2f ns", n, enfileirar,
+							atualizar, desenfileirar, desenfileirar / (Math.log(n) / Math.log(2))));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara a varredura linear do vetor de produtos cadastrados com os mapas ordenados
+ * ({@link ArvoreBMais} e {@link ListaSaltosConcorrente}) em buscas por código e consultas por
+ * faixa de códigos, conferindo que todos retornam os mesmos produtos. Ao final, mede a vazão de
+ * consultas por faixa na lista de saltos com várias threads de leitura e uma de escrita.
+ *
+ * Uso: java BenchmarkMapaOrdenado arquivoProdutos [consultas] [largura da faixa] [threads]
+ */
+public class BenchmarkMapaOrdenado {
+
+	public static void main(String[] args) throws InterruptedException {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java BenchmarkMapaOrdenado arquivoProdutos [consultas] [largura da faixa] [threads]");
+			return;
+		}
+
+		int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+		int largura = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+		Random aleatorio = new Random(42);
+
+		Produto[] produtos = App.lerProdutos(args[0]);
+		MapaOrdenado<Integer, Produto> arvore = new ArvoreBMais<>();
+		ListaSaltosConcorrente<Integer, Produto> lista = new ListaSaltosConcorrente<>();
+		for (Produto produto : produtos) {
+			arvore.inserir(produto.hashCode(), produto);
+			lista.inserir(produto.hashCode(), produto);
+		}
+
+		int menor = produtos[0].hashCode();
+		int[] codigos = new int[consultas];
+		for (int i = 0; i < consultas; i++) {
+			codigos[i] = menor + aleatorio.nextInt(produtos.length + largura) - largura / 2;
+		}
+
+		for (int i = 0; i < consultas; i += 97) {
+			int esperado = varrerFaixa(produtos, codigos[i], codigos[i] + largura);
+			if (arvore.intervalo(codigos[i], codigos[i] + largura).tamanho() != esperado
+					|| lista.intervalo(codigos[i], codigos[i] + largura).tamanho() != esperado
+					|| arvore.buscar(codigos[i]) != varrer(produtos, codigos[i])
+					|| lista.buscar(codigos[i]) != varrer(produtos, codigos[i])) {
+				throw new IllegalStateException("Resultado divergente para o código " + codigos[i]);
+			}
+		}
+
+		System.out.println("=== MAPAS ORDENADOS x VARREDURA LINEAR ===");
+		System.out.println("Produtos: " + produtos.length + " | Consultas: " + consultas + " | Faixa: " + largura
+				+ " códigos");
+
+		long soma = 0;
+		for (int r = -2; r < 5; r++) {
+			long inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += varrer(produtos, codigo) != null ? 1 : 0;
+			}
+			long buscaLinear = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += arvore.buscar(codigo) != null ? 1 : 0;
+			}
+			long buscaArvore = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += lista.buscar(codigo) != null ? 1 : 0;
+			}
+			long buscaLista = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += varrerFaixa(produtos, codigo, codigo + largura);
+			}
+			long faixaLinear = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += arvore.intervalo(codigo, codigo + largura).tamanho();
+			}
+			long faixaArvore = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int codigo : codigos) {
+				soma += lista.intervalo(codigo, codigo + largura).tamanho();
+			}
+			long faixaLista = System.nanoTime() - inicio;
+
+			if (r >= 0) {
+				System.out.println(String.format(
+						"#%d busca: %8.1f ns (linear) x %6.1f ns (árvore B+) x %6.1f ns (lista de saltos) | faixa: %8.1f ns x %6.1f ns x %6.1f ns",
+						r + 1, buscaLinear / (double) consultas, buscaArvore / (double) consultas,
+						buscaLista / (double) consultas, faixaLinear / (double) consultas,
+						faixaArvore / (double) consultas, faixaLista / (double) consultas));
+			}
+		}
+
+		AtomicLong consultasFeitas = new AtomicLong();
+		Thread[] leitores = new Thread[threads];
+		long fim = System.nanoTime() + 1_000_000_000L;
+		for (int t = 0; t < threads; t++) {
+			int deslocamento = t;
+			leitores[t] = new Thread(() -> {
+				long feitas = 0;
+				for (int i = deslocamento; System.nanoTime() < fim; i = (i + threads) % consultas) {
+					lista.intervalo(codigos[i], codigos[i] + largura);
+					feitas++;
+				}
+				consultasFeitas.addAndGet(feitas);
+			});
+			leitores[t].start();
+		}
+		int inseridos = 0;
+		for (int codigo = menor + produtos.length; System.nanoTime() < fim; codigo++) {
+			lista.inserir(codigo, produtos[codigo % produtos.length]);
+			inseridos++;
+		}
+		for (Thread leitor : leitores) {
+			leitor.join();
+		}
+		System.out.println(String.format("Lista de saltos, %d leitores + 1 escritor: %d consultas/s, %d inserções/s",
+				threads, consultasFeitas.get(), inseridos));
+		System.out.println("(checksum " + soma + ")");
+	}
+
+	private static Produto varrer(Produto[] produtos, int codigo) {
+		for (Produto produto : produtos) {
+			if (produto.hashCode() == codigo) {
+				return produto;
+			}
+		}
+		return null;
+	}
+
+	private static int varrerFaixa(Produto[] produtos, int de, int ate) {
+		Fila<Produto> encontrados = new Fila<>();
+		for (Produto produto : produtos) {
+			if (produto.hashCode() >= de && produto.hashCode() <= ate) {
+				encontrados.enfileirar(produto);
+			}
+		}
+		return encontrados.tamanho();
+	}
+}
@@ -0,0 +1,60 @@
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Executa o {@link PipelinePedidos} com pedidos aleatórios do catálogo e exibe as estatísticas
+ * de cada etapa, para localizar o gargalo e testar quantas threads dar a cada etapa.
+ *
+ * A precificação pode simular um serviço lento, gastando um tempo fixo por pedido.
+ *
+ * Uso: java BenchmarkPipeline arquivoProdutos [pedidos] [threads por etapa, ex.: 1,2,1,1]
+ * [tamanhoLote] [custo da precificação em microssegundos]
+ */
+public class BenchmarkPipeline {
+
+	public static void main(String[] args) throws InterruptedException {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java BenchmarkPipeline arquivoProdutos [pedidos] [threads por etapa, ex.: 1,2,1,1]"
+					+ " [tamanhoLote] [custo da precificação em microssegundos]");
+			return;
+		}
+
+		Produto[] produtos = App.lerProdutos(args[0]);
+		int numPedidos = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+		String[] threads = (args.length > 2 ? args[2] : "1,1,1,1").split(",");
+		int tamanhoLote = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+		long custoPrecificacao = args.length > 4 ? Long.parseLong(args[4]) * 1000 : 0;
+
+		PipelinePedidos.Processador precificar = pedido -> {
+			long fim = System.nanoTime() + custoPrecificacao;
+			boolean aprovado = PipelinePedidos.PRECIFICAR.processar(pedido);
+			while (System.nanoTime() < fim) {
+				Thread.onSpinWait();
+			}
+			return aprovado;
+		};
+
+		PipelinePedidos pipeline = new PipelinePedidos(16 * tamanhoLote)
+				.etapa("validação", Integer.parseInt(threads[0]), tamanhoLote, PipelinePedidos.VALIDAR)
+				.etapa("precificação", Integer.parseInt(threads[1]), tamanhoLote, precificar)
+				.etapa("reserva de estoque", Integer.parseInt(threads[2]), tamanhoLote, PipelinePedidos.RESERVAR_ESTOQUE)
+				.etapa("atendimento", Integer.parseInt(threads[3]), tamanhoLote, PipelinePedidos.ATENDER)
+				.iniciar();
+
+		Random aleatorio = new Random(42);
+		LocalDate hoje = LocalDate.now();
+		for (int i = 0; i < numPedidos; i++) {
+			Pedido pedido = new Pedido(hoje, 1 + aleatorio.nextInt(2));
+			int numProdutos = 1 + aleatorio.nextInt(Pedido.MAX_PRODUTOS);
+			for (int j = 0; j < numProdutos; j++) {
+				pedido.incluirProduto(produtos[aleatorio.nextInt(produtos.length)]);
+			}
+			pipeline.receber(pedido);
+		}
+		pipeline.encerrar();
+
+		System.out.println("=== PIPELINE DE PEDIDOS (" + numPedidos + " pedidos, lotes de " + tamanhoLote + ") ===");
+		System.out.print(pipeline.relatorio());
+	}
+}
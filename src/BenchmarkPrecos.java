@@ -0,0 +1,100 @@
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Compara o custo do cálculo de preços pelo despacho virtual atual
+ * (Produto.valorDeVenda / Pedido.valorFinal) com os avaliadores compilados do {@link MotorPrecos}
+ * configurado com as regras padrão, e confere que ambos produzem os mesmos valores.
+ *
+ * Como produtos.txt não possui perecíveis, uma fração do catálogo é acrescida de perecíveis
+ * sintéticos com validade entre 0 e 30 dias.
+ *
+ * Uso: java BenchmarkPrecos arquivoProdutos [pedidos] [repeticoes]
+ */
+public class BenchmarkPrecos {
+
+	public static void main(String[] args) {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java BenchmarkPrecos arquivoProdutos [pedidos] [repeticoes]");
+			return;
+		}
+
+		int numPedidos = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+		int repeticoes = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		Random aleatorio = new Random(42);
+		LocalDate hoje = LocalDate.now();
+
+		Produto[] lidos = App.lerProdutos(args[0]);
+		int quantos = lidos.length + lidos.length / 4;
+		Produto[] produtos = new Produto[quantos];
+		System.arraycopy(lidos, 0, produtos, 0, lidos.length);
+		for (int i = lidos.length; i < quantos; i++) {
+			produtos[i] = new ProdutoPerecivel("Perecível " + i, 1 + aleatorio.nextInt(5000) / 100.0,
+					0.1 + aleatorio.nextInt(50) / 100.0, hoje.plusDays(aleatorio.nextInt(31)));
+		}
+
+		Pedido[] pedidos = new Pedido[numPedidos];
+		for (int i = 0; i < numPedidos; i++) {
+			pedidos[i] = new Pedido(hoje, 1 + aleatorio.nextInt(2));
+			int numProdutos = 1 + aleatorio.nextInt(10);
+			for (int p = 0; p < numProdutos; p++) {
+				pedidos[i].incluirProduto(produtos[aleatorio.nextInt(quantos)]);
+			}
+		}
+
+		MotorPrecos motor = MotorPrecos.padrao();
+		MotorPrecos.AvaliadorProduto avaliadorProduto = motor.getAvaliadorProduto();
+		MotorPrecos.AvaliadorPedido avaliadorPedido = motor.getAvaliadorPedido();
+		long dia = hoje.toEpochDay();
+
+		for (int i = 0; i < quantos; i++) {
+			if (Math.abs(produtos[i].valorDeVenda() - avaliadorProduto.valorDeVenda(produtos[i], dia)) > 1e-9) {
+				throw new IllegalStateException("Preço divergente para " + produtos[i].gerarDadosTexto());
+			}
+		}
+		for (Pedido pedido : pedidos) {
+			if (pedido.valorFinal() != avaliadorPedido.valorFinal(pedido, dia)) {
+				throw new IllegalStateException("Valor divergente para o pedido " + pedido.getIdPedido());
+			}
+		}
+
+		System.out.println("=== PREÇOS: DESPACHO VIRTUAL x MOTOR COMPILADO ===");
+		System.out.println("Produtos: " + quantos + " | Pedidos: " + numPedidos + " | Repetições: " + repeticoes);
+
+		double soma = 0;
+		for (int r = -2; r < repeticoes; r++) {
+			long inicio = System.nanoTime();
+			for (int i = 0; i < quantos; i++) {
+				soma += produtos[i].valorDeVenda();
+			}
+			long virtual = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (int i = 0; i < quantos; i++) {
+				soma += avaliadorProduto.valorDeVenda(produtos[i], dia);
+			}
+			long compilado = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (Pedido pedido : pedidos) {
+				soma += pedido.valorFinal();
+			}
+			long pedidoVirtual = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			for (Pedido pedido : pedidos) {
+				soma += avaliadorPedido.valorFinal(pedido, dia);
+			}
+			long pedidoCompilado = System.nanoTime() - inicio;
+
+			if (r >= 0) {
+				System.out.println(String.format(
+						"#%d catálogo: %6.1f ns/produto (virtual) x %6.1f ns/produto (motor) | pedidos: %7.1f ns/pedido (virtual) x %7.1f ns/pedido (motor)",
+						r + 1, virtual / (double) quantos, compilado / (double) quantos,
+						pedidoVirtual / (double) numPedidos, pedidoCompilado / (double) numPedidos));
+			}
+		}
+		System.out.println("(checksum " + soma + ")");
+	}
+}
@@ -0,0 +1,259 @@
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Versão do catálogo de produtos: o vetor de produtos e o seu índice de validade.
+ *
+ * Depois de publicada (ver {@link App#catalogo}), uma versão não é mais alterada: a retirada de
+ * vencidos e a recarga do arquivo de produtos criam uma nova versão e a publicam por inteiro.
+ * Assim, quem lê o catálogo guarda a referência da versão atual e a percorre sem bloqueio,
+ * sempre vendo um vetor e uma quantidade coerentes entre si.
+ *
+ * A retirada de vencidos não copia nada: a nova versão compartilha com a anterior o vetor da
+ * carga, a árvore por código e o índice de validade, e guarda apenas o dia até o qual os
+ * perecíveis vencidos foram retirados. Um perecível com validade anterior a esse dia não faz
+ * parte da versão; o vetor sem eles ({@link #getProdutos()}) é montado na primeira consulta, e o
+ * índice por código ({@link #getPorCodigo()}) os filtra. Uma varredura custa O(v log p), com v
+ * vencidos e p perecíveis, em vez de O(catálogo).
+ *
+ * O índice de validade passa de uma versão para a seguinte: só a versão mais recente pode ser
+ * varrida, e {@link IndiceValidade#proximosDoVencimento}, que reorganiza o heap temporariamente,
+ * deve ser chamado por uma única thread (a do menu).
+ */
+public class CatalogoProdutos {
+
+	/** Vetor da carga do catálogo; pode conter perecíveis já retirados desta versão */
+	private final Produto[] carga;
+	private final int quantosNaCarga;
+	private final int quantidade;
+
+	/** Perecíveis com validade anterior a este dia não fazem parte desta versão */
+	private final LocalDate retiradosAntesDe;
+	private final IndiceValidade indiceValidade;
+
+	/** Produtos desta versão, sem posições vazias; montado na primeira consulta */
+	private volatile Produto[] vigentes;
+
+	/** Árvore por código da carga, compartilhada entre as versões; criada na primeira consulta */
+	private volatile MapaOrdenado<Integer, Produto> arvorePorCodigo;
+	private volatile MapaOrdenado<Integer, Produto> porCodigo;
+
+	/**
+	 * Cria a versão com os produtos do vetor, que passa a pertencer ao catálogo.
+	 *
+	 * @param produtos        Vetor de produtos.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 */
+	public CatalogoProdutos(Produto[] produtos, int quantosProdutos) {
+		this.carga = produtos;
+		this.quantosNaCarga = quantosProdutos;
+		this.quantidade = quantosProdutos;
+		this.indiceValidade = new IndiceValidade(produtos, quantosProdutos);
+		this.retiradosAntesDe = indiceValidade.getRetiradosAntesDe();
+		this.vigentes = produtos;
+	}
+
+	/**
+	 * Cria a versão com todos os produtos do vetor, que passa a pertencer ao catálogo.
+	 *
+	 * @param produtos Vetor de produtos, sem posições vazias.
+	 */
+	public CatalogoProdutos(Produto[] produtos) {
+		this(produtos, produtos.length);
+	}
+
+	/** Versão seguinte à anterior, sem os perecíveis que o índice de validade acabou de retirar. */
+	private CatalogoProdutos(CatalogoProdutos anterior, int retirados) {
+
+		// Se a anterior já montou o seu vetor sem vencidos, ele passa a ser a carga, mais curta
+		Produto[] compactos = anterior.vigentes;
+		this.carga = (compactos != null) ? compactos : anterior.carga;
+		this.quantosNaCarga = (compactos != null) ? anterior.quantidade : anterior.quantosNaCarga;
+		this.quantidade = anterior.quantidade - retirados;
+		this.indiceValidade = anterior.indiceValidade;
+		this.retiradosAntesDe = indiceValidade.getRetiradosAntesDe();
+		this.arvorePorCodigo = anterior.arvorePorCodigo;
+	}
+
+	/**
+	 * Retorna uma versão sem os produtos vencidos até o dia informado. Se não houver vencidos,
+	 * retorna esta mesma versão. Custa O(v log p), com v vencidos e p perecíveis.
+	 *
+	 * @param hoje      Dia de referência.
+	 * @param retirados Fila que recebe os produtos retirados, em ordem de validade.
+	 * @return A versão sem vencidos.
+	 * @throws IllegalStateException se esta versão já tiver sido varrida e substituída.
+	 */
+	public CatalogoProdutos semVencidos(LocalDate hoje, Fila<ProdutoPerecivel> retirados) {
+
+		if (!retiradosAntesDe.equals(indiceValidade.getRetiradosAntesDe())) {
+			throw new IllegalStateException("Esta versão do catálogo já foi substituída!");
+		}
+		if (!indiceValidade.temVencidos(hoje)) {
+			return this;
+		}
+
+		Fila<ProdutoPerecivel> vencidos = indiceValidade.retirarVencidos(hoje);
+		CatalogoProdutos novo = new CatalogoProdutos(this, vencidos.tamanho());
+		retirados.concatenar(vencidos);
+		return novo;
+	}
+
+	/**
+	 * @param anterior Outra versão do catálogo (pode ser null).
+	 * @return true se esta versão vier da mesma carga que a anterior, só com vencidos retirados.
+	 */
+	public boolean derivadaDe(CatalogoProdutos anterior) {
+		return anterior != null && anterior.indiceValidade == indiceValidade;
+	}
+
+	/**
+	 * Retorna o vetor dos produtos desta versão, montando-o na primeira chamada (O(n)) se
+	 * vencidos tiverem sido retirados. Se duas threads chamarem ao mesmo tempo, cada uma pode
+	 * montar o seu, ambos completos; fica o último.
+	 *
+	 * @return O vetor de produtos. Não deve ser alterado.
+	 */
+	public Produto[] getProdutos() {
+
+		Produto[] produtos = vigentes;
+		if (produtos == null) {
+			produtos = new Produto[quantidade];
+			int quantos = 0;
+			for (int i = 0; i < quantosNaCarga; i++) {
+				if (contem(carga[i])) {
+					produtos[quantos++] = carga[i];
+				}
+			}
+			vigentes = produtos;
+		}
+		return produtos;
+	}
+
+	/** @return Quantidade de posições válidas no vetor de produtos. */
+	public int getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Retorna o índice dos produtos pelo código, criando-o na primeira chamada. A árvore é
+	 * criada uma vez por carga e compartilhada pelas versões seguintes, que filtram os
+	 * perecíveis retirados. Se duas threads chamarem ao mesmo tempo, cada uma pode criar o seu,
+	 * ambos completos; fica o último.
+	 *
+	 * @return Mapa ordenado de código para produto. Não deve ser alterado.
+	 */
+	public MapaOrdenado<Integer, Produto> getPorCodigo() {
+
+		MapaOrdenado<Integer, Produto> indice = porCodigo;
+		if (indice == null) {
+			MapaOrdenado<Integer, Produto> arvore = arvorePorCodigo;
+			if (arvore == null) {
+				arvore = new ArvoreBMais<>();
+				for (int i = 0; i < quantosNaCarga; i++) {
+					arvore.inserir(carga[i].hashCode(), carga[i]);
+				}
+				arvorePorCodigo = arvore;
+			}
+			indice = (arvore.tamanho() == quantidade) ? arvore : new IndiceVigente(arvore);
+			porCodigo = indice;
+		}
+		return indice;
+	}
+
+	public IndiceValidade getIndiceValidade() {
+		return indiceValidade;
+	}
+
+	/** @return true se o produto da carga não tiver sido retirado nesta versão. */
+	private boolean contem(Produto produto) {
+		return !(produto instanceof ProdutoPerecivel)
+				|| !((ProdutoPerecivel) produto).getDataDeValidade().isBefore(retiradosAntesDe);
+	}
+
+	/** Árvore por código de uma carga anterior, vista sem os perecíveis retirados desta versão. */
+	private class IndiceVigente implements MapaOrdenado<Integer, Produto> {
+
+		private final MapaOrdenado<Integer, Produto> arvore;
+
+		IndiceVigente(MapaOrdenado<Integer, Produto> arvore) {
+			this.arvore = arvore;
+		}
+
+		@Override
+		public Produto inserir(Integer chave, Produto valor) {
+			throw new UnsupportedOperationException("O índice do catálogo não pode ser alterado!");
+		}
+
+		@Override
+		public Produto buscar(Integer chave) {
+			Produto produto = arvore.buscar(chave);
+			return (produto != null && contem(produto)) ? produto : null;
+		}
+
+		@Override
+		public Produto piso(Integer chave) {
+			Produto produto = arvore.piso(chave);
+			while (produto != null && !contem(produto)) {
+				produto = (produto.hashCode() == Integer.MIN_VALUE) ? null : arvore.piso(produto.hashCode() - 1);
+			}
+			return produto;
+		}
+
+		@Override
+		public Produto teto(Integer chave) {
+			Produto produto = arvore.teto(chave);
+			while (produto != null && !contem(produto)) {
+				produto = (produto.hashCode() == Integer.MAX_VALUE) ? null : arvore.teto(produto.hashCode() + 1);
+			}
+			return produto;
+		}
+
+		@Override
+		public Fila<Produto> intervalo(Integer de, Integer ate) {
+
+			Fila<Produto> todos = arvore.intervalo(de, ate);
+			return todos.filtrar(CatalogoProdutos.this::contem, todos.tamanho());
+		}
+
+		@Override
+		public int tamanho() {
+			return quantidade;
+		}
+
+		@Override
+		public Iterator<Produto> iterator() {
+			return new Iterator<Produto>() {
+
+				private final Iterator<Produto> todos = arvore.iterator();
+				private Produto proximo = avancar();
+
+				private Produto avancar() {
+					while (todos.hasNext()) {
+						Produto produto = todos.next();
+						if (contem(produto)) {
+							return produto;
+						}
+					}
+					return null;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return proximo != null;
+				}
+
+				@Override
+				public Produto next() {
+					if (proximo == null) {
+						throw new NoSuchElementException("Não há mais produtos no índice!");
+					}
+					Produto atual = proximo;
+					proximo = avancar();
+					return atual;
+				}
+			};
+		}
+	}
+}
@@ -1,6 +1,6 @@
 public class Celula<T> {
 
-	private final T item;
+	private T item;
 	private Celula<T> proximo;
 
 	public Celula() {
@@ -22,6 +22,14 @@ public class Celula<T> {
 		return item;
 	}
 
+	/**
+	 * Substitui o item da célula. Usado apenas na reciclagem de células
+	 * (ver {@link ReservaCelulas}).
+	 */
+	void setItem(T item) {
+		this.item = item;
+	}
+
 	public Celula<T> getProximo() {
 		return proximo;
 	}
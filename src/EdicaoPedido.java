@@ -0,0 +1,142 @@
+/**
+ * Sessão de edição de um pedido com desfazer/refazer.
+ *
+ * Cada inclusão de produto é registrada em uma pilha de operações; desfazer retira o último
+ * produto incluído do pedido e o guarda na pilha de refazer, e refazer o inclui novamente.
+ * Uma nova inclusão descarta o que poderia ser refeito.
+ *
+ * Com um {@link EstoqueProdutos}, cada inclusão (ou refazer) reserva uma unidade do produto e
+ * cada desfazer a devolve; um produto sem estoque não é incluído.
+ *
+ * Como um pedido tem no máximo {@link Pedido#MAX_PRODUTOS} produtos, as duas pilhas têm essa
+ * capacidade e são alocadas uma única vez: a sessão pode ser reutilizada para vários pedidos
+ * (ver {@link #editar(Pedido)}) sem criar objetos a cada operação.
+ */
+public class EdicaoPedido {
+
+	private final PilhaVetor<Produto> desfazer;
+	private final PilhaVetor<Produto> refazer;
+	private EstoqueProdutos estoque;
+	private Pedido pedido;
+
+	/**
+	 * Cria uma sessão para o pedido informado, sem controle de estoque.
+	 *
+	 * @param pedido Pedido em edição
+	 */
+	public EdicaoPedido(Pedido pedido) {
+		this(pedido, null);
+	}
+
+	/**
+	 * Cria uma sessão para o pedido informado.
+	 *
+	 * @param pedido  Pedido em edição
+	 * @param estoque Estoque onde os produtos são reservados, ou null para não controlar estoque
+	 */
+	public EdicaoPedido(Pedido pedido, EstoqueProdutos estoque) {
+		desfazer = new PilhaVetor<>(Pedido.MAX_PRODUTOS);
+		refazer = new PilhaVetor<>(Pedido.MAX_PRODUTOS);
+		editar(pedido, estoque);
+	}
+
+	/**
+	 * Reinicia a sessão para editar outro pedido, reaproveitando as pilhas.
+	 * Os produtos já presentes no pedido não podem ser desfeitos.
+	 *
+	 * @param pedido Pedido em edição
+	 */
+	public void editar(Pedido pedido) {
+		this.pedido = pedido;
+		desfazer.limpar();
+		refazer.limpar();
+	}
+
+	/**
+	 * Reinicia a sessão para editar outro pedido, reaproveitando as pilhas, e passa a reservar
+	 * os produtos no estoque informado (o estoque em uso muda quando o catálogo é recarregado).
+	 *
+	 * @param pedido  Pedido em edição
+	 * @param estoque Estoque onde os produtos são reservados, ou null para não controlar estoque
+	 */
+	public void editar(Pedido pedido, EstoqueProdutos estoque) {
+		this.estoque = estoque;
+		editar(pedido);
+	}
+
+	/**
+	 * Inclui um produto no pedido e registra a operação.
+	 *
+	 * @param produto O produto a ser incluído
+	 * @return true/false indicando se a inclusão foi realizada (false se o pedido estiver cheio
+	 *         ou o produto estiver sem estoque)
+	 */
+	public boolean incluirProduto(Produto produto) {
+
+		if (!incluirReservando(produto)) {
+			return false;
+		}
+		desfazer.empilhar(produto);
+		refazer.limpar();
+		return true;
+	}
+
+	/**
+	 * Desfaz a última inclusão de produto ainda não desfeita.
+	 *
+	 * @return O produto retirado do pedido, ou null se não houver o que desfazer
+	 */
+	public Produto desfazer() {
+
+		if (desfazer.vazia()) {
+			return null;
+		}
+		desfazer.desempilhar();
+		Produto produto = pedido.removerUltimoProduto();
+		if (estoque != null) {
+			estoque.liberar(produto, 1);
+		}
+		refazer.empilhar(produto);
+		return produto;
+	}
+
+	/**
+	 * Refaz a última inclusão desfeita.
+	 *
+	 * @return O produto incluído novamente, ou null se não houver o que refazer ou o produto
+	 *         estiver sem estoque (nesse caso, ele continua podendo ser refeito)
+	 */
+	public Produto refazer() {
+
+		if (refazer.vazia() || !incluirReservando(refazer.consultarTopo())) {
+			return null;
+		}
+		Produto produto = refazer.desempilhar();
+		desfazer.empilhar(produto);
+		return produto;
+	}
+
+	/** Reserva uma unidade do produto, se houver controle de estoque, e o inclui no pedido. */
+	private boolean incluirReservando(Produto produto) {
+
+		if (pedido.getQuantosProdutos() == Pedido.MAX_PRODUTOS) {
+			return false;
+		}
+		if (estoque != null && !estoque.reservar(produto, 1)) {
+			return false;
+		}
+		return pedido.incluirProduto(produto);
+	}
+
+	public boolean podeDesfazer() {
+		return !desfazer.vazia();
+	}
+
+	public boolean podeRefazer() {
+		return !refazer.vazia();
+	}
+
+	public Pedido getPedido() {
+		return pedido;
+	}
+}
@@ -0,0 +1,133 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Entrada de linhas da CLI: o teclado ou um arquivo de roteiro com uma resposta por linha
+ * (opções do menu, quantidades, descrições...).
+ *
+ * As linhas são lidas de um buffer de 64 KiB, preenchido em blocos; um roteiro é consumido
+ * comando a comando sem uma chamada ao sistema por linha. Os números são convertidos
+ * diretamente (Integer.parseInt e Double.parseDouble), sem reflexão, e uma resposta inválida
+ * resulta em null, que o chamador deve tratar.
+ *
+ * Uma entrada não interativa (arquivo de roteiro, entrada redirecionada ou -DsemPausa=true) não
+ * espera por enter nas pausas entre comandos; ver {@link App#pausa()}.
+ */
+public class EntradaComandos implements Closeable {
+
+	private static final int TAMANHO_BUFFER = 1 << 16;
+
+	private final BufferedReader leitor;
+	private final boolean interativa;
+	private boolean terminou;
+	private long linhasLidas;
+
+	/**
+	 * @param origem     Origem das linhas.
+	 * @param interativa true se há uma pessoa respondendo (as pausas esperam por enter).
+	 */
+	public EntradaComandos(Reader origem, boolean interativa) {
+		this.leitor = new BufferedReader(origem, TAMANHO_BUFFER);
+		this.interativa = interativa;
+	}
+
+	/**
+	 * Cria a entrada a partir de System.in, interativa se a JVM estiver ligada a um terminal
+	 * e -DsemPausa=true não tiver sido informado.
+	 *
+	 * @return A entrada do teclado.
+	 */
+	public static EntradaComandos doTeclado() {
+		return new EntradaComandos(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+				System.console() != null && !Boolean.getBoolean("semPausa"));
+	}
+
+	/**
+	 * Cria uma entrada não interativa a partir de um arquivo de roteiro, em UTF-8.
+	 *
+	 * @param arquivo Arquivo de roteiro.
+	 * @return A entrada do roteiro.
+	 * @throws IOException se o arquivo não puder ser aberto.
+	 */
+	public static EntradaComandos doArquivo(Path arquivo) throws IOException {
+		return new EntradaComandos(Files.newBufferedReader(arquivo, StandardCharsets.UTF_8), false);
+	}
+
+	/**
+	 * Lê a próxima linha.
+	 *
+	 * @return A linha lida, sem o fim de linha.
+	 * @throws NoSuchElementException se a entrada terminou (ver {@link #terminou()}).
+	 */
+	public String proximaLinha() {
+
+		String linha;
+		try {
+			linha = leitor.readLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (linha == null) {
+			terminou = true;
+			throw new NoSuchElementException("Fim da entrada de comandos!");
+		}
+		linhasLidas++;
+		return linha;
+	}
+
+	/**
+	 * Lê a próxima linha como um número inteiro.
+	 *
+	 * @return O número lido, ou null se a linha não for um número inteiro.
+	 * @throws NoSuchElementException se a entrada terminou.
+	 */
+	public Integer proximoInteiro() {
+		try {
+			return Integer.parseInt(proximaLinha().trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Lê a próxima linha como um número real (ponto decimal).
+	 *
+	 * @return O número lido, ou null se a linha não for um número.
+	 * @throws NoSuchElementException se a entrada terminou.
+	 */
+	public Double proximoReal() {
+		try {
+			return Double.parseDouble(proximaLinha().trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/** @return true se há uma pessoa respondendo (as pausas esperam por enter) */
+	public boolean isInterativa() {
+		return interativa;
+	}
+
+	/** @return true se uma leitura já encontrou o fim da entrada */
+	public boolean terminou() {
+		return terminou;
+	}
+
+	/** @return Quantidade de linhas lidas até agora */
+	public long getLinhasLidas() {
+		return linhasLidas;
+	}
+
+	@Override
+	public void close() throws IOException {
+		leitor.close();
+	}
+}
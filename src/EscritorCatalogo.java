@@ -0,0 +1,132 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.stream.IntStream;
+
+/**
+ * Grava um catálogo de produtos no formato do arquivo de produtos lido por
+ * {@link App#lerProdutos(String)}: a quantidade de produtos na primeira linha e, em seguida, uma
+ * linha por produto, idêntica à de {@link Produto#gerarDadosTexto()}.
+ *
+ * As linhas são montadas diretamente no buffer de um {@link Relatorio}, com os números
+ * formatados à mão, sem String.format nem expressões regulares por produto. Catálogos grandes
+ * podem ser formatados em partes paralelas, gravadas em seguida na ordem original.
+ */
+public class EscritorCatalogo {
+
+	/**
+	 * Abaixo deste valor, o erro de valor * 100 fica muito abaixo da tolerância de meio centavo
+	 * usada em {@link #centavos(double)}; acima, usa-se sempre BigDecimal
+	 */
+	private static final double LIMITE_ARREDONDAMENTO_RAPIDO = 1e7;
+
+	private EscritorCatalogo() {
+	}
+
+	/**
+	 * Grava os produtos em sequência.
+	 *
+	 * @param produtos        Vetor de produtos.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 * @param destino         Fluxo de destino (não é fechado).
+	 */
+	public static void escrever(Produto[] produtos, int quantosProdutos, OutputStream destino) {
+
+		Relatorio saida = new Relatorio(destino);
+		saida.inteiro(quantosProdutos).fimDeLinha();
+		escreverProdutos(saida, produtos, 0, quantosProdutos);
+		saida.descarregar();
+	}
+
+	/**
+	 * Grava os produtos formatando-os em partes paralelas. Cada parte é formatada em memória e as
+	 * partes são gravadas no destino na ordem do vetor, portanto o resultado é idêntico ao de
+	 * {@link #escrever(Produto[], int, OutputStream)}.
+	 *
+	 * @param produtos        Vetor de produtos.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 * @param destino         Fluxo de destino (não é fechado).
+	 * @param partes          Quantidade de partes (mínimo 1).
+	 * @throws IOException se a gravação falhar.
+	 */
+	public static void escreverEmPartes(Produto[] produtos, int quantosProdutos, OutputStream destino, int partes)
+			throws IOException {
+
+		if (partes < 1) {
+			throw new IllegalArgumentException("Deve haver pelo menos uma parte!");
+		}
+
+		int tamanhoParte = (quantosProdutos + partes - 1) / partes;
+		byte[][] formatadas = IntStream.range(0, partes).parallel().mapToObj(parte -> {
+			int inicio = Math.min(quantosProdutos, parte * tamanhoParte);
+			int fim = Math.min(quantosProdutos, inicio + tamanhoParte);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream((fim - inicio) * 48);
+			Relatorio saida = new Relatorio(bytes);
+			escreverProdutos(saida, produtos, inicio, fim);
+			saida.descarregar();
+			return bytes.toByteArray();
+		}).toArray(byte[][]::new);
+
+		Relatorio cabecalho = new Relatorio(destino);
+		cabecalho.inteiro(quantosProdutos).fimDeLinha();
+		cabecalho.descarregar();
+		for (byte[] parte : formatadas) {
+			destino.write(parte);
+		}
+		destino.flush();
+	}
+
+	private static void escreverProdutos(Relatorio saida, Produto[] produtos, int inicio, int fim) {
+		for (int i = inicio; i < fim; i++) {
+			escreverProduto(saida, produtos[i]);
+		}
+	}
+
+	/**
+	 * Escreve a linha do produto: "tipo;descrição;preçoDeCusto;margemDeLucro[;dataDeValidade]".
+	 */
+	static void escreverProduto(Relatorio saida, Produto produto) {
+
+		boolean perecivel = produto instanceof ProdutoPerecivel;
+
+		saida.caractere(perecivel ? '2' : '1').caractere(';').texto(produto.getDescricao()).caractere(';');
+		duasCasas(saida, produto.precoCusto).caractere(';');
+		duasCasas(saida, produto.margemLucro);
+		if (perecivel) {
+			saida.caractere(';').data(((ProdutoPerecivel) produto).getDataDeValidade());
+		}
+		saida.fimDeLinha();
+	}
+
+	/** Escreve o valor com duas casas e ponto decimal, como String.format("%.2f") com ponto. */
+	private static Relatorio duasCasas(Relatorio saida, double valor) {
+
+		long centavos = centavos(valor);
+		if (centavos < 0) {
+			saida.caractere('-');
+			centavos = -centavos;
+		}
+		saida.inteiro(centavos / 100).caractere('.');
+		return saida.doisDigitos((int) (centavos % 100));
+	}
+
+	/**
+	 * Arredonda o valor para centavos exatamente como String.format("%.2f"): HALF_UP sobre a
+	 * menor representação decimal do double (a de Double.toString). Math.round(valor * 100)
+	 * coincide com ela, exceto quando valor * 100 fica perto de meio centavo (1.005 vira
+	 * 100.49999... e seria arredondado para baixo); só nesses casos, raros, usa-se BigDecimal.
+	 */
+	static long centavos(double valor) {
+
+		if (Math.abs(valor) < LIMITE_ARREDONDAMENTO_RAPIDO) {
+			double escalado = valor * 100;
+			double fracao = Math.abs(escalado - (long) escalado);
+			if (Math.abs(fracao - 0.5) > 1e-6) {
+				return Math.round(escalado);
+			}
+		}
+		return new BigDecimal(Double.toString(valor)).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+}
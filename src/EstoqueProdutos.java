@@ -0,0 +1,240 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estoque disponível de cada produto, indexado pelo código do produto.
+ *
+ * Os códigos são sequenciais (ver {@link Produto}), então as quantidades ficam em um vetor de
+ * longs indexado por código - primeiroId, sem mapas nem objetos por produto. Reservar e liberar
+ * são operações atômicas sobre a posição do produto (compare-and-set), sem bloqueio: pedidos
+ * concorrentes de produtos diferentes não disputam nada entre si, e os de um mesmo produto muito
+ * vendido disputam apenas a posição dele.
+ *
+ * Com espaçamento 8, cada produto ocupa uma linha de cache (64 bytes) inteira, para que as
+ * atualizações de produtos vizinhos não invalidem umas às outras (falso compartilhamento), ao
+ * custo de 8 vezes mais memória. Com espaçamento 1, as quantidades ficam contíguas.
+ *
+ * Produtos com código fora do intervalo coberto não têm estoque: não podem ser reservados.
+ *
+ * Quando a recarga do catálogo traz produtos novos, {@link #ampliado} cria um estoque que cobre os
+ * novos códigos e consulta o anterior para os já cobertos. Os saldos não são copiados, e sim
+ * compartilhados: reservas feitas no estoque anterior durante a troca não se perdem. Cada recarga
+ * com produtos novos acrescenta um nível à cadeia.
+ */
+public class EstoqueProdutos {
+
+	/** Longs por linha de cache de 64 bytes */
+	public static final int ESPACAMENTO_LINHA_CACHE = 8;
+
+	private final int primeiroId;
+	private final int quantosIds;
+	private final int espacamento;
+	private final AtomicLongArray disponiveis;
+
+	/** Estoque das cargas anteriores do catálogo, consultado primeiro; null na primeira carga */
+	private final EstoqueProdutos anterior;
+
+	/**
+	 * Cria o estoque zerado para os códigos primeiroId a primeiroId + quantosIds - 1.
+	 *
+	 * @param primeiroId  Menor código coberto
+	 * @param quantosIds  Quantidade de códigos cobertos
+	 * @param espacamento Posições do vetor por produto: 1 (contíguo) ou
+	 *                    {@link #ESPACAMENTO_LINHA_CACHE} (uma linha de cache por produto)
+	 */
+	public EstoqueProdutos(int primeiroId, int quantosIds, int espacamento) {
+		this(primeiroId, quantosIds, espacamento, null);
+	}
+
+	private EstoqueProdutos(int primeiroId, int quantosIds, int espacamento, EstoqueProdutos anterior) {
+
+		if (quantosIds < 0 || espacamento < 1) {
+			throw new IllegalArgumentException("Tamanho ou espaçamento inválido para o estoque!");
+		}
+		this.primeiroId = primeiroId;
+		this.quantosIds = quantosIds;
+		this.espacamento = espacamento;
+		this.disponiveis = new AtomicLongArray(Math.multiplyExact(quantosIds, espacamento));
+		this.anterior = anterior;
+	}
+
+	/**
+	 * Cria o estoque cobrindo os códigos dos produtos do catálogo, com a mesma quantidade
+	 * inicial para todos, uma linha de cache por produto.
+	 *
+	 * @param produtos        Vetor de produtos
+	 * @param quantosProdutos Quantidade de posições válidas no vetor
+	 * @param quantidade      Quantidade inicial de cada produto
+	 * @return O estoque
+	 */
+	public static EstoqueProdutos doCatalogo(Produto[] produtos, int quantosProdutos, long quantidade) {
+
+		int menor = Integer.MAX_VALUE;
+		int maior = Integer.MIN_VALUE;
+		for (int i = 0; i < quantosProdutos; i++) {
+			menor = Math.min(menor, produtos[i].hashCode());
+			maior = Math.max(maior, produtos[i].hashCode());
+		}
+
+		EstoqueProdutos estoque = (quantosProdutos == 0) ? new EstoqueProdutos(0, 0, ESPACAMENTO_LINHA_CACHE)
+				: new EstoqueProdutos(menor, maior - menor + 1, ESPACAMENTO_LINHA_CACHE);
+		for (int i = 0; i < quantosProdutos; i++) {
+			estoque.definir(produtos[i], quantidade);
+		}
+		return estoque;
+	}
+
+	/**
+	 * Retorna o estoque que cobre também os produtos do catálogo recarregado cujos códigos este
+	 * ainda não cobre, com a quantidade inicial informada. Os produtos já cobertos mantêm o saldo
+	 * (o estoque retornado consulta este).
+	 *
+	 * @param produtos        Vetor de produtos do novo catálogo
+	 * @param quantosProdutos Quantidade de posições válidas no vetor
+	 * @param quantidade      Quantidade inicial de cada produto novo
+	 * @return O estoque ampliado, ou este mesmo se não houver produtos novos
+	 */
+	public EstoqueProdutos ampliado(Produto[] produtos, int quantosProdutos, long quantidade) {
+
+		int menor = Integer.MAX_VALUE;
+		int maior = Integer.MIN_VALUE;
+		for (int i = 0; i < quantosProdutos; i++) {
+			if (responsavel(produtos[i].hashCode()) == null) {
+				menor = Math.min(menor, produtos[i].hashCode());
+				maior = Math.max(maior, produtos[i].hashCode());
+			}
+		}
+		if (menor > maior) {
+			return this;
+		}
+
+		EstoqueProdutos ampliado = new EstoqueProdutos(menor, maior - menor + 1, espacamento, this);
+		for (int i = 0; i < quantosProdutos; i++) {
+			if (responsavel(produtos[i].hashCode()) == null) {
+				ampliado.definir(produtos[i], quantidade);
+			}
+		}
+		return ampliado;
+	}
+
+	/**
+	 * Define a quantidade disponível de um produto.
+	 *
+	 * @param produto    O produto
+	 * @param quantidade Quantidade disponível (não negativa)
+	 * @throws IllegalArgumentException se o código do produto não for coberto ou a quantidade for negativa
+	 */
+	public void definir(Produto produto, long quantidade) {
+
+		EstoqueProdutos dono = responsavel(produto.hashCode());
+		if (dono == null || quantidade < 0) {
+			throw new IllegalArgumentException("Produto ou quantidade inválida para o estoque: " + produto.hashCode());
+		}
+		dono.disponiveis.set(dono.posicao(produto.hashCode()), quantidade);
+	}
+
+	/**
+	 * Reserva, de forma atômica, uma quantidade do produto.
+	 *
+	 * @param produto    O produto
+	 * @param quantidade Quantidade a reservar (positiva)
+	 * @return true se havia quantidade disponível e ela foi reservada; false caso contrário
+	 */
+	public boolean reservar(Produto produto, long quantidade) {
+
+		EstoqueProdutos dono = responsavel(produto.hashCode());
+		if (dono == null) {
+			return false;
+		}
+
+		int posicao = dono.posicao(produto.hashCode());
+		long atual;
+		do {
+			atual = dono.disponiveis.get(posicao);
+			if (atual < quantidade) {
+				return false;
+			}
+		} while (!dono.disponiveis.weakCompareAndSetVolatile(posicao, atual, atual - quantidade));
+		return true;
+	}
+
+	/**
+	 * Devolve ao estoque uma quantidade reservada do produto.
+	 *
+	 * @param produto    O produto
+	 * @param quantidade Quantidade a devolver (positiva)
+	 */
+	public void liberar(Produto produto, long quantidade) {
+
+		EstoqueProdutos dono = responsavel(produto.hashCode());
+		if (dono != null) {
+			dono.disponiveis.getAndAdd(dono.posicao(produto.hashCode()), quantidade);
+		}
+	}
+
+	/**
+	 * Reserva uma unidade de cada produto do pedido (um produto repetido, uma unidade por vez
+	 * que aparece). Se algum não tiver estoque, libera o que já tinha sido reservado.
+	 *
+	 * @param pedido O pedido
+	 * @return true se todos os produtos foram reservados; false se nenhum foi
+	 */
+	public boolean reservar(Pedido pedido) {
+
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			if (!reservar(produtos[i], 1)) {
+				for (int j = 0; j < i; j++) {
+					liberar(produtos[j], 1);
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Devolve ao estoque uma unidade de cada produto do pedido.
+	 *
+	 * @param pedido O pedido
+	 */
+	public void liberar(Pedido pedido) {
+
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			liberar(produtos[i], 1);
+		}
+	}
+
+	/**
+	 * @param produto O produto
+	 * @return Quantidade disponível do produto (0 se o código não for coberto)
+	 */
+	public long disponivel(Produto produto) {
+
+		EstoqueProdutos dono = responsavel(produto.hashCode());
+		return (dono == null) ? 0 : dono.disponiveis.get(dono.posicao(produto.hashCode()));
+	}
+
+	/**
+	 * @return O estoque da cadeia que cobre o código (o mais antigo primeiro), ou null se nenhum
+	 *         o cobrir
+	 */
+	private EstoqueProdutos responsavel(int idProduto) {
+
+		EstoqueProdutos dono = (anterior == null) ? null : anterior.responsavel(idProduto);
+		if (dono == null && posicao(idProduto) >= 0) {
+			dono = this;
+		}
+		return dono;
+	}
+
+	/** @return A posição do código no vetor, ou -1 se ele não for coberto */
+	private int posicao(int idProduto) {
+
+		int indice = idProduto - primeiroId;
+		if (indice < 0 || indice >= quantosIds) {
+			return -1;
+		}
+		return indice * espacamento;
+	}
+}
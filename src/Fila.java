@@ -1,25 +1,46 @@
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * Classe genérica que representa uma Fila (FIFO - First In, First Out).
- * Utiliza células encadeadas para armazenar os elementos.
+ * Utiliza células encadeadas para armazenar os elementos. Opcionalmente, as células
+ * removidas são recicladas nas inserções seguintes (ver {@link #Fila(boolean)}).
  * 
  * @param <E> Tipo dos elementos armazenados na fila
  */
-public class Fila<E> {
+public class Fila<E> implements FilaConsultavel<E>, Iterable<E> {
 
       private final Celula<E> frente;
       private Celula<E> tras;
+      private int quantidade;
+
+      /** Células livres para reaproveitamento, ou null se a reciclagem estiver desligada */
+      private final ReservaCelulas<E> reserva;
 
       /**
        * Construtor da fila. Inicializa a fila vazia com uma célula sentinela.
        */
       public Fila() {
+            this(false);
+      }
+
+      /**
+       * Construtor da fila. Inicializa a fila vazia com uma célula sentinela.
+       * 
+       * Com a reciclagem ligada, as células desenfileiradas são guardadas e
+       * reaproveitadas nos próximos enfileiramentos, em vez de alocar uma célula
+       * por item. Nesse modo, a fila não pode ser alterada enquanto é percorrida
+       * por um iterador.
+       * 
+       * @param reciclarCelulas true para reaproveitar as células removidas
+       */
+      public Fila(boolean reciclarCelulas) {
             Celula<E> sentinela = new Celula<>();
             frente = sentinela;
             tras = sentinela;
+            reserva = reciclarCelulas ? new ReservaCelulas<>(ReservaCelulas.CAPACIDADE_PADRAO) : null;
       }
 
       /**
@@ -37,9 +58,10 @@ public class Fila<E> {
        * @param item O elemento a ser inserido na fila
        */
       public void enfileirar(E item) {
-            Celula<E> novaCelula = new Celula<>(item);
+            Celula<E> novaCelula = (reserva == null) ? new Celula<>(item) : reserva.obter(item, null);
             tras.setProximo(novaCelula);
             tras = novaCelula;
+            quantidade++;
       }
 
       /**
@@ -61,6 +83,11 @@ public class Fila<E> {
             if (desenfileirada == tras) {
                   tras = frente;
             }
+            quantidade--;
+
+            if (reserva != null) {
+                  reserva.devolver(desenfileirada);
+            }
 
             return item;
       }
@@ -79,6 +106,154 @@ public class Fila<E> {
             return frente.getProximo().getItem();
       }
 
+      /**
+       * Insere todos os elementos do vetor no final da fila, na ordem do vetor.
+       * As células são encadeadas entre si e ligadas à fila de uma só vez.
+       * 
+       * @param itens Os elementos a serem inseridos
+       */
+      public void enfileirarTodos(E[] itens) {
+            if (itens.length == 0) {
+                  return;
+            }
+            Celula<E> primeira = (reserva == null) ? new Celula<>(itens[0]) : reserva.obter(itens[0], null);
+            Celula<E> ultima = primeira;
+            for (int i = 1; i < itens.length; i++) {
+                  Celula<E> novaCelula = (reserva == null) ? new Celula<>(itens[i]) : reserva.obter(itens[i], null);
+                  ultima.setProximo(novaCelula);
+                  ultima = novaCelula;
+            }
+            ligarAoFinal(primeira, ultima, itens.length);
+      }
+
+      /**
+       * Insere todos os elementos percorridos pelo iterável no final da fila, na
+       * ordem de iteração. As células são encadeadas à parte e ligadas à fila só
+       * depois da iteração: se o iterável lançar uma exceção, a fila não muda.
+       * Para transferir os elementos de outra {@link Fila}, sem
+       * copiá-los, ver {@link #concatenar(Fila)}.
+       * 
+       * @param itens Os elementos a serem inseridos
+       * @throws IllegalArgumentException se os elementos forem desta mesma fila
+       */
+      public void enfileirarTodos(Iterable<? extends E> itens) {
+            if (itens == this) {
+                  throw new IllegalArgumentException("Os elementos devem ser de outra fila!");
+            }
+            Celula<E> primeira = null;
+            Celula<E> ultima = null;
+            int inseridos = 0;
+            for (E item : itens) {
+                  Celula<E> novaCelula = (reserva == null) ? new Celula<>(item) : reserva.obter(item, null);
+                  if (primeira == null) {
+                        primeira = novaCelula;
+                  } else {
+                        ultima.setProximo(novaCelula);
+                  }
+                  ultima = novaCelula;
+                  inseridos++;
+            }
+            if (primeira != null) {
+                  ligarAoFinal(primeira, ultima, inseridos);
+            }
+      }
+
+      /**
+       * Transfere para o final da fila de destino os primeiros n elementos desta
+       * fila (ou todos, se houver menos de n), religando as células: nenhum
+       * elemento é copiado e nenhuma célula é criada. Custa O(n), apenas para
+       * localizar o ponto de corte.
+       * 
+       * @param n       Quantidade máxima de elementos a transferir
+       * @param destino Fila que recebe os elementos
+       * @return Quantidade de elementos transferidos
+       * @throws IllegalArgumentException se o destino for esta mesma fila
+       */
+      public int desenfileirarAte(int n, Fila<E> destino) {
+            if (destino == this) {
+                  throw new IllegalArgumentException("A fila de destino deve ser outra fila!");
+            }
+            if (n <= 0 || vazia()) {
+                  return 0;
+            }
+            if (n >= quantidade) {
+                  int todos = quantidade;
+                  destino.concatenar(this);
+                  return todos;
+            }
+
+            Celula<E> primeira = frente.getProximo();
+            Celula<E> ultima = primeira;
+            for (int i = 1; i < n; i++) {
+                  ultima = ultima.getProximo();
+            }
+            frente.setProximo(ultima.getProximo());
+            ultima.setProximo(null);
+            quantidade -= n;
+
+            destino.ligarAoFinal(primeira, ultima, n);
+            return n;
+      }
+
+      /**
+       * Remove os primeiros elementos da fila (até o tamanho do vetor), guardando-os
+       * no vetor de destino na ordem da fila.
+       * 
+       * @param destino Vetor que recebe os elementos, a partir da posição 0
+       * @return Quantidade de elementos removidos
+       */
+      public int desenfileirarAte(E[] destino) {
+            int removidos = Math.min(destino.length, quantidade);
+            Celula<E> atual = frente.getProximo();
+            for (int i = 0; i < removidos; i++) {
+                  destino[i] = atual.getItem();
+                  Celula<E> proxima = atual.getProximo();
+                  if (reserva != null) {
+                        reserva.devolver(atual);
+                  }
+                  atual = proxima;
+            }
+            frente.setProximo(atual);
+            quantidade -= removidos;
+            if (atual == null) {
+                  tras = frente;
+            }
+            return removidos;
+      }
+
+      /**
+       * Move todos os elementos da outra fila para o final desta, em O(1): a
+       * cadeia de células da outra fila é ligada ao final desta, e a outra fila
+       * fica vazia.
+       * 
+       * @param outra A fila cujos elementos serão movidos
+       * @throws IllegalArgumentException se a outra fila for esta mesma fila
+       */
+      public void concatenar(Fila<E> outra) {
+            if (outra == this) {
+                  throw new IllegalArgumentException("Uma fila não pode ser concatenada a si mesma!");
+            }
+            if (outra.vazia()) {
+                  return;
+            }
+
+            ligarAoFinal(outra.frente.getProximo(), outra.tras, outra.quantidade);
+
+            outra.frente.setProximo(null);
+            outra.tras = outra.frente;
+            outra.quantidade = 0;
+      }
+
+      /**
+       * Conclui uma inserção em lote: liga ao final da fila a cadeia, montada à
+       * parte, que vai da primeira à última célula informada.
+       */
+      private void ligarAoFinal(Celula<E> primeira, Celula<E> ultima, int inseridos) {
+            tras.setProximo(primeira);
+            tras = ultima;
+            quantidade += inseridos;
+      }
+
       /**
        * Calcula e retorna o valor médio de um atributo específico dos primeiros
        * elementos da fila.
@@ -181,18 +356,40 @@ public class Fila<E> {
             return filaFiltrada;
       }
 
+      /**
+       * Retorna um iterador que percorre os elementos da fila, da frente para o
+       * final, sem removê-los.
+       * 
+       * @return Iterador sobre os elementos da fila
+       */
+      @Override
+      public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                  private Celula<E> atual = frente.getProximo();
+
+                  @Override
+                  public boolean hasNext() {
+                        return atual != null;
+                  }
+
+                  @Override
+                  public E next() {
+                        if (atual == null) {
+                              throw new NoSuchElementException("Não há mais itens na fila!");
+                        }
+                        E item = atual.getItem();
+                        atual = atual.getProximo();
+                        return item;
+                  }
+            };
+      }
+
       /**
        * Retorna o número de elementos na fila.
        * 
        * @return Quantidade de elementos na fila
        */
       public int tamanho() {
-            int contador = 0;
-            Celula<E> atual = frente.getProximo();
-            while (atual != null) {
-                  contador++;
-                  atual = atual.getProximo();
-            }
-            return contador;
+            return quantidade;
       }
 }
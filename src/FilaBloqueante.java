@@ -0,0 +1,164 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila (FIFO) de capacidade limitada para ligar threads produtoras e consumidoras.
+ *
+ * Encapsula uma {@link Fila} protegida por um bloqueio: quem insere espera enquanto a fila está
+ * cheia e quem remove espera enquanto ela está vazia. As transferências são feitas em lotes,
+ * com as operações em lote da {@link Fila} (as células são religadas, não copiadas), de modo
+ * que o bloqueio é adquirido uma vez por lote, e não uma vez por elemento.
+ *
+ * Depois de {@link #fechar() fechada}, a fila não aceita novos elementos e os consumidores
+ * recebem os elementos restantes e, em seguida, a indicação de fim.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public class FilaBloqueante<E> {
+
+	private final Fila<E> fila;
+	private final int capacidade;
+	private final ReentrantLock bloqueio;
+	private final Condition naoVazia;
+	private final Condition naoCheia;
+	private boolean fechada;
+
+	/**
+	 * Cria a fila vazia.
+	 *
+	 * @param capacidade Quantidade máxima de elementos (mínimo 1)
+	 */
+	public FilaBloqueante(int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("A fila deve ter capacidade de pelo menos um item!");
+		}
+		this.fila = new Fila<>();
+		this.capacidade = capacidade;
+		this.bloqueio = new ReentrantLock();
+		this.naoVazia = bloqueio.newCondition();
+		this.naoCheia = bloqueio.newCondition();
+	}
+
+	/**
+	 * Insere um elemento, esperando enquanto a fila estiver cheia.
+	 *
+	 * @param item O elemento a ser inserido
+	 * @throws IllegalStateException se a fila estiver fechada
+	 * @throws InterruptedException  se a thread for interrompida durante a espera
+	 */
+	public void enfileirar(E item) throws InterruptedException {
+
+		bloqueio.lockInterruptibly();
+		try {
+			esperarEspaco(1);
+			fila.enfileirar(item);
+			naoVazia.signal();
+		} finally {
+			bloqueio.unlock();
+		}
+	}
+
+	/**
+	 * Move todos os elementos do lote para o final desta fila, em O(1), esperando até que
+	 * caibam todos. O lote fica vazio.
+	 *
+	 * @param lote Elementos a serem inseridos (no máximo a capacidade desta fila)
+	 * @throws IllegalArgumentException se o lote for maior que a capacidade
+	 * @throws IllegalStateException    se a fila estiver fechada
+	 * @throws InterruptedException     se a thread for interrompida durante a espera
+	 */
+	public void enfileirarLote(Fila<E> lote) throws InterruptedException {
+
+		int tamanhoLote = lote.tamanho();
+		if (tamanhoLote > capacidade) {
+			throw new IllegalArgumentException("O lote excede a capacidade da fila!");
+		}
+		if (tamanhoLote == 0) {
+			return;
+		}
+
+		bloqueio.lockInterruptibly();
+		try {
+			esperarEspaco(tamanhoLote);
+			fila.concatenar(lote);
+			naoVazia.signalAll();
+		} finally {
+			bloqueio.unlock();
+		}
+	}
+
+	/**
+	 * Move até {@code maximo} elementos da frente desta fila para o final do destino. Espera
+	 * até que haja algum elemento, até que a fila seja fechada ou até o tempo máximo.
+	 *
+	 * @param destino Fila que recebe os elementos
+	 * @param maximo  Quantidade máxima de elementos
+	 * @param espera  Tempo máximo de espera, em milissegundos
+	 * @return Quantidade de elementos movidos (0 se o tempo acabou), ou -1 se a fila estiver
+	 *         fechada e vazia
+	 * @throws InterruptedException se a thread for interrompida durante a espera
+	 */
+	public int desenfileirarLote(Fila<E> destino, int maximo, long espera) throws InterruptedException {
+
+		long restante = TimeUnit.MILLISECONDS.toNanos(espera);
+
+		bloqueio.lockInterruptibly();
+		try {
+			while (fila.vazia()) {
+				if (fechada) {
+					return -1;
+				}
+				if (restante <= 0) {
+					return 0;
+				}
+				restante = naoVazia.awaitNanos(restante);
+			}
+			int movidos = fila.desenfileirarAte(maximo, destino);
+			naoCheia.signalAll();
+			return movidos;
+		} finally {
+			bloqueio.unlock();
+		}
+	}
+
+	/** Fecha a fila: novas inserções falham e os consumidores esperando são acordados. */
+	public void fechar() {
+
+		bloqueio.lock();
+		try {
+			fechada = true;
+			naoVazia.signalAll();
+			naoCheia.signalAll();
+		} finally {
+			bloqueio.unlock();
+		}
+	}
+
+	/** @return Quantidade de elementos na fila */
+	public int tamanho() {
+
+		bloqueio.lock();
+		try {
+			return fila.tamanho();
+		} finally {
+			bloqueio.unlock();
+		}
+	}
+
+	public int getCapacidade() {
+		return capacidade;
+	}
+
+	/** Espera até haver espaço para a quantidade informada. Deve ser chamado com o bloqueio adquirido. */
+	private void esperarEspaco(int quantidade) throws InterruptedException {
+
+		while (!fechada && fila.tamanho() + quantidade > capacidade) {
+			naoCheia.await();
+		}
+		if (fechada) {
+			throw new IllegalStateException("A fila está fechada!");
+		}
+	}
+}
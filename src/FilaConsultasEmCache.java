@@ -0,0 +1,182 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila que guarda os resultados das consultas ({@link #calcularValorMedio} e {@link #filtrar})
+ * sobre outra fila, à qual delega todas as operações. Repetir uma consulta com os mesmos
+ * parâmetros, sem que a fila tenha mudado, não percorre a fila de novo: a média é devolvida em
+ * O(1) e o resultado de um filtro é copiado para uma nova fila (os elementos encontrados, não os
+ * testados).
+ *
+ * Como funções e predicados não podem ser comparados entre si, só são guardadas as consultas
+ * feitas pelas versões com chave, em que o chamador identifica a função ou o predicado (por
+ * exemplo, "valor final" ou o valor mínimo do filtro); as versões da interface apenas delegam.
+ * Se a função depender de algo além dos elementos (como os preços em vigor), a chave deve
+ * incluir também a versão disso.
+ *
+ * A fila tem um número de versão, incrementado a cada enfileirar, concatenar e desenfileirar. Cada resultado
+ * guardado registra a versão em que foi calculado e deixa de valer quando ela muda. São guardados
+ * no máximo {@code capacidade} resultados; ao passar disso, sai o usado há mais tempo (LRU).
+ *
+ * Todas as alterações devem passar por esta fila: alterar a fila encapsulada diretamente não muda
+ * a versão.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public class FilaConsultasEmCache<E> implements FilaConsultavel<E> {
+
+	private final FilaConsultavel<E> fila;
+	private final Map<List<Object>, Resultado> resultados;
+	private long versao;
+	private long acertos;
+	private long falhas;
+
+	/**
+	 * @param fila       Fila encapsulada
+	 * @param capacidade Quantidade máxima de resultados guardados (mínimo 1)
+	 */
+	public FilaConsultasEmCache(FilaConsultavel<E> fila, int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("O cache deve guardar pelo menos um resultado!");
+		}
+		this.fila = fila;
+		this.resultados = new LinkedHashMap<>(capacidade * 4 / 3 + 1, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, Resultado> maisAntigo) {
+				return size() > capacidade;
+			}
+		};
+	}
+
+	public boolean vazia() {
+		return fila.vazia();
+	}
+
+	public int tamanho() {
+		return fila.tamanho();
+	}
+
+	public void enfileirar(E item) {
+		fila.enfileirar(item);
+		versao++;
+	}
+
+	public void concatenar(Fila<E> outra) {
+		fila.concatenar(outra);
+		versao++;
+	}
+
+	public E desenfileirar() {
+		E item = fila.desenfileirar();
+		versao++;
+		return item;
+	}
+
+	public E consultarFrente() {
+		return fila.consultarFrente();
+	}
+
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		return fila.calcularValorMedio(extrator, quantidade);
+	}
+
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+		return fila.filtrar(condicional, quantidade);
+	}
+
+	/**
+	 * Calcula o valor médio de um atributo dos primeiros elementos da fila, reaproveitando o
+	 * resultado de uma consulta igual feita desde a última alteração da fila.
+	 *
+	 * @param chave      Identificação do atributo extraído (mesma chave, mesmo extrator)
+	 * @param extrator   Função que extrai um valor Double de cada elemento
+	 * @param quantidade Número de primeiros elementos a serem considerados
+	 * @return O valor médio calculado, ou 0.0 se a quantidade for 0 ou a fila estiver vazia
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	public double calcularValorMedio(Object chave, Function<E, Double> extrator, int quantidade) {
+
+		List<Object> consulta = Arrays.asList("media", chave, quantidade);
+		Resultado guardado = consultar(consulta);
+		if (guardado != null) {
+			return (Double) guardado.valor;
+		}
+
+		double media = fila.calcularValorMedio(extrator, quantidade);
+		resultados.put(consulta, new Resultado(versao, media));
+		return media;
+	}
+
+	/**
+	 * Filtra os primeiros elementos da fila, sem modificá-la, reaproveitando o resultado de uma
+	 * consulta igual feita desde a última alteração da fila.
+	 *
+	 * @param chave       Identificação da condição (mesma chave, mesmo predicado)
+	 * @param condicional Predicado que testa se um elemento deve ser incluído
+	 * @param quantidade  Número de primeiros elementos a serem testados
+	 * @return Uma nova fila, na ordem de atendimento, com os elementos que satisfazem a condição
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	@SuppressWarnings("unchecked")
+	public Fila<E> filtrar(Object chave, Predicate<E> condicional, int quantidade) {
+
+		List<Object> consulta = Arrays.asList("filtro", chave, quantidade);
+		Resultado guardado = consultar(consulta);
+		Fila<E> filtrados;
+		if (guardado != null) {
+			filtrados = (Fila<E>) guardado.valor;
+		} else {
+			filtrados = fila.filtrar(condicional, quantidade);
+			resultados.put(consulta, new Resultado(versao, filtrados));
+		}
+
+		// o resultado guardado não pode ser consumido por quem o recebe
+		Fila<E> copia = new Fila<>();
+		copia.enfileirarTodos(filtrados);
+		return copia;
+	}
+
+	/** @return O resultado guardado para a consulta, ou null se não houver ou estiver desatualizado */
+	private Resultado consultar(List<Object> consulta) {
+
+		Resultado guardado = resultados.get(consulta);
+		if (guardado != null && guardado.versao == versao) {
+			acertos++;
+			return guardado;
+		}
+		falhas++;
+		return null;
+	}
+
+	/** @return Número da versão atual da fila (alterações feitas por esta fila) */
+	public long getVersao() {
+		return versao;
+	}
+
+	/** @return Consultas atendidas com um resultado guardado */
+	public long getAcertos() {
+		return acertos;
+	}
+
+	/** @return Consultas que precisaram percorrer a fila */
+	public long getFalhas() {
+		return falhas;
+	}
+
+	/** Resultado de uma consulta e a versão da fila em que foi calculado. */
+	private static class Resultado {
+
+		private final long versao;
+		private final Object valor;
+
+		Resultado(long versao, Object valor) {
+			this.versao = versao;
+			this.valor = valor;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Operações comuns às filas de pedidos do sistema: inserção, remoção da frente e as consultas
+ * sobre os primeiros elementos usadas pelo menu. Permite trocar a fila FIFO ({@link Fila})
+ * por outra política de atendimento, como a {@link FilaPrioridade}.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public interface FilaConsultavel<E> {
+
+	/**
+	 * Verifica se a fila está vazia.
+	 *
+	 * @return true se a fila estiver vazia, false caso contrário
+	 */
+	boolean vazia();
+
+	/**
+	 * Retorna o número de elementos na fila.
+	 *
+	 * @return Quantidade de elementos na fila
+	 */
+	int tamanho();
+
+	/**
+	 * Insere um elemento na fila.
+	 *
+	 * @param item O elemento a ser inserido na fila
+	 */
+	void enfileirar(E item);
+
+	/**
+	 * Move todos os elementos da outra fila para o final desta, na ordem da outra, que fica
+	 * vazia. A implementação padrão os insere um a um; a {@link Fila} liga as células em O(1).
+	 *
+	 * @param outra A fila cujos elementos serão movidos
+	 * @throws IllegalArgumentException se a outra fila for esta mesma fila
+	 */
+	default void concatenar(Fila<E> outra) {
+		if (outra == this) {
+			throw new IllegalArgumentException("Uma fila não pode ser concatenada a si mesma!");
+		}
+		while (!outra.vazia()) {
+			enfileirar(outra.desenfileirar());
+		}
+	}
+
+	/**
+	 * Remove e retorna o elemento da frente da fila.
+	 *
+	 * @return O elemento removido da frente da fila
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	E desenfileirar();
+
+	/**
+	 * Consulta o elemento da frente da fila sem removê-lo.
+	 *
+	 * @return O elemento da frente da fila
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	E consultarFrente();
+
+	/**
+	 * Calcula o valor médio de um atributo dos primeiros elementos da fila.
+	 *
+	 * @param extrator   Função que extrai um valor Double de cada elemento
+	 * @param quantidade Número de primeiros elementos a serem considerados
+	 * @return O valor médio calculado, ou 0.0 se a quantidade for 0 ou a fila estiver vazia
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	double calcularValorMedio(Function<E, Double> extrator, int quantidade);
+
+	/**
+	 * Filtra os primeiros elementos da fila, sem modificá-la.
+	 *
+	 * @param condicional Predicado que testa se um elemento deve ser incluído
+	 * @param quantidade  Número de primeiros elementos a serem testados
+	 * @return Uma nova fila, na ordem de atendimento, com os elementos que satisfazem a condição
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	Fila<E> filtrar(Predicate<E> condicional, int quantidade);
+}
@@ -0,0 +1,135 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Fila dupla (deque): permite inserir, remover e consultar elementos nas duas extremidades
+ * em O(1) (amortizado nas inserções).
+ * Utiliza um vetor circular, que dobra de tamanho quando fica cheio.
+ *
+ * @param <E> Tipo dos elementos armazenados
+ */
+public class FilaDupla<E> {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private Object[] itens;
+	private int inicio;
+	private int quantidade;
+
+	/**
+	 * Construtor da fila dupla. Inicializa a estrutura vazia.
+	 */
+	public FilaDupla() {
+		itens = new Object[CAPACIDADE_INICIAL];
+	}
+
+	/**
+	 * Verifica se a fila dupla está vazia.
+	 *
+	 * @return true se estiver vazia, false caso contrário
+	 */
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	/**
+	 * Retorna o número de elementos armazenados.
+	 *
+	 * @return Quantidade de elementos
+	 */
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/**
+	 * Insere um elemento no início.
+	 *
+	 * @param item O elemento a ser inserido
+	 */
+	public void inserirInicio(E item) {
+		garantirCapacidade();
+		inicio = (inicio - 1) & (itens.length - 1);
+		itens[inicio] = item;
+		quantidade++;
+	}
+
+	/**
+	 * Insere um elemento no final.
+	 *
+	 * @param item O elemento a ser inserido
+	 */
+	public void inserirFim(E item) {
+		garantirCapacidade();
+		itens[(inicio + quantidade) & (itens.length - 1)] = item;
+		quantidade++;
+	}
+
+	/**
+	 * Remove e retorna o elemento do início.
+	 *
+	 * @return O elemento removido
+	 * @throws NoSuchElementException se a fila dupla estiver vazia
+	 */
+	public E removerInicio() {
+		E item = consultarInicio();
+		itens[inicio] = null;
+		inicio = (inicio + 1) & (itens.length - 1);
+		quantidade--;
+		return item;
+	}
+
+	/**
+	 * Remove e retorna o elemento do final.
+	 *
+	 * @return O elemento removido
+	 * @throws NoSuchElementException se a fila dupla estiver vazia
+	 */
+	public E removerFim() {
+		E item = consultarFim();
+		itens[(inicio + quantidade - 1) & (itens.length - 1)] = null;
+		quantidade--;
+		return item;
+	}
+
+	/**
+	 * Consulta o elemento do início sem removê-lo.
+	 *
+	 * @return O elemento do início
+	 * @throws NoSuchElementException se a fila dupla estiver vazia
+	 */
+	@SuppressWarnings("unchecked")
+	public E consultarInicio() {
+		if (vazia()) {
+			throw new NoSuchElementException("Não há nenhum item na fila dupla!");
+		}
+		return (E) itens[inicio];
+	}
+
+	/**
+	 * Consulta o elemento do final sem removê-lo.
+	 *
+	 * @return O elemento do final
+	 * @throws NoSuchElementException se a fila dupla estiver vazia
+	 */
+	@SuppressWarnings("unchecked")
+	public E consultarFim() {
+		if (vazia()) {
+			throw new NoSuchElementException("Não há nenhum item na fila dupla!");
+		}
+		return (E) itens[(inicio + quantidade - 1) & (itens.length - 1)];
+	}
+
+	/** Dobra o vetor quando cheio, reposicionando os elementos a partir da posição 0. A capacidade é sempre potência de 2. */
+	private void garantirCapacidade() {
+
+		if (quantidade < itens.length) {
+			return;
+		}
+
+		Object[] novos = new Object[itens.length * 2];
+		int ateOFim = itens.length - inicio;
+		System.arraycopy(itens, inicio, novos, 0, ateOFim);
+		System.arraycopy(itens, 0, novos, ateOFim, inicio);
+		itens = novos;
+		inicio = 0;
+	}
+}
@@ -0,0 +1,65 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila (FIFO) para várias threads, sem bloqueio, sobre uma {@link FilaPersistente}: a fila atual
+ * é uma referência atômica para a última versão. Enfileirar e desenfileirar criam a nova versão e
+ * a publicam com compareAndSet, repetindo se outra escrita tiver sido publicada antes.
+ *
+ * Consultas leem a versão atual uma só vez e trabalham sobre ela, sem interferir nas escritas:
+ * o resultado corresponde a um único momento da fila. {@link #instantaneo()} entrega essa versão
+ * em O(1), sem cópia, para quem precisa percorrer os pedidos (relatórios, por exemplo) enquanto a
+ * fila continua recebendo inserções.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public class FilaInstantanea<E> implements FilaConsultavel<E> {
+
+	private final AtomicReference<FilaPersistente<E>> atual = new AtomicReference<>(new FilaPersistente<>());
+
+	/**
+	 * @return A fila neste momento, imutável; alterações posteriores não a afetam
+	 */
+	public FilaPersistente<E> instantaneo() {
+		return atual.get();
+	}
+
+	public boolean vazia() {
+		return atual.get().vazia();
+	}
+
+	public int tamanho() {
+		return atual.get().tamanho();
+	}
+
+	public void enfileirar(E item) {
+		atual.updateAndGet(fila -> fila.enfileirar(item));
+	}
+
+	public E desenfileirar() {
+
+		while (true) {
+			FilaPersistente<E> fila = atual.get();
+			if (fila.vazia()) {
+				throw new NoSuchElementException("Não há nenhum item na fila!");
+			}
+			if (atual.compareAndSet(fila, fila.desenfileirar())) {
+				return fila.consultarFrente();
+			}
+		}
+	}
+
+	public E consultarFrente() {
+		return atual.get().consultarFrente();
+	}
+
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		return atual.get().calcularValorMedio(extrator, quantidade);
+	}
+
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+		return atual.get().filtrar(condicional, quantidade);
+	}
+}
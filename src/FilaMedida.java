@@ -0,0 +1,65 @@
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila que conta, em {@link Metricas}, os elementos enfileirados e desenfileirados. Como em
+ * {@link FilaPedidosResumida}, encapsula outra fila ({@link Fila}, {@link FilaPrioridade}...), à
+ * qual delega todas as operações. Usada na fila de pedidos, para que as taxas de
+ * enfileiramento e desenfileiramento meçam apenas ela, e não as filas auxiliares do sistema.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public class FilaMedida<E> implements FilaConsultavel<E> {
+
+	private final FilaConsultavel<E> fila;
+
+	/**
+	 * @param fila Fila encapsulada
+	 */
+	public FilaMedida(FilaConsultavel<E> fila) {
+		this.fila = fila;
+	}
+
+	public boolean vazia() {
+		return fila.vazia();
+	}
+
+	public int tamanho() {
+		return fila.tamanho();
+	}
+
+	public void enfileirar(E item) {
+		fila.enfileirar(item);
+		if (Metricas.ATIVAS) {
+			Metricas.ENFILEIRAMENTOS.increment();
+		}
+	}
+
+	public void concatenar(Fila<E> outra) {
+		int movidos = outra.tamanho();
+		fila.concatenar(outra);
+		if (Metricas.ATIVAS) {
+			Metricas.ENFILEIRAMENTOS.add(movidos);
+		}
+	}
+
+	public E desenfileirar() {
+		E item = fila.desenfileirar();
+		if (Metricas.ATIVAS) {
+			Metricas.DESENFILEIRAMENTOS.increment();
+		}
+		return item;
+	}
+
+	public E consultarFrente() {
+		return fila.consultarFrente();
+	}
+
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+		return fila.calcularValorMedio(extrator, quantidade);
+	}
+
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+		return fila.filtrar(condicional, quantidade);
+	}
+}
@@ -0,0 +1,335 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila de pedidos dividida em N filas independentes (fragmentos), cada uma com seu próprio
+ * bloqueio, para que produtores e consumidores concorrentes não disputem uma única frente de fila.
+ *
+ * Os pedidos são distribuídos pelo identificador (idPedido % N), e cada fragmento mantém a ordem
+ * FIFO. Cada consumidor tem um fragmento preferencial e, quando ele está vazio, "rouba" pedidos
+ * dos demais. As consultas globais intercalam os fragmentos pela ordem de identificador
+ * ({@link Pedido#compareTo(Pedido)}). A intercalação é exata quando cada fragmento está em ordem de
+ * identificador, ou seja, quando os pedidos são enfileirados na ordem em que foram criados; com
+ * produtores concorrentes, pedidos criados quase ao mesmo tempo podem aparecer levemente fora de ordem.
+ *
+ * Como {@link FilaConsultavel}, a frente da fila é o pedido de menor identificador entre as frentes
+ * dos fragmentos; no menu, com pedidos enfileirados um a um, o atendimento é o mesmo da fila FIFO
+ * (ver {@link App#criarFilaPedidos(String)}). Os consumidores concorrentes usam
+ * {@link #tentarDesenfileirar(int)}, que não bloqueia os demais fragmentos.
+ */
+public class FilaPedidosFragmentada implements FilaConsultavel<Pedido> {
+
+	/** Espera de um consumidor quando todos os fragmentos estão vazios */
+	private static final long ESPERA_NANOS = 100_000;
+
+	private final Fila<Pedido>[] fragmentos;
+	private final ReentrantLock[] bloqueios;
+
+	/**
+	 * Cria a fila com a quantidade de fragmentos informada.
+	 *
+	 * @param quantidadeFragmentos Número de filas independentes (mínimo 1).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public FilaPedidosFragmentada(int quantidadeFragmentos) {
+
+		if (quantidadeFragmentos < 1) {
+			throw new IllegalArgumentException("A fila deve ter pelo menos um fragmento!");
+		}
+
+		fragmentos = new Fila[quantidadeFragmentos];
+		bloqueios = new ReentrantLock[quantidadeFragmentos];
+		for (int i = 0; i < quantidadeFragmentos; i++) {
+			fragmentos[i] = new Fila<>();
+			bloqueios[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Insere o pedido no final do seu fragmento.
+	 *
+	 * @param pedido O pedido a ser inserido
+	 */
+	@Override
+	public void enfileirar(Pedido pedido) {
+
+		int fragmento = Math.floorMod(pedido.getIdPedido(), fragmentos.length);
+
+		bloqueios[fragmento].lock();
+		try {
+			fragmentos[fragmento].enfileirar(pedido);
+		} finally {
+			bloqueios[fragmento].unlock();
+		}
+	}
+
+	/**
+	 * Remove o pedido de menor identificador entre as frentes dos fragmentos. Bloqueia todos os
+	 * fragmentos; os consumidores concorrentes devem usar {@link #tentarDesenfileirar(int)}.
+	 *
+	 * @return O pedido removido
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	@Override
+	public Pedido desenfileirar() {
+
+		bloquearTodos();
+		try {
+			return fragmentos[fragmentoDaFrente()].desenfileirar();
+		} finally {
+			desbloquearTodos();
+		}
+	}
+
+	/**
+	 * Consulta o pedido de menor identificador entre as frentes dos fragmentos, sem removê-lo.
+	 *
+	 * @return O pedido da frente da fila
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	@Override
+	public Pedido consultarFrente() {
+
+		bloquearTodos();
+		try {
+			return fragmentos[fragmentoDaFrente()].consultarFrente();
+		} finally {
+			desbloquearTodos();
+		}
+	}
+
+	/** Fragmento cuja frente tem o menor identificador; deve ser chamado com todos bloqueados. */
+	private int fragmentoDaFrente() {
+
+		int menor = -1;
+		for (int i = 0; i < fragmentos.length; i++) {
+			if (!fragmentos[i].vazia() && (menor < 0
+					|| fragmentos[i].consultarFrente().compareTo(fragmentos[menor].consultarFrente()) < 0)) {
+				menor = i;
+			}
+		}
+		if (menor < 0) {
+			throw new NoSuchElementException("Não há nenhum item na fila!");
+		}
+		return menor;
+	}
+
+	/**
+	 * Remove um pedido para o consumidor informado: da frente do seu fragmento preferencial ou,
+	 * se ele estiver vazio, da frente do próximo fragmento com pedidos (roubo de trabalho).
+	 *
+	 * @param consumidor Número do consumidor, que define o fragmento preferencial.
+	 * @return O pedido removido, ou null se todos os fragmentos estiverem vazios.
+	 */
+	public Pedido tentarDesenfileirar(int consumidor) {
+
+		int inicio = Math.floorMod(consumidor, fragmentos.length);
+
+		for (int i = 0; i < fragmentos.length; i++) {
+			int fragmento = (inicio + i) % fragmentos.length;
+			bloqueios[fragmento].lock();
+			try {
+				if (!fragmentos[fragmento].vazia()) {
+					return fragmentos[fragmento].desenfileirar();
+				}
+			} finally {
+				bloqueios[fragmento].unlock();
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Inicia consumidores que retiram pedidos continuamente (com roubo de trabalho) e os
+	 * entregam ao processador, até serem interrompidos.
+	 *
+	 * @param quantidade  Número de threads consumidoras.
+	 * @param processador Ação executada para cada pedido retirado.
+	 * @return As threads iniciadas.
+	 */
+	public Thread[] iniciarConsumidores(int quantidade, Consumer<Pedido> processador) {
+
+		Thread[] consumidores = new Thread[quantidade];
+
+		for (int c = 0; c < quantidade; c++) {
+			final int consumidor = c;
+			consumidores[c] = new Thread(() -> {
+				while (!Thread.currentThread().isInterrupted()) {
+					Pedido pedido = tentarDesenfileirar(consumidor);
+					if (pedido != null) {
+						processador.accept(pedido);
+					} else {
+						LockSupport.parkNanos(ESPERA_NANOS);
+					}
+				}
+			}, "consumidor-pedidos-" + c);
+			consumidores[c].start();
+		}
+
+		return consumidores;
+	}
+
+	/**
+	 * Calcula o valor médio de um atributo dos primeiros pedidos, em ordem de identificador,
+	 * entre todos os fragmentos.
+	 *
+	 * @param extrator   Função que extrai um valor Double de cada pedido
+	 * @param quantidade Número de primeiros pedidos a serem considerados
+	 * @return O valor médio calculado, ou 0.0 se a quantidade for 0 ou a fila estiver vazia
+	 * @throws IllegalArgumentException se a fila não contiver pedidos suficientes
+	 */
+	@Override
+	public double calcularValorMedio(Function<Pedido, Double> extrator, int quantidade) {
+
+		if (quantidade <= 0 || vazia()) {
+			return 0.0;
+		}
+
+		double soma = 0.0;
+		for (Pedido pedido : primeiros(quantidade)) {
+			Double valor = extrator.apply(pedido);
+			if (valor != null) {
+				soma += valor;
+			}
+		}
+
+		return soma / quantidade;
+	}
+
+	/**
+	 * Filtra os primeiros pedidos, em ordem de identificador, entre todos os fragmentos.
+	 *
+	 * @param condicional Predicado que testa se um pedido deve ser incluído
+	 * @param quantidade  Número de primeiros pedidos a serem testados
+	 * @return Uma nova fila, em ordem de identificador, com os pedidos que satisfazem a condição
+	 * @throws IllegalArgumentException se a fila não contiver pedidos suficientes
+	 */
+	@Override
+	public Fila<Pedido> filtrar(Predicate<Pedido> condicional, int quantidade) {
+
+		Fila<Pedido> filaFiltrada = new Fila<>();
+
+		if (quantidade <= 0 || vazia()) {
+			return filaFiltrada;
+		}
+
+		for (Pedido pedido : primeiros(quantidade)) {
+			if (condicional.test(pedido)) {
+				filaFiltrada.enfileirar(pedido);
+			}
+		}
+
+		return filaFiltrada;
+	}
+
+	/**
+	 * Intercala as frentes dos fragmentos (heap com a frente de cada um) e devolve os primeiros
+	 * pedidos em ordem de identificador. Custa O(quantidade log N). Todos os fragmentos ficam
+	 * bloqueados durante a intercalação, para uma visão consistente.
+	 */
+	private Fila<Pedido> primeiros(int quantidade) {
+
+		Fila<Pedido> primeiros = new Fila<>();
+		bloquearTodos();
+		try {
+			int total = 0;
+			for (Fila<Pedido> fragmento : fragmentos) {
+				total += fragmento.tamanho();
+			}
+			if (total < quantidade) {
+				throw new IllegalArgumentException(
+						"A fila não contém " + quantidade + " elementos! Existem apenas " + total + " elementos.");
+			}
+
+			PriorityQueue<Frente> frentes = new PriorityQueue<>(fragmentos.length);
+			for (Fila<Pedido> fragmento : fragmentos) {
+				Iterator<Pedido> iterador = fragmento.iterator();
+				if (iterador.hasNext()) {
+					frentes.add(new Frente(iterador));
+				}
+			}
+
+			for (int i = 0; i < quantidade; i++) {
+				Frente menor = frentes.poll();
+				primeiros.enfileirar(menor.pedido);
+				if (menor.avancar()) {
+					frentes.add(menor);
+				}
+			}
+		} finally {
+			desbloquearTodos();
+		}
+
+		return primeiros;
+	}
+
+	/** @return true se todos os fragmentos estiverem vazios */
+	@Override
+	public boolean vazia() {
+		return tamanho() == 0;
+	}
+
+	/** @return Quantidade total de pedidos, somando todos os fragmentos */
+	@Override
+	public int tamanho() {
+		int total = 0;
+		for (int i = 0; i < fragmentos.length; i++) {
+			bloqueios[i].lock();
+			try {
+				total += fragmentos[i].tamanho();
+			} finally {
+				bloqueios[i].unlock();
+			}
+		}
+		return total;
+	}
+
+	public int getQuantidadeFragmentos() {
+		return fragmentos.length;
+	}
+
+	/** Bloqueia todos os fragmentos, sempre na mesma ordem, para evitar impasses. */
+	private void bloquearTodos() {
+		for (ReentrantLock bloqueio : bloqueios) {
+			bloqueio.lock();
+		}
+	}
+
+	private void desbloquearTodos() {
+		for (int i = bloqueios.length - 1; i >= 0; i--) {
+			bloqueios[i].unlock();
+		}
+	}
+
+	/** Pedido da frente de um fragmento durante a intercalação. */
+	private static class Frente implements Comparable<Frente> {
+
+		private final Iterator<Pedido> iterador;
+		private Pedido pedido;
+
+		Frente(Iterator<Pedido> iterador) {
+			this.iterador = iterador;
+			this.pedido = iterador.next();
+		}
+
+		boolean avancar() {
+			if (!iterador.hasNext()) {
+				return false;
+			}
+			pedido = iterador.next();
+			return true;
+		}
+
+		@Override
+		public int compareTo(Frente outra) {
+			return pedido.compareTo(outra.pedido);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila de pedidos que, a cada pedido enfileirado, o registra pelo número em um
+ * {@link MapaOrdenado}, para as consultas por faixa de números. Como em
+ * {@link FilaPedidosResumida}, encapsula qualquer outra fila de pedidos, à qual delega todas as
+ * operações, e o índice acumula todos os pedidos enfileirados (finalizados na CLI ou
+ * importados): desenfileirar um pedido não o retira do índice.
+ */
+public class FilaPedidosIndexada implements FilaConsultavel<Pedido> {
+
+	private final FilaConsultavel<Pedido> fila;
+	private final MapaOrdenado<Integer, Pedido> porNumero;
+
+	/**
+	 * @param fila      Fila de pedidos encapsulada
+	 * @param porNumero Índice que recebe os pedidos enfileirados, pelo número do pedido
+	 */
+	public FilaPedidosIndexada(FilaConsultavel<Pedido> fila, MapaOrdenado<Integer, Pedido> porNumero) {
+		this.fila = fila;
+		this.porNumero = porNumero;
+	}
+
+	public boolean vazia() {
+		return fila.vazia();
+	}
+
+	public int tamanho() {
+		return fila.tamanho();
+	}
+
+	public void enfileirar(Pedido pedido) {
+		fila.enfileirar(pedido);
+		porNumero.inserir(pedido.getIdPedido(), pedido);
+	}
+
+	public void concatenar(Fila<Pedido> outra) {
+		for (Pedido pedido : outra) {
+			porNumero.inserir(pedido.getIdPedido(), pedido);
+		}
+		fila.concatenar(outra);
+	}
+
+	public Pedido desenfileirar() {
+		return fila.desenfileirar();
+	}
+
+	public Pedido consultarFrente() {
+		return fila.consultarFrente();
+	}
+
+	public double calcularValorMedio(Function<Pedido, Double> extrator, int quantidade) {
+		return fila.calcularValorMedio(extrator, quantidade);
+	}
+
+	public Fila<Pedido> filtrar(Predicate<Pedido> condicional, int quantidade) {
+		return fila.filtrar(condicional, quantidade);
+	}
+
+	public MapaOrdenado<Integer, Pedido> getPorNumero() {
+		return porNumero;
+	}
+}
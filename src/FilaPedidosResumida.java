@@ -0,0 +1,63 @@
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila de pedidos que, a cada pedido enfileirado, o registra em um {@link ResumoPorDia}.
+ * Encapsula qualquer outra fila de pedidos ({@link Fila}, {@link FilaPrioridade}...), à qual
+ * delega todas as operações. O resumo acumula todos os pedidos enfileirados: desenfileirar um
+ * pedido não o retira do resumo.
+ */
+public class FilaPedidosResumida implements FilaConsultavel<Pedido> {
+
+	private final FilaConsultavel<Pedido> fila;
+	private final ResumoPorDia resumo;
+
+	/**
+	 * @param fila   Fila de pedidos encapsulada
+	 * @param resumo Resumo que recebe os pedidos enfileirados
+	 */
+	public FilaPedidosResumida(FilaConsultavel<Pedido> fila, ResumoPorDia resumo) {
+		this.fila = fila;
+		this.resumo = resumo;
+	}
+
+	public boolean vazia() {
+		return fila.vazia();
+	}
+
+	public int tamanho() {
+		return fila.tamanho();
+	}
+
+	public void enfileirar(Pedido pedido) {
+		fila.enfileirar(pedido);
+		resumo.registrar(pedido);
+	}
+
+	public void concatenar(Fila<Pedido> outra) {
+		for (Pedido pedido : outra) {
+			resumo.registrar(pedido);
+		}
+		fila.concatenar(outra);
+	}
+
+	public Pedido desenfileirar() {
+		return fila.desenfileirar();
+	}
+
+	public Pedido consultarFrente() {
+		return fila.consultarFrente();
+	}
+
+	public double calcularValorMedio(Function<Pedido, Double> extrator, int quantidade) {
+		return fila.calcularValorMedio(extrator, quantidade);
+	}
+
+	public Fila<Pedido> filtrar(Predicate<Pedido> condicional, int quantidade) {
+		return fila.filtrar(condicional, quantidade);
+	}
+
+	public ResumoPorDia getResumo() {
+		return resumo;
+	}
+}
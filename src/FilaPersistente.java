@@ -0,0 +1,177 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Fila persistente (imutável), no formato "banker's queue": duas {@link PilhaPersistente}, a
+ * frente, com os elementos mais antigos (o próximo a sair no topo), e o fundo, com os mais
+ * recentes (o último a entrar no topo). Enfileirar empilha no fundo; desenfileirar desempilha da
+ * frente. Quando o fundo passa a ter mais elementos que a frente, ele é invertido e colocado sob
+ * a frente, o que custa O(n) mas ocorre a cada n operações: O(1) amortizado por operação.
+ *
+ * Como em {@link PilhaPersistente}, as operações devolvem uma nova fila e não alteram a
+ * original; versões antigas continuam válidas e compartilham as células com as novas. O custo
+ * amortizado vale para o uso em sequência (cada operação sobre o resultado da anterior); repetir
+ * operações sobre uma mesma versão antiga pode repetir a inversão.
+ *
+ * Com a frente sempre pelo menos do tamanho do fundo, os primeiros elementos são lidos
+ * diretamente nas células da frente: consultar os N primeiros custa O(N) se N não passar da
+ * metade da fila.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public final class FilaPersistente<E> implements Iterable<E> {
+
+	private final PilhaPersistente<E> frente;
+	private final PilhaPersistente<E> fundo;
+
+	/**
+	 * Cria a fila vazia.
+	 */
+	public FilaPersistente() {
+		this(new PilhaPersistente<>(), new PilhaPersistente<>());
+	}
+
+	private FilaPersistente(PilhaPersistente<E> frente, PilhaPersistente<E> fundo) {
+
+		if (fundo.tamanho() > frente.tamanho()) {
+			frente = frente.sobre(fundo.invertida());
+			fundo = new PilhaPersistente<>();
+		}
+		this.frente = frente;
+		this.fundo = fundo;
+	}
+
+	public boolean vazia() {
+		return frente.vazia();
+	}
+
+	public int tamanho() {
+		return frente.tamanho() + fundo.tamanho();
+	}
+
+	/**
+	 * @param item O elemento a ser inserido no final da fila
+	 * @return Uma nova fila com o item no final
+	 */
+	public FilaPersistente<E> enfileirar(E item) {
+		return new FilaPersistente<>(frente, fundo.empilhar(item));
+	}
+
+	/**
+	 * @return Uma nova fila, sem o elemento da frente
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	public FilaPersistente<E> desenfileirar() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Não há nenhum item na fila!");
+		}
+		return new FilaPersistente<>(frente.desempilhar(), fundo);
+	}
+
+	/**
+	 * @return O elemento da frente da fila
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	public E consultarFrente() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Não há nenhum item na fila!");
+		}
+		return frente.consultarTopo();
+	}
+
+	/**
+	 * Calcula o valor médio de um atributo dos primeiros elementos da fila, como
+	 * {@link Fila#calcularValorMedio(Function, int)}.
+	 *
+	 * @param extrator   Função que extrai um valor Double de cada elemento
+	 * @param quantidade Número de primeiros elementos a serem considerados
+	 * @return O valor médio calculado, ou 0.0 se a quantidade for 0 ou a fila estiver vazia
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+
+		if (quantidade <= 0 || vazia()) {
+			return 0.0;
+		}
+		exigirElementos(quantidade);
+
+		double soma = 0.0;
+		Iterator<E> elementos = iterator();
+		for (int i = 0; i < quantidade; i++) {
+			Double valor = extrator.apply(elementos.next());
+			if (valor != null) {
+				soma += valor;
+			}
+		}
+		return soma / quantidade;
+	}
+
+	/**
+	 * Filtra os primeiros elementos da fila, como {@link Fila#filtrar(Predicate, int)}.
+	 *
+	 * @param condicional Predicado que testa se um elemento deve ser incluído
+	 * @param quantidade  Número de primeiros elementos a serem testados
+	 * @return Uma nova {@link Fila}, na ordem de atendimento, com os elementos que satisfazem a
+	 *         condição
+	 * @throws IllegalArgumentException se a fila não contiver elementos suficientes
+	 */
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+
+		Fila<E> filaFiltrada = new Fila<>();
+		if (quantidade <= 0 || vazia()) {
+			return filaFiltrada;
+		}
+		exigirElementos(quantidade);
+
+		Iterator<E> elementos = iterator();
+		for (int i = 0; i < quantidade; i++) {
+			E elemento = elementos.next();
+			if (condicional.test(elemento)) {
+				filaFiltrada.enfileirar(elemento);
+			}
+		}
+		return filaFiltrada;
+	}
+
+	private void exigirElementos(int quantidade) {
+
+		if (tamanho() < quantidade) {
+			throw new IllegalArgumentException(
+					"A fila não contém " + quantidade + " elementos! Existem apenas " + tamanho() + " elementos.");
+		}
+	}
+
+	/**
+	 * Percorre os elementos da frente para o final. O fundo só é invertido (em uma cópia) se a
+	 * iteração passar dos elementos da frente.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Iterator<E> atual = frente.iterator();
+			private boolean noFundo;
+
+			@Override
+			public boolean hasNext() {
+				if (!atual.hasNext() && !noFundo) {
+					atual = fundo.invertida().iterator();
+					noFundo = true;
+				}
+				return atual.hasNext();
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException("Não há mais itens na fila!");
+				}
+				return atual.next();
+			}
+		};
+	}
+}
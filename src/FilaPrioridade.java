@@ -0,0 +1,316 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fila de prioridade implementada com um heap binário em vetor. A frente da fila é sempre o
+ * menor elemento segundo o comparador informado (por exemplo, o pedido de maior valor ou o mais
+ * antigo). Inserção, remoção e atualização de prioridade custam O(log n).
+ *
+ * Cada elemento tem sua posição no heap registrada (por identidade), o que permite reposicionar
+ * um elemento cuja prioridade mudou com {@link #atualizar(Object)}.
+ *
+ * Opcionalmente, a prioridade é uma chave numérica calculada uma única vez, ao enfileirar ou
+ * atualizar o elemento, e guardada ao lado dele no heap; o comparador só desempata chaves
+ * iguais. Assim, prioridades que dependem do dia (como o valor final de um pedido com
+ * perecíveis) não mudam sozinhas com a data, e um cálculo que lança exceção falha antes de o heap
+ * ser alterado.
+ *
+ * @param <E> Tipo dos elementos armazenados na fila
+ */
+public class FilaPrioridade<E> implements FilaConsultavel<E> {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private final ToLongFunction<? super E> chave;
+	private final Comparator<? super E> comparador;
+	private final Map<E, Integer> posicoes;
+	private Object[] heap;
+	private long[] chaves;
+	private int quantidade;
+
+	/**
+	 * Cria a fila vazia.
+	 *
+	 * @param comparador Ordem de atendimento: elementos menores saem primeiro.
+	 */
+	public FilaPrioridade(Comparator<? super E> comparador) {
+		this(item -> 0L, comparador);
+	}
+
+	/**
+	 * Cria a fila vazia, ordenada por uma chave calculada ao enfileirar ou atualizar cada
+	 * elemento.
+	 *
+	 * @param chave      Prioridade de cada elemento: chaves menores saem primeiro.
+	 * @param desempate  Ordem entre elementos de mesma chave.
+	 */
+	public FilaPrioridade(ToLongFunction<? super E> chave, Comparator<? super E> desempate) {
+		this.chave = chave;
+		this.comparador = desempate;
+		this.posicoes = new IdentityHashMap<>();
+		this.heap = new Object[CAPACIDADE_INICIAL];
+		this.chaves = new long[CAPACIDADE_INICIAL];
+	}
+
+	/**
+	 * @return Fila de pedidos de maior valor final (em centavos, calculado ao enfileirar)
+	 *         primeiro; empates pelo identificador.
+	 */
+	public static FilaPrioridade<Pedido> porMaiorValor() {
+		return new FilaPrioridade<>(pedido -> -Math.round(App.valorFinal(pedido) * 100), Comparator.naturalOrder());
+	}
+
+	/** @return Fila de pedidos mais antigos (data do pedido) primeiro; empates pelo identificador. */
+	public static FilaPrioridade<Pedido> porMaisAntigo() {
+		return new FilaPrioridade<>(pedido -> pedido.getDataPedido().toEpochDay(), Comparator.naturalOrder());
+	}
+
+	@Override
+	public boolean vazia() {
+		return quantidade == 0;
+	}
+
+	@Override
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/**
+	 * Insere um elemento na fila, na posição correspondente à sua prioridade.
+	 *
+	 * @param item O elemento a ser inserido
+	 * @throws IllegalArgumentException se o elemento já estiver na fila
+	 */
+	@Override
+	public void enfileirar(E item) {
+
+		if (posicoes.containsKey(item)) {
+			throw new IllegalArgumentException("O item já está na fila!");
+		}
+		long prioridade = chave.applyAsLong(item);
+		if (quantidade == heap.length) {
+			heap = Arrays.copyOf(heap, quantidade * 2);
+			chaves = Arrays.copyOf(chaves, quantidade * 2);
+		}
+
+		heap[quantidade] = item;
+		chaves[quantidade] = prioridade;
+		posicoes.put(item, quantidade);
+		subir(quantidade++);
+	}
+
+	/**
+	 * Remove e retorna o elemento de maior prioridade.
+	 *
+	 * @return O elemento removido
+	 * @throws NoSuchElementException se a fila estiver vazia
+	 */
+	@Override
+	public E desenfileirar() {
+
+		E primeiro = consultarFrente();
+		removerPosicao(0);
+		return primeiro;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E consultarFrente() {
+		if (vazia()) {
+			throw new NoSuchElementException("Não há nenhum item na fila!");
+		}
+		return (E) heap[0];
+	}
+
+	/**
+	 * Reposiciona um elemento cuja prioridade foi alterada (aumentada ou diminuída), recalculando
+	 * a sua chave.
+	 *
+	 * @param item Elemento presente na fila
+	 * @throws NoSuchElementException se o elemento não estiver na fila
+	 */
+	public void atualizar(E item) {
+
+		Integer posicao = posicoes.get(item);
+		if (posicao == null) {
+			throw new NoSuchElementException("O item não está na fila!");
+		}
+		chaves[posicao] = chave.applyAsLong(item);
+		descer(subir(posicao));
+	}
+
+	/**
+	 * Remove um elemento qualquer da fila.
+	 *
+	 * @param item Elemento a ser removido
+	 * @return true se o elemento estava na fila
+	 */
+	public boolean remover(E item) {
+
+		Integer posicao = posicoes.get(item);
+		if (posicao == null) {
+			return false;
+		}
+		removerPosicao(posicao);
+		return true;
+	}
+
+	/**
+	 * Calcula o valor médio de um atributo dos primeiros elementos, em ordem de prioridade.
+	 * Custa O(quantidade log quantidade), sem alterar a fila.
+	 */
+	@Override
+	public double calcularValorMedio(Function<E, Double> extrator, int quantidade) {
+
+		if (quantidade <= 0 || vazia()) {
+			return 0.0;
+		}
+
+		double soma = 0.0;
+		for (E elemento : primeiros(quantidade)) {
+			Double valor = extrator.apply(elemento);
+			if (valor != null) {
+				soma += valor;
+			}
+		}
+		return soma / quantidade;
+	}
+
+	/**
+	 * Filtra os primeiros elementos, em ordem de prioridade. Custa O(quantidade log quantidade),
+	 * sem alterar a fila.
+	 */
+	@Override
+	public Fila<E> filtrar(Predicate<E> condicional, int quantidade) {
+
+		Fila<E> filaFiltrada = new Fila<>();
+
+		if (quantidade <= 0 || vazia()) {
+			return filaFiltrada;
+		}
+
+		for (E elemento : primeiros(quantidade)) {
+			if (condicional.test(elemento)) {
+				filaFiltrada.enfileirar(elemento);
+			}
+		}
+		return filaFiltrada;
+	}
+
+	/**
+	 * Percorre o heap a partir da raiz com um heap auxiliar de posições: o próximo elemento em
+	 * ordem é sempre a menor posição ainda não visitada cujo pai já foi visitado.
+	 */
+	@SuppressWarnings("unchecked")
+	private Fila<E> primeiros(int quantidade) {
+
+		if (this.quantidade < quantidade) {
+			throw new IllegalArgumentException("A fila não contém " + quantidade + " elementos! Existem apenas "
+					+ this.quantidade + " elementos.");
+		}
+
+		Fila<E> primeiros = new Fila<>();
+		PriorityQueue<Integer> candidatas = new PriorityQueue<>(this::comparar);
+
+		candidatas.add(0);
+		for (int i = 0; i < quantidade; i++) {
+			int posicao = candidatas.poll();
+			primeiros.enfileirar((E) heap[posicao]);
+			if (2 * posicao + 1 < this.quantidade) {
+				candidatas.add(2 * posicao + 1);
+			}
+			if (2 * posicao + 2 < this.quantidade) {
+				candidatas.add(2 * posicao + 2);
+			}
+		}
+		return primeiros;
+	}
+
+	private void removerPosicao(int posicao) {
+
+		posicoes.remove(heap[posicao]);
+		int ultima = --quantidade;
+
+		if (posicao != ultima) {
+			heap[posicao] = heap[ultima];
+			chaves[posicao] = chaves[ultima];
+			posicoes.put(elemento(posicao), posicao);
+			heap[ultima] = null;
+			descer(subir(posicao));
+		} else {
+			heap[ultima] = null;
+		}
+	}
+
+	/** Sobe o elemento enquanto for menor que o pai. @return A posição final. */
+	private int subir(int posicao) {
+
+		E item = elemento(posicao);
+		long prioridade = chaves[posicao];
+		while (posicao > 0) {
+			int pai = (posicao - 1) / 2;
+			if (comparar(prioridade, item, pai) >= 0) {
+				break;
+			}
+			mover(pai, posicao);
+			posicao = pai;
+		}
+		colocar(item, prioridade, posicao);
+		return posicao;
+	}
+
+	/** Desce o elemento enquanto for maior que o menor dos filhos. @return A posição final. */
+	private int descer(int posicao) {
+
+		E item = elemento(posicao);
+		long prioridade = chaves[posicao];
+		while (2 * posicao + 1 < quantidade) {
+			int filho = 2 * posicao + 1;
+			if (filho + 1 < quantidade && comparar(filho + 1, filho) < 0) {
+				filho++;
+			}
+			if (comparar(prioridade, item, filho) <= 0) {
+				break;
+			}
+			mover(filho, posicao);
+			posicao = filho;
+		}
+		colocar(item, prioridade, posicao);
+		return posicao;
+	}
+
+	/** Compara os elementos de duas posições do heap: pela chave e, em caso de empate, pelo comparador. */
+	private int comparar(int a, int b) {
+		return comparar(chaves[a], elemento(a), b);
+	}
+
+	/** Compara um elemento (e sua chave) com o elemento de uma posição do heap. */
+	private int comparar(long prioridade, E item, int posicao) {
+		int resultado = Long.compare(prioridade, chaves[posicao]);
+		return resultado != 0 ? resultado : comparador.compare(item, elemento(posicao));
+	}
+
+	private void mover(int origem, int destino) {
+		heap[destino] = heap[origem];
+		chaves[destino] = chaves[origem];
+		posicoes.put(elemento(destino), destino);
+	}
+
+	private void colocar(E item, long prioridade, int posicao) {
+		heap[posicao] = item;
+		chaves[posicao] = prioridade;
+		posicoes.put(item, posicao);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elemento(int posicao) {
+		return (E) heap[posicao];
+	}
+}
@@ -0,0 +1,168 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de carga para o {@link ServidorPedidos}.
+ * Sobe um servidor local com o catálogo informado, dispara requisições a partir de várias
+ * threads clientes durante um tempo fixo e mede a vazão (requisições/s) e as latências
+ * (média, p50, p99 e máxima).
+ *
+ * Uso: java GeradorCargaServidor arquivoProdutos [clientes] [segundos] [percentualConsultas]
+ */
+public class GeradorCargaServidor {
+
+	public static void main(String[] args) throws Exception {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java GeradorCargaServidor arquivoProdutos [clientes] [segundos] [percentualConsultas]");
+			return;
+		}
+
+		int clientes = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		int percentualConsultas = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+		App.catalogo = new CatalogoProdutos(App.lerProdutos(args[0]));
+		ServidorPedidos.ligarNoDelay();
+		ServidorPedidos servidor = new ServidorPedidos(0, new FilaInstantanea<>());
+		servidor.iniciar();
+
+		try {
+			executar("http://localhost:" + servidor.getPorta(), clientes, segundos, percentualConsultas);
+		} finally {
+			servidor.parar();
+		}
+	}
+
+	/**
+	 * Executa a carga contra o servidor informado e imprime o relatório.
+	 *
+	 * @param base                Endereço base do servidor (ex.: http://localhost:8080).
+	 * @param clientes            Número de threads clientes simultâneas.
+	 * @param segundos            Duração da medição.
+	 * @param percentualConsultas Percentual de requisições de consulta; o restante cria pedidos.
+	 */
+	static void executar(String base, int clientes, int segundos, int percentualConsultas) throws InterruptedException {
+
+		HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		long[][] latencias = new long[clientes][];
+		int[] quantidades = new int[clientes];
+		int[] erros = new int[clientes];
+		Thread[] threads = new Thread[clientes];
+
+		// Garante pedidos suficientes para as consultas desde o início
+		for (int i = 0; i < 10; i++) {
+			requisitar(cliente, criarPedido(base));
+		}
+
+		long inicio = System.nanoTime();
+		long fim = inicio + segundos * 1_000_000_000L;
+		for (int t = 0; t < clientes; t++) {
+			final int indice = t;
+			threads[t] = new Thread(() -> {
+				long[] medidas = new long[1 << 16];
+				int n = 0;
+				ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+
+				while (System.nanoTime() < fim) {
+					HttpRequest requisicao = aleatorio.nextInt(100) < percentualConsultas
+							? consultar(base, aleatorio.nextInt(4))
+							: criarPedido(base);
+					long antes = System.nanoTime();
+					if (!requisitar(cliente, requisicao)) {
+						erros[indice]++;
+					}
+					if (n == medidas.length) {
+						medidas = Arrays.copyOf(medidas, n * 2);
+					}
+					medidas[n++] = System.nanoTime() - antes;
+				}
+				latencias[indice] = medidas;
+				quantidades[indice] = n;
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		double decorrido = (System.nanoTime() - inicio) / 1e9;
+
+		int total = 0, totalErros = 0;
+		for (int t = 0; t < clientes; t++) {
+			total += quantidades[t];
+			totalErros += erros[t];
+		}
+		long[] todas = new long[total];
+		int posicao = 0;
+		for (int t = 0; t < clientes; t++) {
+			System.arraycopy(latencias[t], 0, todas, posicao, quantidades[t]);
+			posicao += quantidades[t];
+		}
+		Arrays.sort(todas);
+
+		long soma = 0;
+		for (long latencia : todas) {
+			soma += latencia;
+		}
+
+		System.out.println("=== CARGA NO SERVIDOR DE PEDIDOS ===");
+		System.out.println("Clientes: " + clientes + " | Duração: " + String.format("%.1f s", decorrido));
+		System.out.println("Requisições: " + total + " | Erros: " + totalErros);
+		System.out.println(String.format("Vazão: %.0f req/s", total / decorrido));
+		if (total > 0) {
+			System.out.println(String.format("Latência média: %.3f ms", soma / (double) total / 1e6));
+			System.out.println(String.format("Latência p50: %.3f ms", percentil(todas, 0.50) / 1e6));
+			System.out.println(String.format("Latência p99: %.3f ms", percentil(todas, 0.99) / 1e6));
+			System.out.println(String.format("Latência máxima: %.3f ms", todas[total - 1] / 1e6));
+		}
+	}
+
+	private static long percentil(long[] ordenadas, double fracao) {
+		int indice = (int) Math.ceil(fracao * ordenadas.length) - 1;
+		return ordenadas[Math.max(0, indice)];
+	}
+
+	private static boolean requisitar(HttpClient cliente, HttpRequest requisicao) {
+		try {
+			return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	/** Monta um pedido aleatório com 1 a 5 produtos, identificados pelo código. */
+	private static HttpRequest criarPedido(String base) {
+
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		StringBuilder corpo = new StringBuilder();
+		int numProdutos = 1 + aleatorio.nextInt(5);
+		CatalogoProdutos catalogo = App.catalogo;
+
+		corpo.append(1 + aleatorio.nextInt(2)).append('\n');
+		for (int i = 0; i < numProdutos; i++) {
+			Produto produto = catalogo.getProdutos()[aleatorio.nextInt(catalogo.getQuantidade())];
+			corpo.append(produto.hashCode()).append('\n');
+		}
+
+		return HttpRequest.newBuilder(URI.create(base + "/pedidos"))
+				.POST(HttpRequest.BodyPublishers.ofString(corpo.toString()))
+				.build();
+	}
+
+	/** Monta uma das consultas das opções 6 a 9 do menu sobre os 10 primeiros pedidos. */
+	private static HttpRequest consultar(String base, int tipo) {
+
+		String caminho = switch (tipo) {
+			case 0 -> "/pedidos/produtos?n=10";
+			case 1 -> "/pedidos/media?n=10";
+			case 2 -> "/pedidos/acima?n=10&valor=20";
+			default -> "/pedidos/com-produto?n=10&produto=" + App.catalogo.getProdutos()[0].hashCode();
+		};
+
+		return HttpRequest.newBuilder(URI.create(base + caminho)).GET().build();
+	}
+}
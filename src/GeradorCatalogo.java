@@ -0,0 +1,152 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Gera arquivos sintéticos de produtos, no formato lido por {@link App#lerProdutos(String)}, de
+ * qualquer tamanho, para testes de carga.
+ *
+ * Parâmetros:
+ * <ul>
+ * <li>fração de perecíveis (tipo 2), com validade espalhada uniformemente entre hoje e o número
+ * de dias informado (padrão: 30% e 60 dias);</li>
+ * <li>quantidade de descrições distintas (padrão: uma por produto). Com menos descrições que
+ * produtos, as descrições se repetem, como em catálogos com o mesmo item em vários fornecedores;
+ * o {@link RecarregadorCatalogo} não aceita esses arquivos, pois identifica os produtos pela
+ * descrição;</li>
+ * <li>fração de linhas inválidas (padrão: nenhuma), com defeitos variados, para exercitar o
+ * {@link ValidadorCatalogo}.</li>
+ * </ul>
+ * As descrições combinam itens e cores de papelaria, como as de produtos.txt, com um número ao
+ * final quando as combinações se esgotam.
+ *
+ * Uso: java GeradorCatalogo arquivoSaida quantidade [fracaoPereciveis] [diasValidade]
+ * [descricoesDistintas] [fracaoInvalidas] [semente]
+ */
+public class GeradorCatalogo {
+
+	private static final String[] ITENS = { "Caneta", "Lapis", "Papel", "Pasta", "Fita adesiva", "Etiqueta",
+			"Cola bastao", "Bloco de notas", "Caderno", "Borracha", "Tesoura", "Regua", "Grampeador", "Clipe",
+			"Envelope", "Cartolina", "Marcador", "Apontador", "Calculadora", "Compasso" };
+
+	private static final String[] CORES = { "Azul", "Vermelho", "Verde", "Amarelo", "Preto", "Branco", "Roxo",
+			"Laranja", "Rosa", "Cinza", "Marrom", "Turquesa", "Verde oliva", "Azul marinho", "Vermelho escuro",
+			"Verde agua", "Lilas", "Bege", "Dourado", "Prata" };
+
+	private GeradorCatalogo() {
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 2) {
+			System.out.println("Uso: java GeradorCatalogo arquivoSaida quantidade [fracaoPereciveis] [diasValidade] "
+					+ "[descricoesDistintas] [fracaoInvalidas] [semente]");
+			return;
+		}
+
+		int quantidade = Integer.parseInt(args[1]);
+		double fracaoPereciveis = args.length > 2 ? Double.parseDouble(args[2]) : 0.3;
+		int diasValidade = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+		int descricoes = args.length > 4 ? Integer.parseInt(args[4]) : quantidade;
+		double fracaoInvalidas = args.length > 5 ? Double.parseDouble(args[5]) : 0.0;
+		long semente = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+
+		long inicio = System.nanoTime();
+		gerar(args[0], quantidade, fracaoPereciveis, diasValidade, descricoes, fracaoInvalidas, new Random(semente));
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		System.out.println(String.format("%d produtos gerados em %s (%.2f s)", quantidade, args[0], segundos));
+	}
+
+	/**
+	 * Escreve o arquivo de produtos sintéticos.
+	 *
+	 * @param nomeArquivo      Arquivo de saída.
+	 * @param quantidade       Número de produtos.
+	 * @param fracaoPereciveis Fração (0 a 1) de produtos perecíveis.
+	 * @param diasValidade     A validade dos perecíveis fica entre hoje e hoje + diasValidade.
+	 * @param descricoes       Quantidade de descrições distintas (mínimo 1).
+	 * @param fracaoInvalidas  Fração (0 a 1) de linhas com defeito.
+	 * @param aleatorio        Gerador de números aleatórios.
+	 */
+	static void gerar(String nomeArquivo, int quantidade, double fracaoPereciveis, int diasValidade, int descricoes,
+			double fracaoInvalidas, Random aleatorio) throws IOException {
+
+		if (descricoes < 1) {
+			throw new IllegalArgumentException("Deve haver pelo menos uma descrição!");
+		}
+
+		LocalDate hoje = LocalDate.now();
+		String[] datas = new String[diasValidade + 1];
+		for (int d = 0; d <= diasValidade; d++) {
+			datas[d] = Produto.FORMATO_DATA.format(hoje.plusDays(d));
+		}
+
+		try (BufferedWriter saida = Files.newBufferedWriter(Paths.get(nomeArquivo), StandardCharsets.UTF_8)) {
+			StringBuilder linha = new StringBuilder(128);
+			saida.write(Integer.toString(quantidade));
+			saida.newLine();
+
+			for (int i = 0; i < quantidade; i++) {
+				boolean perecivel = aleatorio.nextDouble() < fracaoPereciveis;
+				int descricao = descricoes >= quantidade ? i : aleatorio.nextInt(descricoes);
+
+				linha.setLength(0);
+				linha.append(perecivel ? '2' : '1').append(';');
+				descrever(linha, descricao);
+				linha.append(';');
+				centavos(linha, 50 + aleatorio.nextInt(9951));
+				linha.append(';');
+				centavos(linha, 10 + aleatorio.nextInt(71));
+				if (perecivel) {
+					linha.append(';').append(datas[aleatorio.nextInt(datas.length)]);
+				}
+
+				if (aleatorio.nextDouble() < fracaoInvalidas) {
+					corromper(linha, aleatorio, hoje);
+				}
+				saida.write(linha.toString());
+				saida.newLine();
+			}
+		}
+	}
+
+	/** Acrescenta a descrição de número n: item, cor e, depois de esgotadas as combinações, um número. */
+	private static void descrever(StringBuilder linha, int n) {
+
+		int combinacoes = ITENS.length * CORES.length;
+		linha.append(ITENS[n % ITENS.length]).append(' ').append(CORES[(n / ITENS.length) % CORES.length]);
+		if (n >= combinacoes) {
+			linha.append(' ').append(n / combinacoes + 1);
+		}
+	}
+
+	/** Acrescenta um valor em centavos no formato do arquivo (ponto decimal, duas casas). */
+	private static void centavos(StringBuilder linha, int centavos) {
+		linha.append(centavos / 100).append('.').append((char) ('0' + centavos / 10 % 10)).append((char) ('0' + centavos % 10));
+	}
+
+	/** Substitui a linha por uma versão com um dos defeitos rejeitados pelo {@link ValidadorCatalogo}. */
+	private static void corromper(StringBuilder linha, Random aleatorio, LocalDate hoje) {
+
+		String[] campos = linha.toString().split(";");
+		switch (aleatorio.nextInt(6)) {
+			case 0 -> campos[0] = "3";
+			case 1 -> campos[1] = campos[1].substring(0, 2);
+			case 2 -> campos[2] = "-" + campos[2];
+			case 3 -> campos[3] = "abc";
+			case 4 -> {
+				campos[0] = "2";
+				campos = new String[] { campos[0], campos[1], campos[2], campos[3],
+						Produto.FORMATO_DATA.format(hoje.minusDays(1 + aleatorio.nextInt(30))) };
+			}
+			default -> campos = new String[] { campos[0], campos[1], campos[2] };
+		}
+		linha.setLength(0);
+		linha.append(String.join(";", campos));
+	}
+}
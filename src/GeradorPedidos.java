@@ -0,0 +1,88 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Gera arquivos sintéticos de pedidos, no formato lido por {@link ImportadorPedidos},
+ * a partir de um catálogo de produtos (produtos.txt).
+ *
+ * Os pedidos imitam o uso real: cerca de metade à vista, datas espalhadas pelos últimos dias,
+ * poucos produtos por pedido (em geral 1 a 3, no máximo 10) e produtos populares
+ * (início do catálogo) escolhidos com mais frequência. Os produtos são referenciados ora pelo
+ * código, ora pela descrição.
+ *
+ * Uso: java GeradorPedidos arquivoProdutos arquivoSaida quantidade [dias] [semente]
+ */
+public class GeradorPedidos {
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 3) {
+			System.out.println("Uso: java GeradorPedidos arquivoProdutos arquivoSaida quantidade [dias] [semente]");
+			return;
+		}
+
+		Produto[] produtos = App.lerProdutos(args[0]);
+		int quantidade = Integer.parseInt(args[2]);
+		int dias = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+		long semente = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+		long inicio = System.nanoTime();
+		gerar(produtos, produtos.length, args[1], quantidade, dias, new Random(semente));
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		System.out.println(String.format("%d pedidos gerados em %s (%.2f s)", quantidade, args[1], segundos));
+	}
+
+	/**
+	 * Escreve o arquivo de pedidos sintéticos.
+	 *
+	 * @param produtos        Catálogo de produtos.
+	 * @param quantosProdutos Quantidade de produtos válidos no catálogo.
+	 * @param nomeArquivo     Arquivo de saída.
+	 * @param quantidade      Número de pedidos a gerar.
+	 * @param dias            Os pedidos são datados entre hoje e (dias - 1) dias atrás.
+	 * @param aleatorio       Gerador de números aleatórios.
+	 */
+	static void gerar(Produto[] produtos, int quantosProdutos, String nomeArquivo, int quantidade, int dias,
+			Random aleatorio) throws IOException {
+
+		LocalDate hoje = LocalDate.now();
+		String[] datas = new String[dias];
+		for (int d = 0; d < dias; d++) {
+			LocalDate data = hoje.minusDays(d);
+			datas[d] = String.format("%02d/%02d/%04d", data.getDayOfMonth(), data.getMonthValue(), data.getYear());
+		}
+
+		try (BufferedWriter saida = Files.newBufferedWriter(Paths.get(nomeArquivo), StandardCharsets.UTF_8)) {
+			StringBuilder linha = new StringBuilder(256);
+
+			for (int i = 0; i < quantidade; i++) {
+				linha.setLength(0);
+				linha.append(aleatorio.nextInt(100) < 50 ? '1' : '2').append(';')
+						.append(datas[aleatorio.nextInt(dias)]).append(';');
+
+				int numProdutos = Math.min(Pedido.MAX_PRODUTOS, 1 + (int) (-Math.log(1 - aleatorio.nextDouble()) * 1.5));
+				for (int p = 0; p < numProdutos; p++) {
+					// Quadrado de um uniforme: concentra as escolhas no início do catálogo
+					double u = aleatorio.nextDouble();
+					Produto produto = produtos[(int) (u * u * quantosProdutos)];
+					if (p > 0) {
+						linha.append('|');
+					}
+					if (aleatorio.nextBoolean()) {
+						linha.append(produto.hashCode());
+					} else {
+						linha.append(produto.getDescricao());
+					}
+				}
+				saida.write(linha.toString());
+				saida.newLine();
+			}
+		}
+	}
+}
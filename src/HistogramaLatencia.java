@@ -0,0 +1,104 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em nanossegundos, no estilo HDR: faixas logarítmicas (uma por potência
+ * de 2) divididas em 16 sub-faixas lineares, o que dá erro relativo máximo de cerca de 6% em
+ * qualquer ordem de grandeza, com memória fixa (1024 contadores) e registro sem bloqueio.
+ */
+public class HistogramaLatencia {
+
+	/** Bits de precisão de cada faixa: 2^4 = 16 sub-faixas */
+	private static final int BITS_SUBFAIXA = 4;
+	private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+	private final String nome;
+	private final AtomicLongArray contagens;
+	private final LongAdder total;
+	private final LongAdder soma;
+
+	/**
+	 * @param nome Nome da métrica, usado nos relatórios
+	 */
+	public HistogramaLatencia(String nome) {
+		this.nome = nome;
+		this.contagens = new AtomicLongArray(64 * SUBFAIXAS);
+		this.total = new LongAdder();
+		this.soma = new LongAdder();
+	}
+
+	/**
+	 * Registra uma medida.
+	 * @param nanos Latência, em nanossegundos (valores negativos contam como 0)
+	 */
+	public void registrar(long nanos) {
+		long valor = Math.max(0, nanos);
+		contagens.incrementAndGet(indice(valor));
+		total.increment();
+		soma.add(valor);
+	}
+
+	/** @return Quantidade de medidas registradas */
+	public long getQuantidade() {
+		return total.sum();
+	}
+
+	/** @return Média das medidas, em nanossegundos (0 se não houver medidas) */
+	public double getMedia() {
+		long quantidade = total.sum();
+		return quantidade == 0 ? 0 : soma.sum() / (double) quantidade;
+	}
+
+	/**
+	 * Retorna o percentil informado, aproximado pelo limite superior da sub-faixa que o contém.
+	 * @param fracao Percentil entre 0 e 1 (ex.: 0.99)
+	 * @return Latência, em nanossegundos (0 se não houver medidas)
+	 */
+	public long percentil(double fracao) {
+
+		long quantidade = total.sum();
+		if (quantidade == 0) {
+			return 0;
+		}
+
+		long alvo = Math.max(1, (long) Math.ceil(fracao * quantidade));
+		long acumulado = 0;
+		for (int i = 0; i < contagens.length(); i++) {
+			acumulado += contagens.get(i);
+			if (acumulado >= alvo) {
+				return limiteSuperior(i);
+			}
+		}
+		return limiteSuperior(contagens.length() - 1);
+	}
+
+	/** @return Resumo de uma linha: quantidade, média, p50, p99 e p99,9 */
+	public String resumo() {
+		return String.format("%s: n=%d média=%.0f ns p50=%d ns p99=%d ns p99,9=%d ns", nome, getQuantidade(),
+				getMedia(), percentil(0.50), percentil(0.99), percentil(0.999));
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	/** Faixa = posição do bit mais significativo; sub-faixa = os 4 bits seguintes. */
+	private static int indice(long valor) {
+		if (valor < SUBFAIXAS) {
+			return (int) valor;
+		}
+		int faixa = 63 - Long.numberOfLeadingZeros(valor);
+		int subfaixa = (int) (valor >>> (faixa - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+		return (faixa - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+	}
+
+	private static long limiteSuperior(int indice) {
+		if (indice < SUBFAIXAS) {
+			return indice;
+		}
+		int faixa = indice / SUBFAIXAS + BITS_SUBFAIXA - 1;
+		long subfaixa = indice % SUBFAIXAS;
+		long largura = 1L << (faixa - BITS_SUBFAIXA);
+		return (1L << faixa) + (subfaixa + 1) * largura - 1;
+	}
+}
@@ -0,0 +1,217 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importa pedidos em lote a partir de um arquivo-texto, sem a interação da CLI.
+ * Arquivo no formato (uma linha por pedido):
+ * formaDePagamento;dataDoPedido;produto1|produto2|...  <br/>
+ * em que a data está no formato dd/MM/yyyy e cada produto é identificado pelo código ou pela
+ * descrição (sem diferenciar maiúsculas). Linhas em branco ou iniciadas por # são ignoradas.
+ *
+ * O arquivo é lido em fluxo, linha a linha, e os produtos são resolvidos por índices em memória
+ * montados uma única vez a partir do catálogo, evitando a busca linear de
+ * {@link App#buscarProdutoPorDescricao(String)} a cada produto. Os pedidos são reunidos em lotes,
+ * entregues à fila de destino de uma só vez ({@link FilaConsultavel#concatenar(Fila)}).
+ */
+public class ImportadorPedidos {
+
+	/** Tamanho do buffer de leitura do arquivo de pedidos */
+	private static final int TAMANHO_BUFFER = 1 << 16;
+
+	/** Quantidade de pedidos entregues de uma vez à fila de destino */
+	private static final int TAMANHO_LOTE = 1 << 10;
+
+	private final Map<Integer, Produto> porCodigo;
+	private final Map<String, Produto> porDescricao;
+
+	private int pedidosImportados;
+	private int linhasInvalidas;
+
+	/**
+	 * Cria o importador, indexando os produtos do catálogo informado.
+	 *
+	 * @param produtos       Vetor de produtos cadastrados.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 */
+	public ImportadorPedidos(Produto[] produtos, int quantosProdutos) {
+
+		porCodigo = new HashMap<>(quantosProdutos * 2);
+		porDescricao = new HashMap<>(quantosProdutos * 2);
+
+		for (int i = 0; i < quantosProdutos; i++) {
+			porCodigo.put(produtos[i].hashCode(), produtos[i]);
+			// Mantém o primeiro produto com a descrição, como na busca linear
+			porDescricao.putIfAbsent(produtos[i].getDescricao().toLowerCase(Locale.ROOT), produtos[i]);
+		}
+	}
+
+	/**
+	 * Lê todos os pedidos do arquivo e os insere, na ordem do arquivo, na fila informada.
+	 * Linhas inválidas (formato, data, forma de pagamento ou produto desconhecido) são
+	 * descartadas e contabilizadas em {@link #getLinhasInvalidas()}.
+	 *
+	 * @param nomeArquivo Arquivo de pedidos.
+	 * @param destino     Fila onde os pedidos serão armazenados.
+	 * @return Quantidade de pedidos importados nesta chamada.
+	 * @throws IOException em caso de problemas de leitura do arquivo.
+	 */
+	public int importar(String nomeArquivo, FilaConsultavel<Pedido> destino) throws IOException {
+
+		int importadosAntes = pedidosImportados;
+		Fila<Pedido> lote = new Fila<>();
+
+		try (BufferedReader arquivo = new BufferedReader(
+				Files.newBufferedReader(Paths.get(nomeArquivo), StandardCharsets.UTF_8), TAMANHO_BUFFER)) {
+
+			String linha;
+			while ((linha = arquivo.readLine()) != null) {
+				if (linha.isEmpty() || linha.charAt(0) == '#') {
+					continue;
+				}
+				Pedido pedido = criarPedido(linha);
+				if (pedido == null) {
+					linhasInvalidas++;
+				} else {
+					lote.enfileirar(pedido);
+					pedidosImportados++;
+					if (lote.tamanho() == TAMANHO_LOTE) {
+						destino.concatenar(lote);
+					}
+				}
+			}
+		} finally {
+			destino.concatenar(lote);
+		}
+
+		return pedidosImportados - importadosAntes;
+	}
+
+	/**
+	 * Cria um pedido a partir de uma linha do arquivo.
+	 *
+	 * @param linha Linha no formato "formaDePagamento;dataDoPedido;produto1|produto2|..."
+	 * @return O pedido criado, ou null caso a linha seja inválida ou não tenha produtos.
+	 */
+	Pedido criarPedido(String linha) {
+
+		int primeiroSeparador = linha.indexOf(';');
+		int segundoSeparador = linha.indexOf(';', primeiroSeparador + 1);
+
+		if (primeiroSeparador != 1 || segundoSeparador < 0) {
+			return null;
+		}
+
+		int formaPagamento = linha.charAt(0) - '0';
+		if (formaPagamento != 1 && formaPagamento != 2) {
+			return null;
+		}
+
+		LocalDate data = lerData(linha, primeiroSeparador + 1, segundoSeparador);
+		if (data == null) {
+			return null;
+		}
+
+		// resolve todos os produtos antes de criar o pedido: uma linha rejeitada não consome um número
+		Produto[] produtos = new Produto[Pedido.MAX_PRODUTOS];
+		int quantos = 0;
+		int inicio = segundoSeparador + 1;
+		while (inicio < linha.length()) {
+			int fim = linha.indexOf('|', inicio);
+			if (fim < 0) {
+				fim = linha.length();
+			}
+			Produto produto = resolverProduto(linha.substring(inicio, fim).trim());
+			if (produto == null || quantos == produtos.length) {
+				return null;
+			}
+			produtos[quantos++] = produto;
+			inicio = fim + 1;
+		}
+		if (quantos == 0) {
+			return null;
+		}
+
+		Pedido pedido = new Pedido(data, formaPagamento);
+		for (int i = 0; i < quantos; i++) {
+			pedido.incluirProduto(produtos[i]);
+		}
+		return pedido;
+	}
+
+	/**
+	 * Resolve um produto pelo código, se o texto for numérico, ou pela descrição.
+	 *
+	 * @param identificacao Código ou descrição do produto.
+	 * @return O produto do catálogo ou null, caso não exista.
+	 */
+	Produto resolverProduto(String identificacao) {
+
+		if (identificacao.isEmpty()) {
+			return null;
+		}
+
+		int codigo = 0;
+		boolean numerico = identificacao.length() <= 9;
+		for (int i = 0; i < identificacao.length() && numerico; i++) {
+			char c = identificacao.charAt(i);
+			if (c >= '0' && c <= '9') {
+				codigo = codigo * 10 + (c - '0');
+			} else {
+				numerico = false;
+			}
+		}
+
+		return numerico ? porCodigo.get(codigo) : porDescricao.get(identificacao.toLowerCase(Locale.ROOT));
+	}
+
+	/** Lê uma data dd/MM/yyyy entre as posições informadas, sem o custo de um DateTimeFormatter. */
+	private static LocalDate lerData(String linha, int inicio, int fim) {
+
+		if (fim - inicio != 10 || linha.charAt(inicio + 2) != '/' || linha.charAt(inicio + 5) != '/') {
+			return null;
+		}
+
+		int dia = lerNumero(linha, inicio, inicio + 2);
+		int mes = lerNumero(linha, inicio + 3, inicio + 5);
+		int ano = lerNumero(linha, inicio + 6, fim);
+		if (dia < 0 || mes < 0 || ano < 0) {
+			return null;
+		}
+
+		try {
+			return LocalDate.of(ano, mes, dia);
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	private static int lerNumero(String linha, int inicio, int fim) {
+		int valor = 0;
+		for (int i = inicio; i < fim; i++) {
+			char c = linha.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			valor = valor * 10 + (c - '0');
+		}
+		return valor;
+	}
+
+	/** @return Total de pedidos importados por este importador. */
+	public int getPedidosImportados() {
+		return pedidosImportados;
+	}
+
+	/** @return Total de linhas descartadas por estarem inválidas. */
+	public int getLinhasInvalidas() {
+		return linhasInvalidas;
+	}
+}
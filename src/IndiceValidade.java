@@ -0,0 +1,108 @@
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Índice dos produtos perecíveis de uma carga do catálogo, ordenado pela data de validade
+ * (heap mínimo). Permite retirar os produtos vencidos e listar os próximos do vencimento sem
+ * percorrer o catálogo inteiro.
+ *
+ * O índice não altera o vetor de produtos: registra apenas o dia até o qual os vencidos já foram
+ * retirados ({@link #getRetiradosAntesDe()}). Cada versão do catálogo derivada da mesma carga
+ * compartilha o índice e guarda esse dia, o que basta para saber quais perecíveis ela não contém
+ * (ver {@link CatalogoProdutos}).
+ */
+public class IndiceValidade {
+
+	/** Perecíveis ainda não retirados, com a menor data de validade no topo */
+	private final PriorityQueue<ProdutoPerecivel> porValidade;
+
+	/** Todos os perecíveis com validade anterior a este dia já foram retirados */
+	private LocalDate retiradosAntesDe;
+
+	/**
+	 * Cria o índice a partir dos perecíveis presentes no vetor.
+	 *
+	 * @param produtos        Vetor de produtos cadastrados. Não é alterado.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 */
+	public IndiceValidade(Produto[] produtos, int quantosProdutos) {
+
+		this.porValidade = new PriorityQueue<>(Comparator.comparing(ProdutoPerecivel::getDataDeValidade));
+		this.retiradosAntesDe = LocalDate.MIN;
+
+		for (int i = 0; i < quantosProdutos; i++) {
+			if (produtos[i] instanceof ProdutoPerecivel) {
+				porValidade.add((ProdutoPerecivel) produtos[i]);
+			}
+		}
+	}
+
+	/**
+	 * Retira do índice todos os produtos vencidos até o dia informado (validade anterior a ele).
+	 * Custa O(v log p), com v produtos vencidos e p perecíveis; sem vencidos, apenas consulta o topo.
+	 *
+	 * @param hoje Dia de referência.
+	 * @return Fila com os produtos retirados, em ordem de validade.
+	 */
+	public Fila<ProdutoPerecivel> retirarVencidos(LocalDate hoje) {
+
+		Fila<ProdutoPerecivel> retirados = new Fila<>();
+
+		while (!porValidade.isEmpty() && porValidade.peek().getDataDeValidade().isBefore(hoje)) {
+			retirados.enfileirar(porValidade.poll());
+		}
+		if (hoje.isAfter(retiradosAntesDe)) {
+			retiradosAntesDe = hoje;
+		}
+
+		return retirados;
+	}
+
+	/**
+	 * Verifica, sem alterar o índice, se há produtos vencidos até o dia informado. Custa O(1).
+	 *
+	 * @param hoje Dia de referência.
+	 * @return true se algum perecível indexado tiver validade anterior a hoje.
+	 */
+	public boolean temVencidos(LocalDate hoje) {
+		return !porValidade.isEmpty() && porValidade.peek().getDataDeValidade().isBefore(hoje);
+	}
+
+	/**
+	 * Lista os perecíveis que vencem até a quantidade de dias informada, a partir de hoje,
+	 * em ordem de validade. Custa O(k log p), com k produtos listados.
+	 *
+	 * @param hoje Dia de referência.
+	 * @param dias Prazo, em dias, considerado próximo do vencimento.
+	 * @return Fila com os produtos próximos do vencimento.
+	 */
+	public Fila<ProdutoPerecivel> proximosDoVencimento(LocalDate hoje, int dias) {
+
+		Fila<ProdutoPerecivel> proximos = new Fila<>();
+		Pilha<ProdutoPerecivel> devolver = new Pilha<>();
+		LocalDate limite = hoje.plusDays(dias);
+
+		// Retira temporariamente os k primeiros do heap e os devolve em seguida
+		while (!porValidade.isEmpty() && !porValidade.peek().getDataDeValidade().isAfter(limite)) {
+			ProdutoPerecivel produto = porValidade.poll();
+			proximos.enfileirar(produto);
+			devolver.empilhar(produto);
+		}
+		while (!devolver.vazia()) {
+			porValidade.add(devolver.desempilhar());
+		}
+
+		return proximos;
+	}
+
+	/** @return Dia a partir do qual os perecíveis ainda não foram retirados (LocalDate.MIN antes da primeira retirada). */
+	public LocalDate getRetiradosAntesDe() {
+		return retiradosAntesDe;
+	}
+
+	/** @return Quantidade de perecíveis indexados. */
+	public int getQuantosPereciveis() {
+		return porValidade.size();
+	}
+}
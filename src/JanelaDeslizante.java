@@ -0,0 +1,129 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Agregados sobre os últimos K pedidos: quantidade, soma, média, maior e menor valor final.
+ *
+ * Cada pedido tem seu valor final calculado uma única vez, ao entrar na janela. A soma é mantida
+ * em centavos (sem erro de arredondamento acumulado) e o maior e o menor valor são mantidos com
+ * filas duplas monotônicas: cada pedido entra e sai de cada uma no máximo uma vez, então a
+ * inclusão de um pedido custa O(1) amortizado e todas as consultas custam O(1).
+ */
+public class JanelaDeslizante {
+
+	private final int capacidade;
+
+	/** Pedidos da janela, do mais antigo (início) ao mais recente (fim) */
+	private final FilaDupla<Entrada> janela;
+
+	/** Candidatos a maior valor: valores decrescentes do início ao fim */
+	private final FilaDupla<Entrada> maiores;
+
+	/** Candidatos a menor valor: valores crescentes do início ao fim */
+	private final FilaDupla<Entrada> menores;
+
+	private long somaCentavos;
+
+	/**
+	 * Cria a janela vazia.
+	 *
+	 * @param capacidade Quantidade K de pedidos mais recentes considerados (mínimo 1).
+	 */
+	public JanelaDeslizante(int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("A janela deve ter capacidade de pelo menos um pedido!");
+		}
+
+		this.capacidade = capacidade;
+		this.janela = new FilaDupla<>();
+		this.maiores = new FilaDupla<>();
+		this.menores = new FilaDupla<>();
+	}
+
+	/**
+	 * Inclui um pedido na janela. Se ela já contiver K pedidos, o mais antigo é descartado.
+	 *
+	 * @param pedido O pedido a ser incluído
+	 */
+	public void incluir(Pedido pedido) {
+
+		Entrada nova = new Entrada(pedido, Math.round(App.valorFinal(pedido) * 100));
+
+		if (janela.tamanho() == capacidade) {
+			descartarMaisAntigo();
+		}
+
+		janela.inserirFim(nova);
+		somaCentavos += nova.centavos;
+
+		while (!maiores.vazia() && maiores.consultarFim().centavos <= nova.centavos) {
+			maiores.removerFim();
+		}
+		maiores.inserirFim(nova);
+
+		while (!menores.vazia() && menores.consultarFim().centavos >= nova.centavos) {
+			menores.removerFim();
+		}
+		menores.inserirFim(nova);
+	}
+
+	/** @return Quantidade de pedidos na janela (no máximo K) */
+	public int quantidade() {
+		return janela.tamanho();
+	}
+
+	/** @return Soma dos valores finais dos pedidos na janela */
+	public double soma() {
+		return somaCentavos / 100.0;
+	}
+
+	/** @return Média dos valores finais dos pedidos na janela, ou 0.0 se ela estiver vazia */
+	public double media() {
+		return janela.vazia() ? 0.0 : somaCentavos / 100.0 / janela.tamanho();
+	}
+
+	/**
+	 * @return O pedido de maior valor final na janela (o mais recente, em caso de empate)
+	 * @throws NoSuchElementException se a janela estiver vazia
+	 */
+	public Pedido maior() {
+		return maiores.consultarInicio().pedido;
+	}
+
+	/**
+	 * @return O pedido de menor valor final na janela (o mais recente, em caso de empate)
+	 * @throws NoSuchElementException se a janela estiver vazia
+	 */
+	public Pedido menor() {
+		return menores.consultarInicio().pedido;
+	}
+
+	public int getCapacidade() {
+		return capacidade;
+	}
+
+	private void descartarMaisAntigo() {
+
+		Entrada antiga = janela.removerInicio();
+		somaCentavos -= antiga.centavos;
+
+		if (maiores.consultarInicio() == antiga) {
+			maiores.removerInicio();
+		}
+		if (menores.consultarInicio() == antiga) {
+			menores.removerInicio();
+		}
+	}
+
+	/** Pedido da janela com seu valor final, em centavos, calculado na inclusão. */
+	private static class Entrada {
+
+		private final Pedido pedido;
+		private final long centavos;
+
+		Entrada(Pedido pedido, long centavos) {
+			this.pedido = pedido;
+			this.centavos = centavos;
+		}
+	}
+}
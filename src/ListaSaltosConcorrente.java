@@ -0,0 +1,271 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mapa ordenado em lista de saltos (skip list) para muitas threads de leitura.
+ *
+ * Cada nó está no nível 0 (lista encadeada de todas as chaves, em ordem) e, com probabilidade
+ * 1/4 a cada nível, também nos níveis acima, que servem de atalho: buscas, piso, teto e o início
+ * de uma consulta por faixa custam O(log n) em média.
+ *
+ * Leituras não bloqueiam: os encadeamentos são lidos com semântica volátil. Escritas (inserção e
+ * remoção) são serializadas por um monitor e publicam cada alteração de forma que um leitor
+ * concorrente sempre encontra uma lista válida: um nó novo já aponta para os seus sucessores
+ * antes de ser ligado, de baixo para cima, e um nó removido é desligado de cima para baixo,
+ * mantendo os próprios encadeamentos, e só depois tem o valor apagado. As consultas por faixa e a
+ * iteração refletem as escritas concluídas antes delas e podem refletir (ou não) as concorrentes.
+ *
+ * @param <K> Tipo das chaves
+ * @param <V> Tipo dos valores
+ */
+public class ListaSaltosConcorrente<K extends Comparable<? super K>, V> implements MapaOrdenado<K, V> {
+
+	private static final int NIVEL_MAXIMO = 16;
+
+	private final No<K, V> cabeca = new No<>(null, null, NIVEL_MAXIMO);
+
+	/** Quantidade de níveis em uso; acima dele, os encadeamentos da cabeça são nulos */
+	private volatile int niveis = 1;
+	private volatile int tamanho;
+
+	/** Estado do gerador de níveis (xorshift), usado só pelas escritas */
+	private int semente = 0x2545F491;
+
+	@Override
+	public synchronized V inserir(K chave, V valor) {
+
+		if (chave == null || valor == null) {
+			throw new IllegalArgumentException("Chave e valor não podem ser nulos!");
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		No<K, V>[] anteriores = new No[NIVEL_MAXIMO];
+		No<K, V> existente = anteriores(chave, anteriores);
+		if (existente != null) {
+			V anterior = existente.valor;
+			existente.valor = valor;
+			return anterior;
+		}
+
+		int nivel = sortearNivel();
+		for (int i = niveis; i < nivel; i++) {
+			anteriores[i] = cabeca;
+		}
+
+		No<K, V> novo = new No<>(chave, valor, nivel);
+		for (int i = 0; i < nivel; i++) {
+			novo.proximos.set(i, anteriores[i].proximo(i));
+		}
+		for (int i = 0; i < nivel; i++) {
+			anteriores[i].proximos.set(i, novo);
+		}
+		if (nivel > niveis) {
+			niveis = nivel;
+		}
+		tamanho++;
+		return null;
+	}
+
+	/**
+	 * Remove a chave do mapa.
+	 *
+	 * @param chave A chave a ser removida
+	 * @return O valor que estava associado à chave, ou null se ela não estava no mapa
+	 */
+	public synchronized V remover(K chave) {
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		No<K, V>[] anteriores = new No[NIVEL_MAXIMO];
+		No<K, V> removido = anteriores(chave, anteriores);
+		if (removido == null) {
+			return null;
+		}
+
+		for (int i = removido.proximos.length() - 1; i >= 0; i--) {
+			anteriores[i].proximos.set(i, removido.proximo(i));
+		}
+		V valor = removido.valor;
+		removido.valor = null;
+		tamanho--;
+		return valor;
+	}
+
+	@Override
+	public V buscar(K chave) {
+
+		No<K, V> no = primeiroAPartirDe(chave);
+		return (no != null && chave.compareTo(no.chave) == 0) ? no.valor : null;
+	}
+
+	@Override
+	public V piso(K chave) {
+
+		while (true) {
+			No<K, V> no = ultimoAte(chave);
+			if (no == cabeca) {
+				return null;
+			}
+			V valor = no.valor;
+			if (valor != null) {
+				return valor;
+			}
+			// removido durante a busca: já está desligado, a nova busca não passa por ele
+		}
+	}
+
+	@Override
+	public V teto(K chave) {
+
+		for (No<K, V> no = primeiroAPartirDe(chave); no != null; no = no.proximo(0)) {
+			V valor = no.valor;
+			if (valor != null) {
+				return valor;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Fila<V> intervalo(K de, K ate) {
+
+		Fila<V> encontrados = new Fila<>();
+		if (de.compareTo(ate) > 0) {
+			return encontrados;
+		}
+
+		for (No<K, V> no = primeiroAPartirDe(de); no != null && ate.compareTo(no.chave) >= 0;
+				no = no.proximo(0)) {
+			V valor = no.valor;
+			if (valor != null) {
+				encontrados.enfileirar(valor);
+			}
+		}
+		return encontrados;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Percorre os valores em ordem crescente de chave, sem bloquear as escritas.
+	 */
+	@Override
+	public Iterator<V> iterator() {
+		return new Iterator<V>() {
+
+			private No<K, V> atual = cabeca;
+			private V proximo;
+
+			@Override
+			public boolean hasNext() {
+				while (proximo == null && atual != null) {
+					atual = atual.proximo(0);
+					if (atual != null) {
+						proximo = atual.valor;
+					}
+				}
+				return proximo != null;
+			}
+
+			@Override
+			public V next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException("Não há mais itens no mapa!");
+				}
+				V valor = proximo;
+				proximo = null;
+				return valor;
+			}
+		};
+	}
+
+	/**
+	 * Desce pelos níveis até o último nó com chave menor ou igual à informada; retorna a cabeça
+	 * se não houver.
+	 */
+	private No<K, V> ultimoAte(K chave) {
+
+		No<K, V> no = cabeca;
+		for (int i = niveis - 1; i >= 0; i--) {
+			No<K, V> proximo = no.proximo(i);
+			while (proximo != null && chave.compareTo(proximo.chave) >= 0) {
+				no = proximo;
+				proximo = no.proximo(i);
+			}
+		}
+		return no;
+	}
+
+	/**
+	 * Desce pelos níveis até o primeiro nó com chave maior ou igual à informada, ou null se não
+	 * houver. Retorna o sucessor lido na própria descida: reler o encadeamento do nó anterior
+	 * poderia encontrar um nó inserido depois, com chave menor que a procurada.
+	 */
+	private No<K, V> primeiroAPartirDe(K chave) {
+
+		No<K, V> no = cabeca;
+		No<K, V> proximo = null;
+		for (int i = niveis - 1; i >= 0; i--) {
+			proximo = no.proximo(i);
+			while (proximo != null && chave.compareTo(proximo.chave) > 0) {
+				no = proximo;
+				proximo = no.proximo(i);
+			}
+		}
+		return proximo;
+	}
+
+	/**
+	 * Preenche, para cada nível em uso, o último nó com chave menor que a informada.
+	 *
+	 * @return O nó com a chave informada, ou null se ela não estiver no mapa
+	 */
+	private No<K, V> anteriores(K chave, No<K, V>[] anteriores) {
+
+		No<K, V> no = cabeca;
+		for (int i = niveis - 1; i >= 0; i--) {
+			No<K, V> proximo = no.proximo(i);
+			while (proximo != null && chave.compareTo(proximo.chave) > 0) {
+				no = proximo;
+				proximo = no.proximo(i);
+			}
+			anteriores[i] = no;
+		}
+		No<K, V> encontrado = no.proximo(0);
+		return (encontrado != null && chave.compareTo(encontrado.chave) == 0) ? encontrado : null;
+	}
+
+	/** Sorteia o nível de um nó novo: 1 + quantos sorteios seguidos de probabilidade 1/4. */
+	private int sortearNivel() {
+
+		semente ^= semente << 13;
+		semente ^= semente >>> 17;
+		semente ^= semente << 5;
+		int nivel = 1;
+		int bits = semente;
+		while (nivel < NIVEL_MAXIMO && (bits & 3) == 0) {
+			nivel++;
+			bits >>>= 2;
+		}
+		return nivel;
+	}
+
+	private static class No<K, V> {
+		final K chave;
+		volatile V valor;
+		final AtomicReferenceArray<No<K, V>> proximos;
+
+		No(K chave, V valor, int nivel) {
+			this.chave = chave;
+			this.valor = valor;
+			this.proximos = new AtomicReferenceArray<>(nivel);
+		}
+
+		No<K, V> proximo(int nivel) {
+			return proximos.get(nivel);
+		}
+	}
+}
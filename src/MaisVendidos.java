@@ -0,0 +1,225 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ranking dos produtos mais pedidos, atualizado a cada pedido finalizado.
+ *
+ * Usa o algoritmo Space-Saving: no máximo {@code capacidade} produtos são acompanhados, cada um
+ * com um contador. Quando chega um produto não acompanhado e não há contador livre, ele assume o
+ * contador do produto menos pedido, herdando sua contagem como erro máximo. Assim a memória não
+ * depende do volume de pedidos e todo produto pedido mais de N / capacidade vezes (N = total de
+ * produtos registrados) certamente aparece no ranking, com contagem entre
+ * {@code quantidade - erro} e {@code quantidade}.
+ *
+ * Os contadores ficam em um vetor em ordem decrescente de contagem. Um incremento troca o
+ * contador com o primeiro de mesma contagem (localizado por busca binária) antes de somar 1,
+ * o que mantém a ordem; por isso registrar um produto custa O(log capacidade) e os K mais
+ * pedidos são simplesmente as K primeiras posições, obtidas em O(K).
+ *
+ * No modo exato ({@link #exato()}), nenhum contador é descartado: o vetor cresce com a
+ * quantidade de produtos distintos e as contagens são exatas (erro zero), para validar o modo
+ * aproximado.
+ *
+ * Os métodos são sincronizados, para que o ranking possa ser alimentado por várias threads.
+ */
+public class MaisVendidos {
+
+	private static final int CAPACIDADE_INICIAL_EXATO = 64;
+
+	/** Quantidade máxima de contadores, ou Integer.MAX_VALUE no modo exato */
+	private final int capacidade;
+
+	private Produto[] produtos;
+	private long[] contagens;
+	private long[] erros;
+	private int tamanho;
+
+	/** Posição, no vetor, do contador de cada produto acompanhado */
+	private final Map<Produto, Integer> posicoes;
+
+	private long totalRegistrado;
+
+	/**
+	 * Cria o ranking aproximado.
+	 *
+	 * @param capacidade Quantidade de contadores (mínimo 1). Quanto maior, menor o erro.
+	 */
+	public MaisVendidos(int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("O ranking deve ter pelo menos um contador!");
+		}
+		this.capacidade = capacidade;
+		this.produtos = new Produto[capacidade];
+		this.contagens = new long[capacidade];
+		this.erros = new long[capacidade];
+		this.posicoes = new HashMap<>(capacidade * 2);
+	}
+
+	private MaisVendidos() {
+		this.capacidade = Integer.MAX_VALUE;
+		this.produtos = new Produto[CAPACIDADE_INICIAL_EXATO];
+		this.contagens = new long[CAPACIDADE_INICIAL_EXATO];
+		this.erros = new long[CAPACIDADE_INICIAL_EXATO];
+		this.posicoes = new HashMap<>();
+	}
+
+	/** @return Um ranking exato, sem limite de produtos acompanhados. */
+	public static MaisVendidos exato() {
+		return new MaisVendidos();
+	}
+
+	/**
+	 * Registra todos os produtos de um pedido (um produto repetido no pedido conta mais de uma vez).
+	 *
+	 * @param pedido O pedido finalizado
+	 */
+	public synchronized void registrar(Pedido pedido) {
+
+		Produto[] doPedido = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			registrar(doPedido[i]);
+		}
+	}
+
+	/**
+	 * Registra um pedido de um produto.
+	 *
+	 * @param produto O produto pedido
+	 */
+	public synchronized void registrar(Produto produto) {
+
+		Integer posicao = posicoes.get(produto);
+
+		if (posicao == null) {
+			if (tamanho < capacidade) {
+				garantirEspaco();
+				posicao = tamanho++;
+				contagens[posicao] = 0;
+				erros[posicao] = 0;
+			} else {
+				// Substitui o menos pedido, que está na última posição
+				posicao = tamanho - 1;
+				posicoes.remove(produtos[posicao]);
+				erros[posicao] = contagens[posicao];
+			}
+			produtos[posicao] = produto;
+			posicoes.put(produto, posicao);
+		}
+
+		incrementar(posicao);
+		totalRegistrado++;
+	}
+
+	/**
+	 * Retorna os K produtos mais pedidos, do mais para o menos pedido. Custa O(K).
+	 *
+	 * @param k Quantidade de produtos desejada
+	 * @return Fila com até K contagens (menos, se houver menos produtos acompanhados)
+	 */
+	public synchronized Fila<Contagem> maisPedidos(int k) {
+
+		Fila<Contagem> ranking = new Fila<>();
+		for (int i = 0; i < Math.min(k, tamanho); i++) {
+			ranking.enfileirar(new Contagem(produtos[i], contagens[i], erros[i]));
+		}
+		return ranking;
+	}
+
+	/** @return Total de produtos registrados (soma de todas as contagens reais) */
+	public synchronized long getTotalRegistrado() {
+		return totalRegistrado;
+	}
+
+	/** @return Quantidade de produtos acompanhados atualmente */
+	public synchronized int getQuantosAcompanhados() {
+		return tamanho;
+	}
+
+	public boolean isExato() {
+		return capacidade == Integer.MAX_VALUE;
+	}
+
+	/** Soma 1 ao contador da posição, mantendo o vetor em ordem decrescente. */
+	private void incrementar(int posicao) {
+
+		int primeira = primeiraPosicao(contagens[posicao], posicao);
+		if (primeira != posicao) {
+			trocar(primeira, posicao);
+		}
+		contagens[primeira]++;
+	}
+
+	/** Busca binária pela primeira posição, até o limite, cuja contagem é igual à informada. */
+	private int primeiraPosicao(long contagem, int limite) {
+
+		int inicio = 0;
+		int fim = limite;
+		while (inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+			if (contagens[meio] > contagem) {
+				inicio = meio + 1;
+			} else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	}
+
+	private void trocar(int i, int j) {
+
+		Produto produto = produtos[i];
+		produtos[i] = produtos[j];
+		produtos[j] = produto;
+
+		long contagem = contagens[i];
+		contagens[i] = contagens[j];
+		contagens[j] = contagem;
+
+		long erro = erros[i];
+		erros[i] = erros[j];
+		erros[j] = erro;
+
+		posicoes.put(produtos[i], i);
+		posicoes.put(produtos[j], j);
+	}
+
+	/** No modo exato, dobra os vetores quando cheios. */
+	private void garantirEspaco() {
+
+		if (tamanho < produtos.length) {
+			return;
+		}
+		int novoTamanho = produtos.length * 2;
+		produtos = Arrays.copyOf(produtos, novoTamanho);
+		contagens = Arrays.copyOf(contagens, novoTamanho);
+		erros = Arrays.copyOf(erros, novoTamanho);
+	}
+
+	/** Contagem de um produto no ranking. A quantidade real de pedidos está entre quantidade - erro e quantidade. */
+	public static class Contagem {
+
+		private final Produto produto;
+		private final long quantidade;
+		private final long erro;
+
+		Contagem(Produto produto, long quantidade, long erro) {
+			this.produto = produto;
+			this.quantidade = quantidade;
+			this.erro = erro;
+		}
+
+		public Produto getProduto() {
+			return produto;
+		}
+
+		public long getQuantidade() {
+			return quantidade;
+		}
+
+		public long getErro() {
+			return erro;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ * Mapa com as chaves mantidas em ordem crescente (pela ordem natural de {@link Comparable}).
+ * Além da busca pela chave, permite consultas por faixa ("produtos com código entre a e b"),
+ * piso e teto e a iteração dos valores em ordem de chave.
+ *
+ * Produto e Pedido já são comparáveis pelo código; as implementações do sistema costumam usar o
+ * próprio código (Integer) como chave.
+ *
+ * @param <K> Tipo das chaves
+ * @param <V> Tipo dos valores
+ */
+public interface MapaOrdenado<K extends Comparable<? super K>, V> extends Iterable<V> {
+
+	/**
+	 * Associa o valor à chave, substituindo o valor anterior, se houver.
+	 *
+	 * @param chave A chave (não nula)
+	 * @param valor O valor (não nulo)
+	 * @return O valor anterior associado à chave, ou null
+	 */
+	V inserir(K chave, V valor);
+
+	/**
+	 * @param chave A chave procurada
+	 * @return O valor associado à chave, ou null se ela não estiver no mapa
+	 */
+	V buscar(K chave);
+
+	/**
+	 * @param chave Chave de referência
+	 * @return O valor da maior chave menor ou igual à informada, ou null se não houver
+	 */
+	V piso(K chave);
+
+	/**
+	 * @param chave Chave de referência
+	 * @return O valor da menor chave maior ou igual à informada, ou null se não houver
+	 */
+	V teto(K chave);
+
+	/**
+	 * Retorna os valores das chaves na faixa [de, ate], em ordem de chave.
+	 *
+	 * @param de  Menor chave da faixa (inclusive)
+	 * @param ate Maior chave da faixa (inclusive)
+	 * @return Fila com os valores encontrados (vazia se de &gt; ate)
+	 */
+	Fila<V> intervalo(K de, K ate);
+
+	/**
+	 * Retorna o número de chaves no mapa.
+	 *
+	 * @return Quantidade de chaves
+	 */
+	int tamanho();
+}
@@ -0,0 +1,141 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas dos pontos críticos do sistema: operações na fila de pedidos, buscas de produtos,
+ * cálculo do valor final dos pedidos e leitura do arquivo de produtos.
+ *
+ * As métricas só são coletadas com -Dmetricas=true. A flag é uma constante (static final),
+ * então, desligada, o JIT elimina o código de medição dos pontos instrumentados, que seguem o padrão:
+ * <pre>
+ * long inicio = Metricas.ATIVAS ? System.nanoTime() : 0;
+ * ...
+ * if (Metricas.ATIVAS) Metricas.VALOR_FINAL.registrar(System.nanoTime() - inicio);
+ * </pre>
+ * As métricas ficam disponíveis via JMX ({@link MetricasMBean}) e em um relatório de texto periódico.
+ */
+public class Metricas implements MetricasMBean {
+
+	/** Indica se a coleta de métricas está ligada */
+	public static final boolean ATIVAS = Boolean.getBoolean("metricas");
+
+	/** Pedidos inseridos na fila de pedidos (da CLI, ver {@link FilaMedida}, ou do servidor) */
+	public static final LongAdder ENFILEIRAMENTOS = new LongAdder();
+
+	/** Pedidos retirados da fila de pedidos */
+	public static final LongAdder DESENFILEIRAMENTOS = new LongAdder();
+
+	public static final HistogramaLatencia BUSCA_PRODUTO = new HistogramaLatencia("busca de produto");
+	public static final HistogramaLatencia VALOR_FINAL = new HistogramaLatencia("valor final do pedido");
+	public static final HistogramaLatencia LEITURA_PRODUTOS = new HistogramaLatencia("leitura de produtos");
+
+	/** Fonte da profundidade da fila de pedidos */
+	private static volatile IntSupplier profundidadeFilaPedidos = () -> 0;
+
+	private long ultimosEnfileiramentos;
+	private long ultimosDesenfileiramentos;
+	private long ultimoDespejo = System.nanoTime();
+
+	/**
+	 * Informa de onde obter a profundidade da fila de pedidos.
+	 * @param fonte Fornecedor da quantidade de pedidos na fila
+	 */
+	public static void monitorarFilaPedidos(IntSupplier fonte) {
+		profundidadeFilaPedidos = fonte;
+	}
+
+	/**
+	 * Registra as métricas no servidor JMX da plataforma, com o nome "aeds:type=Metricas".
+	 * @return A instância registrada
+	 * @throws JMException em caso de falha no registro
+	 */
+	public static Metricas registrarJmx() throws JMException {
+		Metricas metricas = new Metricas();
+		ManagementFactory.getPlatformMBeanServer().registerMBean(metricas, new ObjectName("aeds:type=Metricas"));
+		return metricas;
+	}
+
+	/**
+	 * Agenda a impressão periódica do relatório de métricas, incluindo as taxas de
+	 * enfileiramento e desenfileiramento no intervalo.
+	 * @param agendador Executor responsável pela execução periódica
+	 * @param segundos Intervalo entre relatórios
+	 * @param saida Destino dos relatórios
+	 * @return O agendamento, que pode ser cancelado
+	 */
+	public ScheduledFuture<?> agendarDespejo(ScheduledExecutorService agendador, long segundos, PrintStream saida) {
+		return agendador.scheduleAtFixedRate(() -> saida.println(despejar()), segundos, segundos, TimeUnit.SECONDS);
+	}
+
+	/** @return Relatório com as taxas desde o último despejo, seguido do relatório completo */
+	synchronized String despejar() {
+
+		long agora = System.nanoTime();
+		double segundos = Math.max(1e-9, (agora - ultimoDespejo) / 1e9);
+		long enfileiramentos = ENFILEIRAMENTOS.sum();
+		long desenfileiramentos = DESENFILEIRAMENTOS.sum();
+
+		String taxas = String.format("taxas: %.1f enfileiramentos/s, %.1f desenfileiramentos/s%n",
+				(enfileiramentos - ultimosEnfileiramentos) / segundos,
+				(desenfileiramentos - ultimosDesenfileiramentos) / segundos);
+
+		ultimoDespejo = agora;
+		ultimosEnfileiramentos = enfileiramentos;
+		ultimosDesenfileiramentos = desenfileiramentos;
+
+		return taxas + getRelatorio();
+	}
+
+	@Override
+	public long getEnfileiramentos() {
+		return ENFILEIRAMENTOS.sum();
+	}
+
+	@Override
+	public long getDesenfileiramentos() {
+		return DESENFILEIRAMENTOS.sum();
+	}
+
+	@Override
+	public int getProfundidadeFilaPedidos() {
+		return profundidadeFilaPedidos.getAsInt();
+	}
+
+	@Override
+	public long getBuscaProdutoP99Nanos() {
+		return BUSCA_PRODUTO.percentil(0.99);
+	}
+
+	@Override
+	public long getValorFinalP99Nanos() {
+		return VALOR_FINAL.percentil(0.99);
+	}
+
+	@Override
+	public long getLeituraProdutosP99Nanos() {
+		return LEITURA_PRODUTOS.percentil(0.99);
+	}
+
+	@Override
+	public String getRelatorio() {
+
+		StringBuilder relatorio = new StringBuilder("=== MÉTRICAS ===\n");
+
+		relatorio.append("enfileiramentos: ").append(getEnfileiramentos()).append('\n');
+		relatorio.append("desenfileiramentos: ").append(getDesenfileiramentos()).append('\n');
+		relatorio.append("profundidade da fila de pedidos: ").append(getProfundidadeFilaPedidos()).append('\n');
+		relatorio.append(BUSCA_PRODUTO.resumo()).append('\n');
+		relatorio.append(VALOR_FINAL.resumo()).append('\n');
+		relatorio.append(LEITURA_PRODUTOS.resumo()).append('\n');
+
+		return relatorio.toString();
+	}
+}
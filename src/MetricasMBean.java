@@ -0,0 +1,19 @@
+/**
+ * Interface de gerenciamento (JMX) das métricas do sistema. Ver {@link Metricas}.
+ */
+public interface MetricasMBean {
+
+	long getEnfileiramentos();
+
+	long getDesenfileiramentos();
+
+	int getProfundidadeFilaPedidos();
+
+	long getBuscaProdutoP99Nanos();
+
+	long getValorFinalP99Nanos();
+
+	long getLeituraProdutosP99Nanos();
+
+	String getRelatorio();
+}
@@ -0,0 +1,249 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Motor de preços baseado em regras ({@link RegraPreco}).
+ *
+ * As regras são compiladas uma única vez, no construtor, em uma cadeia de lambdas especializadas:
+ * cada etapa só existe se houver regra do seu tipo, e cada chamada interna enxerga sempre a mesma
+ * classe de lambda (chamadas monomórficas, que a JVM consegue embutir). O dia da avaliação é
+ * informado como epochDay pelo chamador, evitando um LocalDate.now() por produto.
+ *
+ * Sem regras de promoção, o preço de venda é custo * (1 + margem); os descontos de mesmo
+ * tipo ou de tipos diferentes se acumulam de forma multiplicativa.
+ */
+public class MotorPrecos {
+
+	/** Preço de venda de um produto em um dia (epochDay). */
+	@FunctionalInterface
+	public interface AvaliadorProduto {
+		double valorDeVenda(Produto produto, long diaAtual);
+	}
+
+	/** Valor final de um pedido em um dia (epochDay). */
+	@FunctionalInterface
+	public interface AvaliadorPedido {
+		double valorFinal(Pedido pedido, long diaAtual);
+	}
+
+	private final RegraPreco[] regras;
+	private final AvaliadorProduto avaliadorProduto;
+	private final AvaliadorPedido avaliadorPedido;
+	private final double[] fatorPorForma;
+
+	/**
+	 * Compila as regras informadas.
+	 * @param regras Regras de promoção (podem ser nenhuma)
+	 */
+	public MotorPrecos(RegraPreco... regras) {
+		this.regras = regras.clone();
+		avaliadorProduto = compilarProduto(this.regras);
+		fatorPorForma = fatoresPorForma(this.regras);
+		avaliadorPedido = compilarPedido(fatorPorForma, avaliadorProduto);
+	}
+
+	/**
+	 * Carrega as regras de um arquivo-texto, uma por linha (ver {@link RegraPreco}).
+	 * Linhas em branco ou iniciadas por # são ignoradas.
+	 * @param nomeArquivo Nome do arquivo de regras
+	 * @return O motor com as regras compiladas
+	 * @throws IOException em caso de problemas de leitura do arquivo
+	 */
+	static MotorPrecos carregar(String nomeArquivo) throws IOException {
+
+		List<RegraPreco> regras = new ArrayList<>();
+		for (String linha : Files.readAllLines(Paths.get(nomeArquivo), StandardCharsets.UTF_8)) {
+			if (!linha.isBlank() && !linha.startsWith("#")) {
+				regras.add(RegraPreco.criarDoTexto(linha));
+			}
+		}
+		return new MotorPrecos(regras.toArray(new RegraPreco[0]));
+	}
+
+	/** @return Um motor com as regras equivalentes aos descontos fixos atuais. */
+	static MotorPrecos padrao() {
+		return new MotorPrecos(RegraPreco.regrasPadrao());
+	}
+
+	public double valorDeVenda(Produto produto, LocalDate data) {
+		return avaliadorProduto.valorDeVenda(produto, data.toEpochDay());
+	}
+
+	public double valorFinal(Pedido pedido, LocalDate data) {
+		return avaliadorPedido.valorFinal(pedido, data.toEpochDay());
+	}
+
+	/**
+	 * Calcula o preço de venda de todos os produtos do catálogo, na ordem do vetor.
+	 * @param produtos Vetor de produtos
+	 * @param quantosProdutos Quantidade de posições válidas no vetor
+	 * @param data Data da precificação
+	 * @return Vetor com os preços de venda, na mesma posição dos produtos
+	 */
+	public double[] precificarCatalogo(Produto[] produtos, int quantosProdutos, LocalDate data) {
+
+		AvaliadorProduto avaliador = avaliadorProduto;
+		long dia = data.toEpochDay();
+		double[] precos = new double[quantosProdutos];
+
+		for (int i = 0; i < quantosProdutos; i++) {
+			precos[i] = avaliador.valorDeVenda(produtos[i], dia);
+		}
+		return precos;
+	}
+
+	/**
+	 * @param forma Forma de pagamento do pedido
+	 * @return Fator aplicado ao total dos pedidos com essa forma (1.0 se não houver desconto)
+	 */
+	public double fatorPagamento(int forma) {
+		return (forma >= 0 && forma < fatorPorForma.length) ? fatorPorForma[forma] : 1.0;
+	}
+
+	public AvaliadorProduto getAvaliadorProduto() {
+		return avaliadorProduto;
+	}
+
+	public AvaliadorPedido getAvaliadorPedido() {
+		return avaliadorPedido;
+	}
+
+	public RegraPreco[] getRegras() {
+		return regras.clone();
+	}
+
+	private static AvaliadorProduto compilarProduto(RegraPreco[] regras) {
+
+		AvaliadorProduto avaliador = (produto, dia) -> produto.precoCusto * (1.0 + produto.margemLucro);
+
+		avaliador = compilarValidade(avaliador, filtrar(regras, RegraPreco.Tipo.VALIDADE));
+		avaliador = compilarDescricao(avaliador, filtrar(regras, RegraPreco.Tipo.DESCRICAO));
+
+		return avaliador;
+	}
+
+	/**
+	 * Desconto por proximidade da validade. Como ProdutoPerecivel, rejeita produtos vencidos.
+	 * Uma única regra (caso comum) vira uma comparação; várias, um laço sobre vetores primitivos.
+	 */
+	private static AvaliadorProduto compilarValidade(AvaliadorProduto anterior, RegraPreco[] regras) {
+
+		final AvaliadorProduto base = anterior;
+		final int[] prazos = new int[regras.length];
+		final double[] fatores = new double[regras.length];
+
+		for (int i = 0; i < regras.length; i++) {
+			prazos[i] = Integer.parseInt(regras[i].getParametro());
+			fatores[i] = 1.0 - regras[i].getDesconto();
+		}
+
+		if (regras.length == 0) {
+			return (produto, dia) -> {
+				verificarValidade(produto, dia);
+				return base.valorDeVenda(produto, dia);
+			};
+		}
+		if (regras.length == 1) {
+			final int prazo = prazos[0];
+			final double fator = fatores[0];
+			return (produto, dia) -> {
+				long diasRestantes = verificarValidade(produto, dia);
+				return base.valorDeVenda(produto, dia) * (diasRestantes <= prazo ? fator : 1.0);
+			};
+		}
+		return (produto, dia) -> {
+			long diasRestantes = verificarValidade(produto, dia);
+			double preco = base.valorDeVenda(produto, dia);
+			for (int i = 0; i < prazos.length; i++) {
+				preco *= (diasRestantes <= prazos[i] ? fatores[i] : 1.0);
+			}
+			return preco;
+		};
+	}
+
+	/**
+	 * @return Dias até a validade (Long.MAX_VALUE para não perecíveis)
+	 * @throws IllegalArgumentException se o produto estiver vencido
+	 */
+	private static long verificarValidade(Produto produto, long dia) {
+
+		if (!(produto instanceof ProdutoPerecivel)) {
+			return Long.MAX_VALUE;
+		}
+		long diasRestantes = ((ProdutoPerecivel) produto).getDataDeValidade().toEpochDay() - dia;
+		if (diasRestantes < 0) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		return diasRestantes;
+	}
+
+	private static AvaliadorProduto compilarDescricao(AvaliadorProduto anterior, RegraPreco[] regras) {
+
+		if (regras.length == 0) {
+			return anterior;
+		}
+
+		final String[] prefixos = new String[regras.length];
+		final double[] fatores = new double[regras.length];
+		for (int i = 0; i < regras.length; i++) {
+			prefixos[i] = regras[i].getParametro().toLowerCase(Locale.ROOT);
+			fatores[i] = 1.0 - regras[i].getDesconto();
+		}
+
+		return (produto, dia) -> {
+			double preco = anterior.valorDeVenda(produto, dia);
+			String descricao = produto.getDescricao();
+			for (int i = 0; i < prefixos.length; i++) {
+				if (descricao.regionMatches(true, 0, prefixos[i], 0, prefixos[i].length())) {
+					preco *= fatores[i];
+				}
+			}
+			return preco;
+		};
+	}
+
+	/** Tabela de fatores das regras de pagamento, indexada pela forma de pagamento. */
+	private static double[] fatoresPorForma(RegraPreco[] regras) {
+
+		RegraPreco[] regrasPagamento = filtrar(regras, RegraPreco.Tipo.PAGAMENTO);
+		int maiorForma = 2;
+		for (RegraPreco regra : regrasPagamento) {
+			maiorForma = Math.max(maiorForma, Integer.parseInt(regra.getParametro()));
+		}
+
+		double[] fatorPorForma = new double[maiorForma + 1];
+		Arrays.fill(fatorPorForma, 1.0);
+		for (RegraPreco regra : regrasPagamento) {
+			fatorPorForma[Integer.parseInt(regra.getParametro())] *= 1.0 - regra.getDesconto();
+		}
+		return fatorPorForma;
+	}
+
+	/**
+	 * Soma os preços de venda e aplica o fator da forma de pagamento, obtido de uma tabela
+	 * indexada pela forma. Arredonda como {@link Pedido#valorFinal()}.
+	 */
+	private static AvaliadorPedido compilarPedido(double[] fatorPorForma, AvaliadorProduto avaliadorProduto) {
+
+		return (pedido, dia) -> {
+			Produto[] produtos = pedido.getProdutos();
+			double valor = 0;
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				valor += avaliadorProduto.valorDeVenda(produtos[i], dia);
+			}
+			int forma = pedido.getFormaDePagamento();
+			return Pedido.arredondarCentavos(valor * (forma >= 0 && forma < fatorPorForma.length ? fatorPorForma[forma] : 1.0));
+		};
+	}
+
+	private static RegraPreco[] filtrar(RegraPreco[] regras, RegraPreco.Tipo tipo) {
+		return Arrays.stream(regras).filter(regra -> regra.getTipo() == tipo).toArray(RegraPreco[]::new);
+	}
+}
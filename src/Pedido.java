@@ -1,19 +1,20 @@
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Pedido implements Comparable<Pedido>{
 
-	private static int ultimoID = 1;
+	/** Gerador dos identificadores. Atômico para permitir a criação concorrente de pedidos. */
+	private static final AtomicInteger ultimoID = new AtomicInteger(1);
 	
 	private int idPedido;
 	
 	/** Quantidade máxima de produtos de um pedido */
-	private static final int MAX_PRODUTOS = 10;
+	static final int MAX_PRODUTOS = 10;
 	
 	/** Porcentagem de desconto para pagamentos à vista */
-	private static final double DESCONTO_PG_A_VISTA = 0.15;
+	static final double DESCONTO_PG_A_VISTA = 0.15;
 	
 	/** Vetor para armazenar os produtos do pedido */
 	private Produto[] produtos;
@@ -33,7 +34,7 @@ public class Pedido implements Comparable<Pedido>{
 	 */  
 	public Pedido(LocalDate dataPedido, int formaDePagamento) {
 		
-		idPedido = ultimoID++;
+		idPedido = ultimoID.getAndIncrement();
 		produtos = new Produto[MAX_PRODUTOS];
 		quantProdutos = 0;
 		this.dataPedido = dataPedido;
@@ -54,6 +55,20 @@ public class Pedido implements Comparable<Pedido>{
 		return false;
 	}
 	
+	/**
+     * Remove o último produto incluído neste pedido e diminui a quantidade de produtos armazenados.
+     * @return O produto removido, ou null se o pedido não tiver produtos.
+     */
+	public Produto removerUltimoProduto() {
+		
+		if (quantProdutos == 0) {
+			return null;
+		}
+		Produto removido = produtos[--quantProdutos];
+		produtos[quantProdutos] = null;
+		return removido;
+	}
+	
 	/**
      * Calcula e retorna o valor final do pedido (soma do valor de venda de todos os produtos do pedido).
      * Caso a forma de pagamento do pedido seja à vista, aplica o desconto correspondente.
@@ -79,6 +94,23 @@ public class Pedido implements Comparable<Pedido>{
         return valorPedidoBD.doubleValue();
 	}
 	
+	/**
+	 * Arredonda um valor para 2 casas decimais (HALF_UP), com o mesmo resultado de {@link #valorFinal()}.
+	 * Só recorre ao BigDecimal quando o valor está muito próximo da metade de um centavo.
+	 * @param valor Valor a ser arredondado
+	 * @return Valor arredondado em centavos
+	 */
+	static double arredondarCentavos(double valor) {
+		
+		double centavos = valor * 100.0;
+		double fracao = centavos - Math.floor(centavos);
+		
+		if (Math.abs(fracao - 0.5) < 1e-6) {
+			return new BigDecimal(Double.toString(valor)).setScale(2, RoundingMode.HALF_UP).doubleValue();
+		}
+		return Math.round(centavos) / 100.0;
+	}
+	
 	/**
      * Representação, em String, do pedido.
      * Contém um cabeçalho com seu código identificador, sua data e o número de produtos no pedido.
@@ -102,20 +134,23 @@ public class Pedido implements Comparable<Pedido>{
 		
 		StringBuilder stringPedido = new StringBuilder();
 		
-		stringPedido.append(String.format("Número do pedido: %02d\n", idPedido));
+		stringPedido.append("Número do pedido: ");
+		if (idPedido < 10) {
+			stringPedido.append('0');
+		}
+		stringPedido.append(idPedido).append('\n');
 		
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		stringPedido.append("Data do pedido: " + formatoData.format(dataPedido) + "\n");
+		stringPedido.append("Data do pedido: ").append(Produto.FORMATO_DATA.format(dataPedido)).append('\n');
 		
-		stringPedido.append("Pedido com " + quantProdutos + " produtos.\n");
+		stringPedido.append("Pedido com ").append(quantProdutos).append(" produtos.\n");
 		stringPedido.append("Produtos no pedido:\n");
 		for (int i = 0; i < quantProdutos; i++ ) {
-			stringPedido.append(produtos[i].toString() + "\n");
+			stringPedido.append(produtos[i].toString()).append('\n');
 		}
 		
 		stringPedido.append("Pedido pago ");
 		if (formaDePagamento == 1) {
-			stringPedido.append("à vista. Percentual de desconto: " + String.format("%.2f", DESCONTO_PG_A_VISTA * 100) + "%\n");
+			stringPedido.append("à vista. Percentual de desconto: ").append(String.format("%.2f", DESCONTO_PG_A_VISTA * 100)).append("%\n");
 		} else {
 			stringPedido.append("parcelado.\n");
 		}
@@ -156,6 +191,10 @@ public class Pedido implements Comparable<Pedido>{
     	return quantProdutos;
     }
     
+    public int getFormaDePagamento() {
+    	return formaDePagamento;
+    }
+    
     public Produto[] getProdutos() {
     	return produtos;
     }
@@ -5,11 +5,25 @@ public class Pilha<E> {
 	private Celula<E> topo;
 	private Celula<E> fundo;
 
+	/** Células livres para reaproveitamento, ou null se a reciclagem estiver desligada */
+	private final ReservaCelulas<E> reserva;
+
 	public Pilha() {
+		this(false);
+	}
+
+	/**
+	 * Cria a pilha vazia.
+	 *
+	 * @param reciclarCelulas Se true, as células desempilhadas são guardadas e reaproveitadas
+	 *                        nos próximos empilhamentos, em vez de alocar uma célula por item.
+	 */
+	public Pilha(boolean reciclarCelulas) {
 
 		Celula<E> sentinela = new Celula<E>();
 		fundo = sentinela;
 		topo = sentinela;
+		reserva = reciclarCelulas ? new ReservaCelulas<>(ReservaCelulas.CAPACIDADE_PADRAO) : null;
 
 	}
 
@@ -19,13 +33,17 @@ public class Pilha<E> {
 
 	public void empilhar(E item) {
 
-		topo = new Celula<E>(item, topo);
+		topo = (reserva == null) ? new Celula<E>(item, topo) : reserva.obter(item, topo);
 	}
 
 	public E desempilhar() {
 
 		E desempilhado = consultarTopo();
+		Celula<E> antigo = topo;
 		topo = topo.getProximo();
+		if (reserva != null) {
+			reserva.devolver(antigo);
+		}
 		return desempilhado;
 
 	}
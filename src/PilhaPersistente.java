@@ -0,0 +1,126 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pilha persistente (imutável): empilhar e desempilhar não alteram a pilha, e sim devolvem uma
+ * nova pilha, em O(1), que compartilha as células da original. Empilhar cria uma só célula, que
+ * aponta para o topo antigo; desempilhar devolve a pilha que começa na célula seguinte. Qualquer
+ * versão pode ser guardada e percorrida por várias threads ao mesmo tempo sem cópia nem
+ * bloqueio, pois as células, depois de ligadas, nunca são alteradas.
+ *
+ * Diferente de {@link Pilha}, não há célula sentinela: a pilha vazia tem topo null.
+ *
+ * @param <E> Tipo dos elementos armazenados
+ */
+public final class PilhaPersistente<E> implements Iterable<E> {
+
+	private final Celula<E> topo;
+	private final int tamanho;
+
+	/**
+	 * Cria a pilha vazia.
+	 */
+	public PilhaPersistente() {
+		this(null, 0);
+	}
+
+	private PilhaPersistente(Celula<E> topo, int tamanho) {
+		this.topo = topo;
+		this.tamanho = tamanho;
+	}
+
+	public boolean vazia() {
+		return topo == null;
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * @param item Elemento a ser empilhado
+	 * @return Uma nova pilha com o item no topo, sobre as células desta
+	 */
+	public PilhaPersistente<E> empilhar(E item) {
+		return new PilhaPersistente<>(new Celula<>(item, topo), tamanho + 1);
+	}
+
+	/**
+	 * @return Uma nova pilha, sem o elemento do topo (compartilha as células restantes)
+	 * @throws NoSuchElementException se a pilha estiver vazia
+	 */
+	public PilhaPersistente<E> desempilhar() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return new PilhaPersistente<>(topo.getProximo(), tamanho - 1);
+	}
+
+	public E consultarTopo() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return topo.getItem();
+	}
+
+	/**
+	 * @return Uma nova pilha com os mesmos elementos em ordem inversa, em O(n) (não compartilha
+	 *         células com esta)
+	 */
+	public PilhaPersistente<E> invertida() {
+		return empilharTodos(new PilhaPersistente<>());
+	}
+
+	/**
+	 * Coloca os elementos desta pilha sobre outra, em O(n) para n elementos desta pilha: as
+	 * células desta são copiadas, e as da outra são compartilhadas.
+	 *
+	 * @param base Pilha que fica embaixo
+	 * @return Uma nova pilha com os elementos desta, na mesma ordem, sobre os da base
+	 */
+	public PilhaPersistente<E> sobre(PilhaPersistente<E> base) {
+
+		if (vazia()) {
+			return base;
+		}
+		return invertida().empilharTodos(base);
+	}
+
+	/** Empilha sobre a pilha informada os elementos desta, do topo para o fundo. */
+	private PilhaPersistente<E> empilharTodos(PilhaPersistente<E> destino) {
+
+		Celula<E> novoTopo = destino.topo;
+		for (Celula<E> atual = topo; atual != null; atual = atual.getProximo()) {
+			novoTopo = new Celula<>(atual.getItem(), novoTopo);
+		}
+		return new PilhaPersistente<>(novoTopo, destino.tamanho + tamanho);
+	}
+
+	/**
+	 * Percorre os elementos do topo para o fundo.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private Celula<E> atual = topo;
+
+			@Override
+			public boolean hasNext() {
+				return atual != null;
+			}
+
+			@Override
+			public E next() {
+				if (atual == null) {
+					throw new NoSuchElementException("Não há mais itens na pilha!");
+				}
+				E item = atual.getItem();
+				atual = atual.getProximo();
+				return item;
+			}
+		};
+	}
+}
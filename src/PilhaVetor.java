@@ -0,0 +1,88 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Pilha (LIFO - Last In, First Out) de capacidade fixa, armazenada em um vetor alocado uma única
+ * vez na criação. Empilhar e desempilhar não criam objetos, ao contrário da {@link Pilha}
+ * encadeada, que aloca uma célula por elemento.
+ *
+ * @param <E> Tipo dos elementos armazenados na pilha
+ */
+public class PilhaVetor<E> {
+
+	private final Object[] itens;
+	private int topo;
+
+	/**
+	 * Cria a pilha vazia.
+	 *
+	 * @param capacidade Quantidade máxima de elementos (mínimo 1)
+	 */
+	public PilhaVetor(int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("A pilha deve ter capacidade de pelo menos um item!");
+		}
+		itens = new Object[capacidade];
+	}
+
+	public boolean vazia() {
+		return topo == 0;
+	}
+
+	public boolean cheia() {
+		return topo == itens.length;
+	}
+
+	public int tamanho() {
+		return topo;
+	}
+
+	/**
+	 * Empilha um elemento.
+	 *
+	 * @param item O elemento a ser empilhado
+	 * @throws IllegalStateException se a pilha estiver cheia
+	 */
+	public void empilhar(E item) {
+
+		if (cheia()) {
+			throw new IllegalStateException("A pilha está cheia!");
+		}
+		itens[topo++] = item;
+	}
+
+	/**
+	 * Remove e retorna o elemento do topo.
+	 *
+	 * @return O elemento removido
+	 * @throws NoSuchElementException se a pilha estiver vazia
+	 */
+	public E desempilhar() {
+
+		E desempilhado = consultarTopo();
+		itens[--topo] = null;
+		return desempilhado;
+	}
+
+	/**
+	 * Consulta o elemento do topo sem removê-lo.
+	 *
+	 * @return O elemento do topo
+	 * @throws NoSuchElementException se a pilha estiver vazia
+	 */
+	@SuppressWarnings("unchecked")
+	public E consultarTopo() {
+
+		if (vazia()) {
+			throw new NoSuchElementException("Nao há nenhum item na pilha!");
+		}
+		return (E) itens[topo - 1];
+	}
+
+	/** Esvazia a pilha, mantendo o vetor para reutilização. */
+	public void limpar() {
+		while (topo > 0) {
+			itens[--topo] = null;
+		}
+	}
+}
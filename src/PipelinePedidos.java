@@ -0,0 +1,359 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Processamento de pedidos em etapas encadeadas, por exemplo:
+ * validação → precificação → reserva de estoque → atendimento.
+ *
+ * Cada etapa tem o seu grupo de threads e lê os pedidos de uma {@link FilaBloqueante} limitada,
+ * em lotes; os pedidos aprovados seguem, também em lote, para a fila da próxima etapa. Quando uma
+ * etapa é mais lenta que a anterior, a fila entre elas enche e a anterior passa a esperar, e as
+ * estatísticas mostram qual etapa é o gargalo (utilização perto de 100% e fila de entrada cheia).
+ * Basta então dar mais threads a ela.
+ *
+ * As etapas são definidas por {@link Processador}es; as de {@link #padrao(int, int, int)} são
+ * implementações locais simples ({@link #VALIDAR}, {@link #PRECIFICAR}, {@link #RESERVAR_ESTOQUE}
+ * e {@link #ATENDER}) que podem ser substituídas montando o pipeline com
+ * {@link #etapa(String, int, int, Processador)}. Um processador que lança exceção rejeita o
+ * pedido.
+ */
+public class PipelinePedidos {
+
+	/** Processamento de um pedido em uma etapa. */
+	@FunctionalInterface
+	public interface Processador {
+
+		/**
+		 * @param pedido O pedido a ser processado
+		 * @return true se o pedido segue para a próxima etapa; false se é rejeitado
+		 */
+		boolean processar(Pedido pedido);
+	}
+
+	/** Aprova pedidos com pelo menos um produto e forma de pagamento válida (1 ou 2). */
+	public static final Processador VALIDAR = pedido -> pedido.getQuantosProdutos() > 0
+			&& (pedido.getFormaDePagamento() == 1 || pedido.getFormaDePagamento() == 2);
+
+	/** Calcula o valor final do pedido; rejeita os de valor inválido. */
+	public static final Processador PRECIFICAR = pedido -> {
+		double valor = App.valorFinal(pedido);
+		return valor > 0 && !Double.isInfinite(valor);
+	};
+
+	/** Implementação local da reserva de estoque: aprova todos os pedidos. */
+	public static final Processador RESERVAR_ESTOQUE = pedido -> true;
+
+	/** Implementação local do atendimento: aprova todos os pedidos. */
+	public static final Processador ATENDER = pedido -> true;
+
+	/** Espera máxima, em milissegundos, por um lote na fila de entrada de uma etapa */
+	private static final long ESPERA_LOTE_MS = 100;
+
+	private final int capacidadeFilas;
+	private final List<Etapa> etapas;
+	private final HistogramaLatencia pontaAPonta;
+	private final LongAdder concluidos;
+	private Consumer<Pedido> aoConcluir;
+	private FilaBloqueante<Item> entrada;
+	private long inicio;
+
+	/**
+	 * Cria o pipeline, sem etapas.
+	 *
+	 * @param capacidadeFilas Capacidade de cada fila entre etapas (e da fila de entrada)
+	 */
+	public PipelinePedidos(int capacidadeFilas) {
+		this.capacidadeFilas = capacidadeFilas;
+		this.etapas = new ArrayList<>();
+		this.pontaAPonta = new HistogramaLatencia("ponta a ponta");
+		this.concluidos = new LongAdder();
+		this.aoConcluir = pedido -> {
+		};
+	}
+
+	/**
+	 * Cria o pipeline com as quatro etapas locais: validação, precificação, reserva de estoque
+	 * e atendimento.
+	 *
+	 * @param capacidadeFilas Capacidade de cada fila entre etapas
+	 * @param trabalhadores   Threads por etapa
+	 * @param tamanhoLote     Pedidos por lote
+	 * @return O pipeline, ainda não iniciado
+	 */
+	public static PipelinePedidos padrao(int capacidadeFilas, int trabalhadores, int tamanhoLote) {
+		return new PipelinePedidos(capacidadeFilas)
+				.etapa("validação", trabalhadores, tamanhoLote, VALIDAR)
+				.etapa("precificação", trabalhadores, tamanhoLote, PRECIFICAR)
+				.etapa("reserva de estoque", trabalhadores, tamanhoLote, RESERVAR_ESTOQUE)
+				.etapa("atendimento", trabalhadores, tamanhoLote, ATENDER);
+	}
+
+	/**
+	 * Acrescenta uma etapa ao final do pipeline. Deve ser chamado antes de {@link #iniciar()}.
+	 *
+	 * @param nome          Nome da etapa, usado nas estatísticas
+	 * @param trabalhadores Quantidade de threads da etapa (mínimo 1)
+	 * @param tamanhoLote   Quantidade máxima de pedidos por lote (1 a capacidadeFilas)
+	 * @param processador   Processamento de cada pedido
+	 * @return Este pipeline
+	 */
+	public PipelinePedidos etapa(String nome, int trabalhadores, int tamanhoLote, Processador processador) {
+
+		if (entrada != null) {
+			throw new IllegalStateException("O pipeline já foi iniciado!");
+		}
+		if (trabalhadores < 1 || tamanhoLote < 1 || tamanhoLote > capacidadeFilas) {
+			throw new IllegalArgumentException("Quantidade de threads ou tamanho de lote inválido para a etapa " + nome);
+		}
+		etapas.add(new Etapa(nome, trabalhadores, tamanhoLote, processador));
+		return this;
+	}
+
+	/**
+	 * Define a ação executada para cada pedido que conclui todas as etapas (pelas threads da
+	 * última etapa). Deve ser chamado antes de {@link #iniciar()}. Se a ação lançar exceção, o
+	 * pedido é contado como rejeitado na última etapa.
+	 *
+	 * @param aoConcluir Ação sobre o pedido concluído
+	 * @return Este pipeline
+	 */
+	public PipelinePedidos aoConcluir(Consumer<Pedido> aoConcluir) {
+		this.aoConcluir = aoConcluir;
+		return this;
+	}
+
+	/**
+	 * Cria as filas entre as etapas e inicia as threads.
+	 *
+	 * @return Este pipeline
+	 */
+	public PipelinePedidos iniciar() {
+
+		if (etapas.isEmpty()) {
+			throw new IllegalStateException("O pipeline não tem etapas!");
+		}
+
+		entrada = new FilaBloqueante<>(capacidadeFilas);
+		FilaBloqueante<Item> fila = entrada;
+		for (int i = 0; i < etapas.size(); i++) {
+			FilaBloqueante<Item> saida = (i == etapas.size() - 1) ? null : new FilaBloqueante<>(capacidadeFilas);
+			etapas.get(i).ligar(fila, saida);
+			fila = saida;
+		}
+
+		inicio = System.nanoTime();
+		for (Etapa etapa : etapas) {
+			etapa.iniciar();
+		}
+		return this;
+	}
+
+	/**
+	 * Envia um pedido à primeira etapa, esperando se a fila de entrada estiver cheia.
+	 *
+	 * @param pedido O pedido
+	 * @throws IllegalStateException se o pipeline não foi iniciado ou já foi encerrado
+	 * @throws InterruptedException  se a thread for interrompida durante a espera
+	 */
+	public void receber(Pedido pedido) throws InterruptedException {
+
+		if (entrada == null) {
+			throw new IllegalStateException("O pipeline não foi iniciado!");
+		}
+		entrada.enfileirar(new Item(pedido));
+	}
+
+	/**
+	 * Fecha a entrada e espera que todos os pedidos já recebidos passem por todas as etapas.
+	 *
+	 * @throws InterruptedException se a thread for interrompida durante a espera
+	 */
+	public void encerrar() throws InterruptedException {
+
+		entrada.fechar();
+		for (Etapa etapa : etapas) {
+			etapa.grupo.shutdown();
+			etapa.grupo.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/** @return Quantidade de pedidos que concluíram todas as etapas */
+	public long getConcluidos() {
+		return concluidos.sum();
+	}
+
+	/**
+	 * Estatísticas de cada etapa desde o início: pedidos processados e rejeitados, vazão,
+	 * utilização das threads, ocupação da fila de entrada e latência por pedido; e a latência
+	 * ponta a ponta dos pedidos concluídos.
+	 *
+	 * @return O relatório, uma linha por etapa
+	 */
+	public String relatorio() {
+
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		StringBuilder relatorio = new StringBuilder();
+
+		relatorio.append(String.format("%-20s %4s %10s %10s %12s %7s %13s  %s%n", "etapa", "thr", "processados",
+				"rejeitados", "pedidos/s", "uso", "fila", "latência por pedido"));
+		for (Etapa etapa : etapas) {
+			long processados = etapa.processados.sum();
+			double utilizacao = etapa.ocupado.sum() / 1e9 / (segundos * etapa.trabalhadores);
+			relatorio.append(String.format("%-20s %4d %10d %10d %12.0f %6.1f%% %6d/%-6d  %s%n", etapa.nome,
+					etapa.trabalhadores, processados, etapa.rejeitados.sum(), processados / segundos,
+					utilizacao * 100, etapa.entrada.tamanho(), etapa.entrada.getCapacidade(),
+					etapa.porPedido.resumo()));
+		}
+		relatorio.append(String.format("concluídos: %d (%.0f pedidos/s) - %s%n", concluidos.sum(),
+				concluidos.sum() / segundos, pontaAPonta.resumo()));
+		return relatorio.toString();
+	}
+
+	/** Pedido em trânsito no pipeline, com o instante de entrada. */
+	private static class Item {
+
+		private final Pedido pedido;
+		private final long entrada;
+		private boolean rejeitado;
+
+		Item(Pedido pedido) {
+			this.pedido = pedido;
+			this.entrada = System.nanoTime();
+		}
+	}
+
+	/** Etapa do pipeline: um processador, o seu grupo de threads e as suas filas. */
+	private class Etapa {
+
+		private final String nome;
+		private final int trabalhadores;
+		private final int tamanhoLote;
+		private final Processador processador;
+
+		private final LongAdder processados = new LongAdder();
+		private final LongAdder rejeitados = new LongAdder();
+		private final LongAdder ocupado = new LongAdder();
+		private final HistogramaLatencia porPedido;
+
+		private FilaBloqueante<Item> entrada;
+		private FilaBloqueante<Item> saida;
+		private ExecutorService grupo;
+		private final AtomicInteger ativos = new AtomicInteger();
+
+		Etapa(String nome, int trabalhadores, int tamanhoLote, Processador processador) {
+			this.nome = nome;
+			this.trabalhadores = trabalhadores;
+			this.tamanhoLote = tamanhoLote;
+			this.processador = processador;
+			this.porPedido = new HistogramaLatencia(nome);
+		}
+
+		void ligar(FilaBloqueante<Item> entrada, FilaBloqueante<Item> saida) {
+			this.entrada = entrada;
+			this.saida = saida;
+		}
+
+		void iniciar() {
+
+			AtomicInteger numero = new AtomicInteger();
+			grupo = Executors.newFixedThreadPool(trabalhadores, tarefa -> {
+				Thread thread = new Thread(tarefa, "pipeline-" + nome + "-" + numero.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			ativos.set(trabalhadores);
+			for (int i = 0; i < trabalhadores; i++) {
+				grupo.execute(this::trabalhar);
+			}
+		}
+
+		/** Laço de cada thread: lê um lote, processa os pedidos e envia os aprovados adiante. */
+		private void trabalhar() {
+
+			Fila<Item> lote = new Fila<>();
+			Fila<Item> aprovados = new Fila<>();
+
+			try {
+				int quantos;
+				while ((quantos = entrada.desenfileirarLote(lote, tamanhoLote, ESPERA_LOTE_MS)) >= 0) {
+					if (quantos == 0) {
+						continue;
+					}
+
+					long inicioLote = System.nanoTime();
+					long anterior = inicioLote;
+					int rejeitadosLote = 0;
+					for (Item item : lote) {
+						try {
+							item.rejeitado = !processador.processar(item.pedido);
+						} catch (RuntimeException e) {
+							item.rejeitado = true;
+						}
+						long agora = System.nanoTime();
+						porPedido.registrar(agora - anterior);
+						anterior = agora;
+						if (item.rejeitado) {
+							rejeitadosLote++;
+						}
+					}
+
+					// Sem rejeições (o caso comum), o lote segue inteiro, em O(1)
+					Fila<Item> seguir = lote;
+					if (rejeitadosLote > 0) {
+						while (!lote.vazia()) {
+							Item item = lote.desenfileirar();
+							if (!item.rejeitado) {
+								aprovados.enfileirar(item);
+							}
+						}
+						seguir = aprovados;
+					}
+
+					processados.add(quantos);
+					rejeitados.add(rejeitadosLote);
+					ocupado.add(anterior - inicioLote);
+					concluir(seguir);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				// A última thread a sair fecha a fila da próxima etapa, propagando o encerramento
+				if (ativos.decrementAndGet() == 0 && saida != null) {
+					saida.fechar();
+				}
+			}
+		}
+
+		/**
+		 * Envia os itens à próxima etapa ou, na última etapa, conclui os pedidos. Um pedido cuja
+		 * ação de conclusão lança exceção é contado como rejeitado nesta etapa, sem interromper a
+		 * thread.
+		 */
+		private void concluir(Fila<Item> itens) throws InterruptedException {
+
+			if (saida != null) {
+				saida.enfileirarLote(itens);
+				return;
+			}
+
+			long agora = System.nanoTime();
+			while (!itens.vazia()) {
+				Item item = itens.desenfileirar();
+				pontaAPonta.registrar(agora - item.entrada);
+				try {
+					aoConcluir.accept(item.pedido);
+				} catch (RuntimeException e) {
+					rejeitados.increment();
+					continue;
+				}
+				concluidos.increment();
+			}
+		}
+	}
+}
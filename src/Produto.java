@@ -5,10 +5,32 @@ import java.time.format.DateTimeFormatter;
 public abstract class Produto implements Comparable<Produto>{
 	
 	private static final double MARGEM_PADRAO = 0.2;
+	
+	/** Formatador de moeda, reaproveitado entre chamadas (NumberFormat não é thread-safe, daí um por thread) */
+	private static final ThreadLocal<NumberFormat> MOEDA = ThreadLocal.withInitial(NumberFormat::getCurrencyInstance);
 	private static int ultimoID = 10_000;
 	
+	/** Formato das datas nos dados em texto e nas descrições: dd/MM/yyyy */
+	static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	/**
+	 * Armazém onde as descrições dos novos produtos são gravadas, fora do heap. Ligado com
+	 * -DdescricoesForaDoHeap=true; null (descrições em String, no heap) caso contrário.
+	 */
+	private static ArmazemDescricoes armazemDescricoes =
+			Boolean.getBoolean("descricoesForaDoHeap") ? new ArmazemDescricoes() : null;
+	
 	protected int idProduto;
-	protected String descricao;
+	
+	/** Descrição, ou null se ela estiver no armazém de descrições */
+	private String descricao;
+	
+	/** Armazém onde está a descrição, ou null se ela estiver em {@link #descricao} */
+	private ArmazemDescricoes armazem;
+	
+	/** Referência da descrição no armazém */
+	private long referenciaDescricao;
+	
 	protected double precoCusto;
 	protected double margemLucro;
 	
@@ -22,7 +44,12 @@ public abstract class Produto implements Comparable<Produto>{
 	private void init(String desc, double precoCusto, double margemLucro) {
 		
 		if ((desc.length() >= 3) && (precoCusto > 0.0) && (margemLucro > 0.0)) {
-			descricao = desc;
+			armazem = armazemDescricoes;
+			if (armazem == null) {
+				descricao = desc;
+			} else {
+				referenciaDescricao = armazem.armazenar(desc);
+			}
 			this.precoCusto = precoCusto;
 			this.margemLucro = margemLucro;
 			idProduto = ultimoID++;
@@ -31,6 +58,15 @@ public abstract class Produto implements Comparable<Produto>{
 		}
 	}
 	
+	/**
+	 * Define o armazém onde serão gravadas as descrições dos produtos criados a partir de agora.
+	 * Os produtos já criados não são alterados.
+	 * @param armazem Armazém de descrições, ou null para manter as descrições no heap
+	 */
+	static void armazenarDescricoesEm(ArmazemDescricoes armazem) {
+		armazemDescricoes = armazem;
+	}
+	
 	/**
      * Construtor completo. Os valores default, em caso de erro, são:
      * "Produto sem descrição", R$ 0.00, 0.0  
@@ -67,9 +103,7 @@ public abstract class Produto implements Comparable<Produto>{
     @Override
 	public String toString() {
     	
-    	NumberFormat moeda = NumberFormat.getCurrencyInstance();
-    	
-		return String.format("NOME: " + descricao + ": " + moeda.format(valorDeVenda()));
+		return "NOME: " + getDescricao() + ": " + MOEDA.get().format(valorDeVenda());
 	}
     
     @Override
@@ -96,6 +130,29 @@ public abstract class Produto implements Comparable<Produto>{
         }
     }
     
+    /**
+     * Descrição do produto. Se ela estiver no armazém de descrições, é decodificada a cada chamada.
+     * @return A descrição
+     */
+    public String getDescricao() {
+    	return (armazem == null) ? descricao : armazem.decodificar(referenciaDescricao);
+    }
+    
+    /**
+     * Compara a descrição do produto com um texto, sem distinção de maiúsculas (como
+     * String.equalsIgnoreCase). Se a descrição estiver no armazém de descrições, a comparação é
+     * feita sobre os bytes gravados, sem decodificá-la.
+     * @param texto Texto a ser comparado
+     * @param textoUtf8 Bytes UTF-8 do texto, calculados uma vez para várias comparações
+     * @return true se a descrição for igual ao texto, sem distinção de maiúsculas
+     */
+    public boolean descricaoIgualIgnorandoCaso(String texto, byte[] textoUtf8) {
+    	if (armazem == null) {
+    		return descricao.equalsIgnoreCase(texto);
+    	}
+    	return armazem.igualIgnorandoCaso(referenciaDescricao, textoUtf8, texto);
+    }
+    
     @Override
     /**
      * Comparação padrão do produto: identificador/hash code.
@@ -136,8 +193,7 @@ public abstract class Produto implements Comparable<Produto>{
     	precoCusto = Double.parseDouble(dadosLinha[2].replace(",", "."));
         margemLucro = Double.parseDouble(dadosLinha[3].replace(",", "."));
         if (tipo == 2) {
-    		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    		dataDeValidade = LocalDate.parse(dadosLinha[4], formatoData);
+    		dataDeValidade = LocalDate.parse(dadosLinha[4], FORMATO_DATA);
     		produto = new ProdutoPerecivel(descricao, precoCusto, margemLucro, dataDeValidade);
     	} else {
     		produto = new ProdutoNaoPerecivel(descricao, precoCusto, margemLucro);
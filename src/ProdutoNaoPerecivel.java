@@ -40,6 +40,6 @@ public class ProdutoNaoPerecivel extends Produto{
 		String precoCustoFormatado = String.format("%.2f", precoCusto).replaceAll(",", ".");
 		String margemLucroFormatada = String.format("%.2f", margemLucro).replaceAll(",", ".");
 		
-		return String.format("1;%s;%s;%s", descricao, precoCustoFormatado, margemLucroFormatada);
+		return String.format("1;%s;%s;%s", getDescricao(), precoCustoFormatado, margemLucroFormatada);
     }
 }
@@ -1,13 +1,13 @@
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 public class ProdutoPerecivel extends Produto{
 
 	/** Desconto para proximidade de validade: 25% */
-	private static final double DESCONTO = 0.25;
+	static final double DESCONTO = 0.25;
 	
 	/** Prazo, em dias, para conceder o desconto por proximidade da validade */
-	private static final int PRAZO_DESCONTO = 7;
+	static final int PRAZO_DESCONTO = 7;
 	
 	/** Data de validade do produto. Não pode ser anterior à data da criação ou venda do produto. */
 	private LocalDate dataDeValidade;
@@ -64,13 +64,17 @@ public class ProdutoPerecivel extends Produto{
 		
 		precoVenda = (precoCusto * (1.0 + margemLucro));
 				
-		if (LocalDate.now().until(dataDeValidade).getDays() <= PRAZO_DESCONTO) {
+		if (ChronoUnit.DAYS.between(LocalDate.now(), dataDeValidade) <= PRAZO_DESCONTO) {
 			precoVenda = precoVenda * (1.0 - DESCONTO);
 		}
 		
 		return precoVenda;
 	}
 	
+	public LocalDate getDataDeValidade() {
+		return dataDeValidade;
+	}
+	
 	/**
      * Descrição, em string, do produto, contendo sua descrição, o valor de venda e sua data de validade.
      *  @return String com o formato:
@@ -80,12 +84,7 @@ public class ProdutoPerecivel extends Produto{
     @Override
     public String toString(){
     	
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        
-        String dados = super.toString();
-        dados += "\nVálido até " + formato.format(dataDeValidade);
-        
-        return dados;
+        return super.toString() + "\nVálido até " + FORMATO_DATA.format(dataDeValidade);
     }
     
     /**
@@ -98,10 +97,9 @@ public class ProdutoPerecivel extends Produto{
     
 		String precoCustoFormatado = String.format("%.2f", precoCusto).replaceAll(",", ".");
 		String margemLucroFormatada = String.format("%.2f", margemLucro).replaceAll(",", ".");
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		String dataFormatada = formatoData.format(dataDeValidade);
+		String dataFormatada = FORMATO_DATA.format(dataDeValidade);
 		
-		return String.format("2;%s;%s;%s;%s", descricao, precoCustoFormatado, margemLucroFormatada, dataFormatada);
+		return String.format("2;%s;%s;%s;%s", getDescricao(), precoCustoFormatado, margemLucroFormatada, dataFormatada);
 		
 	}
 }
@@ -0,0 +1,249 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Acompanha o arquivo de produtos e, a cada alteração, aplica a diferença ao catálogo em uso,
+ * sem reiniciar a aplicação.
+ *
+ * A diferença é calculada linha a linha, identificando cada produto pela descrição:
+ * <ul>
+ * <li>linha igual à anterior: o mesmo objeto {@link Produto} é mantido, com o mesmo código;</li>
+ * <li>linha alterada (preço, margem, validade ou tipo): um novo produto é criado com o código do
+ * anterior;</li>
+ * <li>descrição nova: um novo produto é criado, com um novo código;</li>
+ * <li>descrição ausente: o produto sai do catálogo.</li>
+ * </ul>
+ * O novo catálogo é montado à parte e publicado de uma só vez (ver {@link CatalogoProdutos});
+ * quem lê o catálogo nunca espera pela recarga. Pedidos já criados continuam referenciando os
+ * objetos de produto que receberam, inclusive os retirados ou alterados.
+ *
+ * Se o arquivo estiver incompleto ou inválido (por exemplo, ainda sendo gravado), a recarga é
+ * descartada e o catálogo em uso permanece; a próxima alteração do arquivo gera nova tentativa.
+ */
+public class RecarregadorCatalogo {
+
+	/** Espera após uma alteração, para agrupar as gravações sucessivas de um mesmo salvamento */
+	private static final long ESPERA_MS = 200;
+
+	private final Path arquivo;
+	private final Consumer<CatalogoProdutos> publicar;
+
+	/** Última linha lida de cada produto e o produto criado a partir dela (chave: descrição) */
+	private Map<String, Linha> linhas;
+
+	/**
+	 * Cria o recarregador a partir dos produtos lidos do arquivo no início da aplicação.
+	 *
+	 * @param arquivo  Arquivo de produtos.
+	 * @param produtos Produtos lidos do arquivo, na ordem das linhas.
+	 * @param publicar Recebe cada novo catálogo, para publicá-lo.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public RecarregadorCatalogo(Path arquivo, Produto[] produtos, Consumer<CatalogoProdutos> publicar)
+			throws IOException {
+
+		this.arquivo = arquivo;
+		this.publicar = publicar;
+		this.linhas = new HashMap<>(produtos.length * 2);
+
+		Map<String, Produto> porDescricao = new HashMap<>(produtos.length * 2);
+		for (Produto produto : produtos) {
+			porDescricao.put(produto.getDescricao(), produto);
+		}
+		for (String texto : lerLinhas()) {
+			Produto produto = porDescricao.get(descricao(texto));
+			if (produto != null) {
+				linhas.put(produto.getDescricao(), new Linha(texto, produto));
+			}
+		}
+	}
+
+	/**
+	 * Inicia, em uma thread daemon, o acompanhamento das alterações do arquivo.
+	 *
+	 * @throws IOException se não for possível acompanhar a pasta do arquivo.
+	 */
+	public void iniciar() throws IOException {
+
+		WatchService observador = arquivo.getFileSystem().newWatchService();
+		arquivo.toAbsolutePath().getParent().register(observador, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+
+		Thread thread = new Thread(() -> observar(observador), "recarga-catalogo");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Lê o arquivo, calcula a diferença em relação à última leitura e publica o novo catálogo.
+	 *
+	 * @return Resumo da diferença aplicada.
+	 * @throws IOException              se o arquivo não puder ser lido ou estiver incompleto.
+	 * @throws IllegalArgumentException se alguma linha for inválida.
+	 */
+	public synchronized Diferenca recarregar() throws IOException {
+
+		List<String> textos = lerLinhas();
+		Fila<ValidadorCatalogo.Problema> problemas = ValidadorCatalogo.validar(textos, 2, 1);
+		if (!problemas.vazia()) {
+			throw new IllegalArgumentException(problemas.tamanho() + " linhas inválidas. " + problemas.consultarFrente());
+		}
+		Map<String, Linha> novas = new HashMap<>(textos.size() * 2);
+		Produto[] produtos = new Produto[textos.size()];
+		Diferenca diferenca = new Diferenca();
+
+		for (int i = 0; i < produtos.length; i++) {
+			String texto = textos.get(i);
+			String descricao = descricao(texto);
+			Linha anterior = linhas.get(descricao);
+			Produto produto;
+
+			if (anterior != null && anterior.texto.equals(texto)) {
+				produto = anterior.produto;
+				diferenca.inalterados++;
+			} else {
+				produto = Produto.criarDoTexto(texto);
+				if (anterior != null) {
+					produto.idProduto = anterior.produto.idProduto;
+					diferenca.alterados++;
+				} else {
+					diferenca.adicionados++;
+				}
+			}
+
+			if (novas.put(descricao, new Linha(texto, produto)) != null) {
+				throw new IllegalArgumentException("Produto repetido no arquivo: " + descricao);
+			}
+			produtos[i] = produto;
+		}
+		diferenca.removidos = linhas.size() - (diferenca.inalterados + diferenca.alterados);
+
+		publicar.accept(new CatalogoProdutos(produtos));
+		linhas = novas;
+		return diferenca;
+	}
+
+	private void observar(WatchService observador) {
+
+		Path nome = arquivo.getFileName();
+
+		try {
+			while (true) {
+				if (!alterado(observador.take(), nome)) {
+					continue;
+				}
+
+				// Agrupa as demais alterações de um mesmo salvamento
+				Thread.sleep(ESPERA_MS);
+				WatchKey chave;
+				while ((chave = observador.poll()) != null) {
+					alterado(chave, nome);
+				}
+
+				try {
+					System.out.println("Catálogo recarregado: " + recarregar());
+				} catch (IOException | RuntimeException e) {
+					System.err.println("Recarga do catálogo descartada: " + e.getMessage());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Consome os eventos da chave e informa se algum deles se refere ao arquivo de produtos. */
+	private static boolean alterado(WatchKey chave, Path nome) {
+
+		boolean alterado = false;
+		for (WatchEvent<?> evento : chave.pollEvents()) {
+			if (evento.kind() == StandardWatchEventKinds.OVERFLOW || nome.equals(evento.context())) {
+				alterado = true;
+			}
+		}
+		chave.reset();
+		return alterado;
+	}
+
+	/** Lê as linhas de produtos do arquivo, no formato de {@link App#lerProdutos(String)}. */
+	private List<String> lerLinhas() throws IOException {
+
+		List<String> conteudo = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+		if (conteudo.isEmpty()) {
+			throw new IOException("Arquivo de produtos vazio!");
+		}
+
+		int numProdutos;
+		try {
+			numProdutos = Integer.parseInt(conteudo.get(0).trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("Quantidade de produtos inválida: " + conteudo.get(0));
+		}
+		if (conteudo.size() - 1 < numProdutos) {
+			throw new IOException("Arquivo incompleto: " + (conteudo.size() - 1) + " de " + numProdutos + " produtos.");
+		}
+		return conteudo.subList(1, numProdutos + 1);
+	}
+
+	private static String descricao(String texto) {
+
+		int inicio = texto.indexOf(';') + 1;
+		int fim = texto.indexOf(';', inicio);
+		if (inicio == 0 || fim < 0) {
+			throw new IllegalArgumentException("Linha de produto inválida: " + texto);
+		}
+		return texto.substring(inicio, fim);
+	}
+
+	/** Linha do arquivo e o produto criado a partir dela. */
+	private static class Linha {
+
+		private final String texto;
+		private final Produto produto;
+
+		Linha(String texto, Produto produto) {
+			this.texto = texto;
+			this.produto = produto;
+		}
+	}
+
+	/** Quantidade de produtos adicionados, removidos, alterados e inalterados em uma recarga. */
+	public static class Diferenca {
+
+		int adicionados;
+		int removidos;
+		int alterados;
+		int inalterados;
+
+		public int getAdicionados() {
+			return adicionados;
+		}
+
+		public int getRemovidos() {
+			return removidos;
+		}
+
+		public int getAlterados() {
+			return alterados;
+		}
+
+		public int getInalterados() {
+			return inalterados;
+		}
+
+		@Override
+		public String toString() {
+			return adicionados + " adicionados, " + removidos + " removidos, " + alterados + " alterados, "
+					+ inalterados + " inalterados";
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Regra de promoção configurável, aplicada sobre o preço de custo com margem de lucro dos produtos
+ * ou sobre o total dos pedidos. As regras são lidas de texto e compiladas pelo {@link MotorPrecos}.
+ *
+ * Formato de cada linha: "tipo;parâmetro;percentualDeDesconto". Os tipos são:
+ * <ul>
+ * <li>1 (DESCRICAO): desconto para produtos cuja descrição começa com o parâmetro (sem diferenciar maiúsculas).</li>
+ * <li>2 (VALIDADE): desconto para perecíveis que vencem em até "parâmetro" dias.</li>
+ * <li>3 (PAGAMENTO): desconto no total dos pedidos com a forma de pagamento igual ao parâmetro.</li>
+ * </ul>
+ * Exemplo: "2;7;0.25" reproduz o desconto padrão de {@link ProdutoPerecivel}.
+ */
+public class RegraPreco {
+
+	/** Tipos de regra */
+	public enum Tipo { DESCRICAO, VALIDADE, PAGAMENTO }
+
+	private final Tipo tipo;
+	private final String parametro;
+	private final double desconto;
+
+	/**
+	 * Construtor completo.
+	 * @param tipo Tipo da regra
+	 * @param parametro Prefixo da descrição, prazo em dias ou forma de pagamento, conforme o tipo
+	 * @param desconto Percentual de desconto, entre 0 (exclusive) e 1 (inclusive)
+	 * @throws IllegalArgumentException em caso de parâmetro ou desconto inválidos
+	 */
+	public RegraPreco(Tipo tipo, String parametro, double desconto) {
+
+		if (desconto <= 0.0 || desconto > 1.0) {
+			throw new IllegalArgumentException("Percentual de desconto inválido: " + desconto);
+		}
+		if (tipo == Tipo.VALIDADE && Integer.parseInt(parametro) < 0) {
+			throw new IllegalArgumentException("Prazo de validade inválido: " + parametro);
+		}
+		if (tipo == Tipo.PAGAMENTO && !parametro.equals("1") && !parametro.equals("2")) {
+			throw new IllegalArgumentException("Forma de pagamento inválida: " + parametro);
+		}
+		this.tipo = tipo;
+		this.parametro = parametro;
+		this.desconto = desconto;
+	}
+
+	/**
+	 * Cria uma regra a partir de uma linha no formato "tipo;parâmetro;percentualDeDesconto".
+	 * @param linha Linha com os dados da regra
+	 * @return A regra criada
+	 * @throws IllegalArgumentException se a linha não estiver no formato esperado
+	 */
+	static RegraPreco criarDoTexto(String linha) {
+
+		String[] dadosLinha = linha.split(";");
+		if (dadosLinha.length != 3) {
+			throw new IllegalArgumentException("Regra de preço inválida: " + linha);
+		}
+
+		int tipo = Integer.parseInt(dadosLinha[0].trim());
+		if (tipo < 1 || tipo > Tipo.values().length) {
+			throw new IllegalArgumentException("Tipo de regra de preço inválido: " + tipo);
+		}
+
+		return new RegraPreco(Tipo.values()[tipo - 1], dadosLinha[1].trim(),
+				Double.parseDouble(dadosLinha[2].trim().replace(",", ".")));
+	}
+
+	/** @return As regras equivalentes aos descontos fixos de ProdutoPerecivel e Pedido. */
+	static RegraPreco[] regrasPadrao() {
+		return new RegraPreco[] {
+				new RegraPreco(Tipo.VALIDADE, String.valueOf(ProdutoPerecivel.PRAZO_DESCONTO), ProdutoPerecivel.DESCONTO),
+				new RegraPreco(Tipo.PAGAMENTO, "1", Pedido.DESCONTO_PG_A_VISTA) };
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public String getParametro() {
+		return parametro;
+	}
+
+	public double getDesconto() {
+		return desconto;
+	}
+
+	@Override
+	public String toString() {
+		return (tipo.ordinal() + 1) + ";" + parametro + ";" + desconto;
+	}
+}
@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+
+/**
+ * Escritor de listagens e relatórios de pedidos.
+ *
+ * Acumula o texto em um buffer de caracteres, que só é enviado ao destino quando enche, ao fim de
+ * cada página ou em {@link #descarregar()}; o buffer é grande para arquivos e pequeno para a tela
+ * e para textos em memória. Valores monetários, datas e números são formatados à mão diretamente
+ * no buffer, sem String.format ou DateTimeFormatter, e sem montar a String completa de cada
+ * produto ou pedido. O formato de moeda do idioma padrão é lido uma única vez; só idiomas cuja
+ * moeda não tem duas casas decimais recorrem ao NumberFormat a cada valor.
+ *
+ * Os formatos são os mesmos das listagens da CLI: valores como "R$ %.2f" (separador decimal do
+ * idioma padrão, sem separador de milhar, arredondamento HALF_UP), o preço dos produtos como em
+ * {@link Produto#toString()} (formato de moeda do idioma padrão, com separador de milhar e
+ * arredondamento HALF_EVEN) e datas no formato dd/MM/yyyy.
+ *
+ * Sobre um PrintStream (como System.out), o texto é codificado pelo próprio PrintStream, com a
+ * mesma codificação do restante da saída; sobre um OutputStream qualquer (arquivos), em UTF-8.
+ */
+public class Relatorio {
+
+	/** Tamanho do buffer dos relatórios gravados em arquivos, em caracteres */
+	private static final int TAMANHO_BUFFER = 1 << 16;
+
+	/** Tamanho do buffer dos relatórios na tela e em memória, em caracteres */
+	private static final int TAMANHO_BUFFER_TEXTO = 1 << 10;
+
+	/** Separador decimal do idioma padrão, o mesmo de %.2f */
+	private static final char SEPARADOR_DECIMAL = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+	/** Formato de moeda do idioma padrão, ou null se ele não puder ser aplicado à mão */
+	private static final FormatoMoeda MOEDA = FormatoMoeda.doIdiomaPadrao();
+
+	private final Writer destino;
+	private final char[] buffer;
+	private int posicao;
+
+	private final int linhasPorPagina;
+	private final Runnable aoFimDaPagina;
+	private int linhasNaPagina;
+
+	/**
+	 * Relatório sem paginação, em UTF-8.
+	 * @param saida Fluxo de destino (não é fechado pelo relatório)
+	 */
+	public Relatorio(OutputStream saida) {
+		this(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER, 0, null);
+	}
+
+	/**
+	 * Relatório sem paginação, sobre um Writer (por exemplo, um StringWriter para montar uma
+	 * resposta em texto).
+	 * @param destino Escritor de destino (não é fechado pelo relatório)
+	 */
+	public Relatorio(Writer destino) {
+		this(destino, TAMANHO_BUFFER_TEXTO, 0, null);
+	}
+
+	/**
+	 * Relatório paginado: a cada página completa, o buffer é descarregado e a ação informada
+	 * é executada (por exemplo, aguardar o usuário).
+	 * @param saida Fluxo de destino, que codifica o texto (não é fechado pelo relatório)
+	 * @param linhasPorPagina Linhas por página; 0 para não paginar
+	 * @param aoFimDaPagina Ação executada ao final de cada página (pode ser null)
+	 */
+	public Relatorio(PrintStream saida, int linhasPorPagina, Runnable aoFimDaPagina) {
+		this(escritorDe(saida), TAMANHO_BUFFER_TEXTO, linhasPorPagina, aoFimDaPagina);
+	}
+
+	private Relatorio(Writer destino, int tamanhoBuffer, int linhasPorPagina, Runnable aoFimDaPagina) {
+		this.destino = destino;
+		this.buffer = new char[tamanhoBuffer];
+		this.linhasPorPagina = linhasPorPagina;
+		this.aoFimDaPagina = aoFimDaPagina;
+	}
+
+	/**
+	 * Escreve um produto numerado, no formato da listagem do catálogo:
+	 * "NN - NOME: descrição: R$ valor" e, para perecíveis, "Válido até dd/MM/yyyy".
+	 * @param numero Número do produto na listagem
+	 * @param produto Produto a ser escrito
+	 * @return Este relatório
+	 */
+	public Relatorio produtoNumerado(int numero, Produto produto) {
+		doisDigitos(numero).texto(" - ");
+		return produto(produto);
+	}
+
+	/**
+	 * Escreve um produto no mesmo formato de {@link Produto#toString()}, terminando a linha.
+	 * @param produto Produto a ser escrito
+	 * @return Este relatório
+	 */
+	public Relatorio produto(Produto produto) {
+
+		texto("NOME: ").texto(produto.getDescricao()).texto(": ").precoMoeda(App.precoDeVenda(produto))
+				.fimDeLinha();
+		if (produto instanceof ProdutoPerecivel) {
+			texto("Válido até ").data(((ProdutoPerecivel) produto).getDataDeValidade()).fimDeLinha();
+		}
+		return this;
+	}
+
+	/**
+	 * Escreve um pedido no mesmo formato de {@link Pedido#toString()}, terminando a linha.
+	 * @param pedido Pedido a ser escrito
+	 * @return Este relatório
+	 */
+	public Relatorio pedido(Pedido pedido) {
+
+		texto("Número do pedido: ").doisDigitos(pedido.getIdPedido()).fimDeLinha();
+		texto("Data do pedido: ").data(pedido.getDataPedido()).fimDeLinha();
+		texto("Pedido com ").inteiro(pedido.getQuantosProdutos()).texto(" produtos.").fimDeLinha();
+		texto("Produtos no pedido:").fimDeLinha();
+
+		Produto[] produtos = pedido.getProdutos();
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			produto(produtos[i]);
+		}
+
+		texto("Pedido pago ");
+		if (pedido.getFormaDePagamento() == 1) {
+			texto("à vista. Percentual de desconto: ")
+					.decimal((1.0 - App.motorPrecos.fatorPagamento(pedido.getFormaDePagamento())) * 100).texto("%");
+		} else {
+			texto("parcelado.");
+		}
+		fimDeLinha();
+
+		return texto("Valor total do pedido: ").moeda(App.valorFinal(pedido)).fimDeLinha();
+	}
+
+	/**
+	 * Escreve o resumo de um pedido usado nas consultas à fila de pedidos, terminando com uma linha em branco.
+	 * @param contador Posição do pedido no resultado da consulta
+	 * @param pedido Pedido a ser escrito
+	 * @param comProdutos Se os produtos do pedido devem ser listados
+	 * @return Este relatório
+	 */
+	public Relatorio resumoPedido(int contador, Pedido pedido, boolean comProdutos) {
+
+		texto("--- Pedido #").inteiro(contador).texto(" ---").fimDeLinha();
+		texto("Número do pedido: ").doisDigitos(pedido.getIdPedido()).fimDeLinha();
+		texto("Data do pedido: ").data(pedido.getDataPedido()).fimDeLinha();
+		texto("Quantidade de produtos: ").inteiro(pedido.getQuantosProdutos()).fimDeLinha();
+
+		if (comProdutos) {
+			fimDeLinha().texto("Produtos:").fimDeLinha();
+			Produto[] produtos = pedido.getProdutos();
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				texto("  ").inteiro(i + 1).texto(". ").texto(produtos[i].getDescricao()).texto(" - ")
+						.moeda(App.precoDeVenda(produtos[i])).fimDeLinha();
+			}
+		}
+
+		texto(comProdutos ? "Valor total do pedido: " : "Valor total: ");
+		return moeda(App.valorFinal(pedido)).fimDeLinha().fimDeLinha();
+	}
+
+	/** Escreve um texto, sem terminar a linha. */
+	public Relatorio texto(String texto) {
+
+		int tamanho = texto.length();
+		int inicio = 0;
+
+		while (inicio < tamanho) {
+			if (posicao == buffer.length) {
+				esvaziarBuffer();
+			}
+			int parte = Math.min(tamanho - inicio, buffer.length - posicao);
+			texto.getChars(inicio, inicio + parte, buffer, posicao);
+			posicao += parte;
+			inicio += parte;
+		}
+		return this;
+	}
+
+	/** Escreve um inteiro em decimal. */
+	public Relatorio inteiro(long valor) {
+
+		if (valor < 0) {
+			caractere('-');
+			valor = -valor;
+		}
+		garantirEspaco(20);
+		int fim = posicao + digitos(valor);
+		for (int i = fim - 1; i >= posicao; i--) {
+			buffer[i] = (char) ('0' + valor % 10);
+			valor /= 10;
+		}
+		posicao = fim;
+		return this;
+	}
+
+	/** Escreve um inteiro com pelo menos dois dígitos (equivalente a %02d). */
+	public Relatorio doisDigitos(int valor) {
+		if (valor >= 0 && valor < 10) {
+			caractere('0');
+		}
+		return inteiro(valor);
+	}
+
+	/** Escreve um valor com duas casas decimais, sem separador de milhar (equivalente a %.2f). */
+	public Relatorio decimal(double valor) {
+		long centavos = EscritorCatalogo.centavos(valor);
+		if (centavos < 0) {
+			caractere('-');
+			centavos = -centavos;
+		}
+		inteiro(centavos / 100).caractere(SEPARADOR_DECIMAL);
+		return doisDigitos((int) (centavos % 100));
+	}
+
+	/** Escreve um preço no formato de moeda do idioma padrão, como {@link Produto#toString()}. */
+	private Relatorio precoMoeda(double valor) {
+
+		if (MOEDA == null || !(valor >= 0 && valor < FormatoMoeda.LIMITE)) {
+			return texto(NumberFormat.getCurrencyInstance().format(valor));
+		}
+
+		long centavos = FormatoMoeda.centavos(valor);
+		texto(MOEDA.prefixo);
+		agrupado(centavos / 100, MOEDA.separadorMilhar, MOEDA.agrupamento);
+		caractere(MOEDA.separadorDecimal).doisDigitos((int) (centavos % 100));
+		return texto(MOEDA.sufixo);
+	}
+
+	/** Escreve um inteiro não negativo com separador a cada grupo de dígitos (nenhum se o grupo for 0). */
+	private void agrupado(long valor, char separador, int grupo) {
+
+		int quantos = digitos(valor);
+		int separadores = (grupo > 0) ? (quantos - 1) / grupo : 0;
+		garantirEspaco(quantos + separadores);
+		int fim = posicao + quantos + separadores;
+		int i = fim - 1;
+		for (int escritos = 0; escritos < quantos; escritos++) {
+			if (escritos > 0 && grupo > 0 && escritos % grupo == 0) {
+				buffer[i--] = separador;
+			}
+			buffer[i--] = (char) ('0' + valor % 10);
+			valor /= 10;
+		}
+		posicao = fim;
+	}
+
+	/** Escreve um valor monetário no formato "R$ %.2f". */
+	public Relatorio moeda(double valor) {
+		return texto("R$ ").decimal(valor);
+	}
+
+	/** Escreve uma data no formato dd/MM/yyyy. */
+	public Relatorio data(LocalDate data) {
+		doisDigitos(data.getDayOfMonth()).caractere('/');
+		doisDigitos(data.getMonthValue()).caractere('/');
+		int ano = data.getYear();
+		if (ano < 1000) {
+			texto(ano < 10 ? "000" : ano < 100 ? "00" : "0");
+		}
+		return inteiro(ano);
+	}
+
+	/** Termina a linha atual; ao completar uma página, descarrega o buffer e executa a ação de fim de página. */
+	public Relatorio fimDeLinha() {
+		caractere('\n');
+		if (linhasPorPagina > 0 && ++linhasNaPagina == linhasPorPagina) {
+			linhasNaPagina = 0;
+			descarregar();
+			if (aoFimDaPagina != null) {
+				aoFimDaPagina.run();
+			}
+		}
+		return this;
+	}
+
+	/** Envia ao destino todo o conteúdo acumulado no buffer. */
+	public void descarregar() {
+		esvaziarBuffer();
+		try {
+			destino.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Escreve um caractere, sem terminar a linha. */
+	public Relatorio caractere(char c) {
+		if (posicao == buffer.length) {
+			esvaziarBuffer();
+		}
+		buffer[posicao++] = c;
+		return this;
+	}
+
+	private void garantirEspaco(int caracteres) {
+		if (buffer.length - posicao < caracteres) {
+			esvaziarBuffer();
+		}
+	}
+
+	private void esvaziarBuffer() {
+		try {
+			destino.write(buffer, 0, posicao);
+			posicao = 0;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** Escritor que repassa o texto ao PrintStream, que o codifica com a sua própria codificação. */
+	private static Writer escritorDe(PrintStream saida) {
+		return new Writer() {
+			@Override
+			public void write(char[] texto, int inicio, int tamanho) {
+				saida.print(new String(texto, inicio, tamanho));
+			}
+
+			@Override
+			public void flush() {
+				saida.flush();
+			}
+
+			@Override
+			public void close() {
+				// o PrintStream pertence a quem criou o relatório
+			}
+		};
+	}
+
+	/**
+	 * Formato de moeda do idioma padrão (o de NumberFormat.getCurrencyInstance()), lido do
+	 * DecimalFormat uma única vez para ser aplicado à mão.
+	 */
+	private static class FormatoMoeda {
+
+		/** A partir deste valor, os centavos são sempre calculados por BigDecimal */
+		static final double LIMITE = 1e7;
+
+		final String prefixo;
+		final String sufixo;
+		final char separadorDecimal;
+		final char separadorMilhar;
+		final int agrupamento;
+
+		private FormatoMoeda(DecimalFormat formato) {
+			DecimalFormatSymbols simbolos = formato.getDecimalFormatSymbols();
+			this.prefixo = formato.getPositivePrefix();
+			this.sufixo = formato.getPositiveSuffix();
+			this.separadorDecimal = simbolos.getMonetaryDecimalSeparator();
+			this.separadorMilhar = simbolos.getMonetaryGroupingSeparator();
+			this.agrupamento = formato.isGroupingUsed() ? formato.getGroupingSize() : 0;
+		}
+
+		/** @return O formato do idioma padrão, ou null se a moeda não tiver exatamente duas casas. */
+		static FormatoMoeda doIdiomaPadrao() {
+			NumberFormat formato = NumberFormat.getCurrencyInstance();
+			if (!(formato instanceof DecimalFormat) || formato.getMinimumFractionDigits() != 2
+					|| formato.getMaximumFractionDigits() != 2 || formato.getMinimumIntegerDigits() != 1
+					|| formato.getRoundingMode() != RoundingMode.HALF_EVEN) {
+				return null;
+			}
+			return new FormatoMoeda((DecimalFormat) formato);
+		}
+
+		/**
+		 * Arredonda para centavos como o DecimalFormat: HALF_EVEN sobre o valor exato do double.
+		 * Math.round(valor * 100) coincide com ele, exceto perto de meio centavo; só nesses casos
+		 * usa-se BigDecimal.
+		 */
+		static long centavos(double valor) {
+			double escalado = valor * 100;
+			if (Math.abs(escalado - (long) escalado - 0.5) > 1e-6) {
+				return Math.round(escalado);
+			}
+			return new BigDecimal(valor).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+		}
+	}
+
+	private static int digitos(long valor) {
+		int quantos = 1;
+		while (valor >= 10) {
+			valor /= 10;
+			quantos++;
+		}
+		return quantos;
+	}
+}
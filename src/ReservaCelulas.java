@@ -0,0 +1,68 @@
+/**
+ * Reserva de células livres de uma estrutura encadeada ({@link Fila} ou {@link Pilha}).
+ *
+ * Células removidas da estrutura são devolvidas aqui e reaproveitadas nas próximas inserções,
+ * de modo que uma estrutura que cresce e encolhe repetidamente deixa de alocar uma célula por
+ * inserção. As células livres são encadeadas pelo próprio campo {@code proximo}, então a reserva
+ * não aloca nada. Ela pertence a uma única estrutura e não é sincronizada: segue o mesmo
+ * contrato de concorrência da estrutura dona.
+ *
+ * A reserva guarda no máximo {@code capacidade} células; as excedentes ficam para o coletor de
+ * lixo, para que um pico de tamanho não mantenha memória presa indefinidamente.
+ *
+ * @param <T> Tipo dos itens das células
+ */
+class ReservaCelulas<T> {
+
+	/** Capacidade padrão da reserva, em células */
+	static final int CAPACIDADE_PADRAO = 1024;
+
+	private final int capacidade;
+	private Celula<T> livres;
+	private int quantidade;
+
+	ReservaCelulas(int capacidade) {
+
+		if (capacidade < 1) {
+			throw new IllegalArgumentException("A reserva deve ter capacidade de pelo menos uma célula!");
+		}
+		this.capacidade = capacidade;
+	}
+
+	/**
+	 * Obtém uma célula com o item e o próximo informados, reaproveitando uma célula livre
+	 * se houver.
+	 */
+	Celula<T> obter(T item, Celula<T> proximo) {
+
+		Celula<T> celula = livres;
+		if (celula == null) {
+			return new Celula<>(item, proximo);
+		}
+		livres = celula.getProximo();
+		quantidade--;
+		celula.setItem(item);
+		celula.setProximo(proximo);
+		return celula;
+	}
+
+	/**
+	 * Devolve uma célula que não é mais referenciada pela estrutura. O item é descartado
+	 * para não reter o objeto armazenado.
+	 */
+	void devolver(Celula<T> celula) {
+
+		if (quantidade == capacidade) {
+			return;
+		}
+		celula.setItem(null);
+		celula.setProximo(livres);
+		livres = celula;
+		quantidade++;
+	}
+
+	/** @return Quantidade de células livres na reserva */
+	int tamanho() {
+		return quantidade;
+	}
+}
@@ -0,0 +1,148 @@
+import java.time.LocalDate;
+
+/**
+ * Agregados dos pedidos por dia (data do pedido): quantidade de pedidos e faturamento em
+ * centavos, no total e só dos pagos à vista (os parcelados são a diferença).
+ *
+ * Cada série é uma {@link ArvoreFenwick} indexada pelo dia, a partir de um primeiro dia; o
+ * registro de um pedido e o resumo de qualquer período custam O(log d), com d dias cobertos.
+ * O intervalo de dias coberto começa em torno da data do primeiro pedido e dobra, reconstruindo
+ * as árvores em O(d), quando chega um pedido fora dele.
+ *
+ * O valor final de cada pedido é calculado uma única vez, no registro. Os métodos são
+ * sincronizados, para que o resumo possa ser alimentado por várias threads.
+ */
+public class ResumoPorDia {
+
+	private static final int DIAS_INICIAIS = 1024;
+
+	private static final int PEDIDOS = 0;
+	private static final int CENTAVOS = 1;
+	private static final int PEDIDOS_A_VISTA = 2;
+	private static final int CENTAVOS_A_VISTA = 3;
+	private static final int SERIES = 4;
+
+	private final ArvoreFenwick[] series = new ArvoreFenwick[SERIES];
+
+	/** Dia (contado a partir de 01/01/1970) da posição 0 das árvores */
+	private long primeiroDia;
+
+	/**
+	 * Registra um pedido no dia da sua data.
+	 *
+	 * @param pedido O pedido a ser registrado
+	 */
+	public synchronized void registrar(Pedido pedido) {
+
+		long dia = pedido.getDataPedido().toEpochDay();
+		garantirDia(dia);
+
+		int posicao = (int) (dia - primeiroDia);
+		long centavos = Math.round(App.valorFinal(pedido) * 100);
+
+		series[PEDIDOS].somar(posicao, 1);
+		series[CENTAVOS].somar(posicao, centavos);
+		if (pedido.getFormaDePagamento() == 1) {
+			series[PEDIDOS_A_VISTA].somar(posicao, 1);
+			series[CENTAVOS_A_VISTA].somar(posicao, centavos);
+		}
+	}
+
+	/**
+	 * Resume os pedidos de um período.
+	 *
+	 * @param inicio Primeiro dia do período
+	 * @param fim    Último dia do período (inclusive)
+	 * @return Os agregados do período (zerados se não houver pedidos nele)
+	 */
+	public synchronized Resumo resumir(LocalDate inicio, LocalDate fim) {
+
+		long[] totais = new long[SERIES];
+
+		if (series[PEDIDOS] != null && !fim.isBefore(inicio)) {
+			int tamanho = series[PEDIDOS].tamanho();
+			int de = (int) Math.max(0, Math.min(tamanho, inicio.toEpochDay() - primeiroDia));
+			int ate = (int) Math.max(0, Math.min(tamanho, fim.toEpochDay() - primeiroDia + 1));
+			for (int serie = 0; serie < SERIES; serie++) {
+				totais[serie] = series[serie].soma(de, ate);
+			}
+		}
+
+		return new Resumo(totais[PEDIDOS], totais[CENTAVOS], totais[PEDIDOS_A_VISTA], totais[CENTAVOS_A_VISTA]);
+	}
+
+	/** Cria ou amplia as árvores para que cubram o dia informado. */
+	private void garantirDia(long dia) {
+
+		if (series[PEDIDOS] == null) {
+			primeiroDia = dia - DIAS_INICIAIS / 2;
+			for (int serie = 0; serie < SERIES; serie++) {
+				series[serie] = new ArvoreFenwick(DIAS_INICIAIS);
+			}
+			return;
+		}
+
+		int tamanho = series[PEDIDOS].tamanho();
+		if (dia >= primeiroDia && dia < primeiroDia + tamanho) {
+			return;
+		}
+
+		int novoTamanho = tamanho;
+		long novoPrimeiroDia = primeiroDia;
+		while (dia < novoPrimeiroDia || dia >= novoPrimeiroDia + novoTamanho) {
+			// Dobra para o lado do dia que ficou de fora
+			if (dia < novoPrimeiroDia) {
+				novoPrimeiroDia -= novoTamanho;
+			}
+			novoTamanho *= 2;
+		}
+
+		int deslocamento = (int) (primeiroDia - novoPrimeiroDia);
+		for (int serie = 0; serie < SERIES; serie++) {
+			long[] valores = new long[novoTamanho];
+			System.arraycopy(series[serie].valores(), 0, valores, deslocamento, tamanho);
+			series[serie] = new ArvoreFenwick(valores);
+		}
+		primeiroDia = novoPrimeiroDia;
+	}
+
+	/** Agregados dos pedidos de um período. */
+	public static class Resumo {
+
+		private final long pedidos;
+		private final long centavos;
+		private final long pedidosAVista;
+		private final long centavosAVista;
+
+		Resumo(long pedidos, long centavos, long pedidosAVista, long centavosAVista) {
+			this.pedidos = pedidos;
+			this.centavos = centavos;
+			this.pedidosAVista = pedidosAVista;
+			this.centavosAVista = centavosAVista;
+		}
+
+		public long getPedidos() {
+			return pedidos;
+		}
+
+		public double getFaturamento() {
+			return centavos / 100.0;
+		}
+
+		public long getPedidosAVista() {
+			return pedidosAVista;
+		}
+
+		public double getFaturamentoAVista() {
+			return centavosAVista / 100.0;
+		}
+
+		public long getPedidosParcelados() {
+			return pedidos - pedidosAVista;
+		}
+
+		public double getFaturamentoParcelado() {
+			return (centavos - centavosAVista) / 100.0;
+		}
+	}
+}
@@ -0,0 +1,358 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP local para recebimento de pedidos sem a CLI interativa.
+ * Cada requisição é atendida em uma thread virtual (quando a JVM oferece esse recurso)
+ * e todas compartilham uma {@link FilaInstantanea} de pedidos: as consultas trabalham sobre a
+ * versão da fila no momento da requisição, sem bloquear os pedidos que chegam.
+ *
+ * Rotas disponíveis (respostas em texto puro, UTF-8):
+ * <ul>
+ * <li>POST /pedidos: cria e finaliza um pedido. Corpo: primeira linha com a forma de
+ * pagamento (1 ou 2); cada linha seguinte com o código ou a descrição de um produto.</li>
+ * <li>GET /pedidos/produtos?n=N: produtos dos N primeiros pedidos (opção 6 do menu).</li>
+ * <li>GET /pedidos/media?n=N: valor médio dos N primeiros pedidos (opção 7).</li>
+ * <li>GET /pedidos/acima?n=N&amp;valor=X: primeiros pedidos com valor acima de X (opção 8).</li>
+ * <li>GET /pedidos/com-produto?n=N&amp;produto=P: primeiros pedidos que contêm o produto P,
+ * por código ou descrição (opção 9).</li>
+ * <li>GET /pedidos/numeros?de=A&amp;ate=B: pedidos com número entre A e B, em ordem de número
+ * (opção 15).</li>
+ * </ul>
+ */
+public class ServidorPedidos {
+
+	/** Porta padrão do servidor */
+	public static final int PORTA_PADRAO = 8080;
+
+	private final HttpServer servidor;
+	private final ExecutorService executor;
+	private final FilaInstantanea<Pedido> filaPedidos;
+
+	/** Pedidos finalizados pelo número; lido pelas requisições sem bloquear as inclusões */
+	private final ListaSaltosConcorrente<Integer, Pedido> pedidosPorNumero = new ListaSaltosConcorrente<>();
+
+	/**
+	 * Liga o TCP_NODELAY nas conexões do servidor HTTP do JDK, se não tiver sido configurado
+	 * (-Dsun.net.httpserver.nodelay). Sem ele, respostas pequenas esperam o ACK atrasado do
+	 * cliente (~40 ms). Como altera uma propriedade de toda a JVM, é chamado pelo main da
+	 * aplicação, antes de criar o servidor.
+	 */
+	static void ligarNoDelay() {
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	/**
+	 * Cria o servidor, associado ao endereço local e à porta informada.
+	 *
+	 * @param porta       Porta TCP a ser utilizada.
+	 * @param filaPedidos Fila onde os pedidos finalizados serão armazenados.
+	 * @throws IOException caso não seja possível abrir a porta.
+	 */
+	public ServidorPedidos(int porta, FilaInstantanea<Pedido> filaPedidos) throws IOException {
+
+		this.filaPedidos = filaPedidos;
+		servidor = HttpServer.create(new InetSocketAddress("localhost", porta), 1024);
+		executor = criarExecutor();
+		servidor.setExecutor(executor);
+
+		servidor.createContext("/pedidos", new Rota("POST") {
+			String responder(HttpExchange troca, Map<String, String> parametros) throws IOException {
+				return criarPedido(lerCorpo(troca));
+			}
+		});
+		servidor.createContext("/pedidos/produtos", new Rota("GET") {
+			String responder(HttpExchange troca, Map<String, String> parametros) {
+				return listarProdutosPrimeirosPedidos(inteiro(parametros, "n"));
+			}
+		});
+		servidor.createContext("/pedidos/media", new Rota("GET") {
+			String responder(HttpExchange troca, Map<String, String> parametros) {
+				return valorMedioPrimeirosPedidos(inteiro(parametros, "n"));
+			}
+		});
+		servidor.createContext("/pedidos/acima", new Rota("GET") {
+			String responder(HttpExchange troca, Map<String, String> parametros) {
+				return pedidosAcimaDeValor(inteiro(parametros, "n"), real(parametros, "valor"));
+			}
+		});
+		servidor.createContext("/pedidos/com-produto", new Rota("GET") {
+			String responder(HttpExchange troca, Map<String, String> parametros) {
+				return pedidosComProduto(inteiro(parametros, "n"), texto(parametros, "produto"));
+			}
+		});
+		servidor.createContext("/pedidos/numeros", new Rota("GET") {
+			String responder(HttpExchange troca, Map<String, String> parametros) {
+				return pedidosPorFaixaDeNumero(inteiro(parametros, "de"), inteiro(parametros, "ate"));
+			}
+		});
+	}
+
+	/** Inicia o atendimento das requisições. */
+	public void iniciar() {
+		servidor.start();
+	}
+
+	/** Encerra o servidor, aguardando no máximo 1 segundo pelas requisições em andamento. */
+	public void parar() {
+		servidor.stop(1);
+		executor.shutdown();
+	}
+
+	/** @return A porta efetivamente utilizada pelo servidor. */
+	public int getPorta() {
+		return servidor.getAddress().getPort();
+	}
+
+	/**
+	 * Cria o executor das requisições: uma thread virtual por tarefa, se disponível
+	 * na JVM em execução (Java 21+); caso contrário, um pool de threads de plataforma.
+	 * A busca é feita por reflexão para que o projeto continue compilando em versões anteriores.
+	 */
+	static ExecutorService criarExecutor() {
+		try {
+			Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) fabrica.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Equivalente a iniciarPedido seguido de finalizarPedido.
+	 *
+	 * @param corpo Forma de pagamento na primeira linha, um produto (código ou descrição) por linha.
+	 * @return Representação do pedido finalizado.
+	 */
+	String criarPedido(String corpo) {
+
+		String[] linhas = corpo.split("\\R");
+		int formaPagamento = Integer.parseInt(linhas[0].trim());
+
+		if (formaPagamento != 1 && formaPagamento != 2) {
+			throw new IllegalArgumentException("Forma de pagamento inválida: " + formaPagamento);
+		}
+
+		Pedido pedido = new Pedido(LocalDate.now(), formaPagamento);
+		for (int i = 1; i < linhas.length; i++) {
+			String linha = linhas[i].trim();
+			if (!linha.isEmpty()) {
+				Produto produto = localizarProduto(linha);
+				if (produto == null) {
+					throw new IllegalArgumentException("Produto não encontrado: " + linha);
+				}
+				if (!pedido.incluirProduto(produto)) {
+					throw new IllegalArgumentException("Pedido excede a quantidade máxima de produtos!");
+				}
+			}
+		}
+
+		EstoqueProdutos estoque = App.estoque;
+		if (estoque != null && !estoque.reservar(pedido)) {
+			throw new IllegalArgumentException("Produto sem estoque no pedido!");
+		}
+
+		filaPedidos.enfileirar(pedido);
+		if (Metricas.ATIVAS) {
+			Metricas.ENFILEIRAMENTOS.increment();
+		}
+		pedidosPorNumero.inserir(pedido.getIdPedido(), pedido);
+		StringWriter resposta = new StringWriter();
+		Relatorio relatorio = new Relatorio(resposta);
+		relatorio.texto("Pedido finalizado com sucesso!").fimDeLinha().pedido(pedido).descarregar();
+		return resposta.toString();
+	}
+
+	String listarProdutosPrimeirosPedidos(int numPedidos) {
+
+		// percorre a fila do momento, sem copiá-la
+		FilaPersistente<Pedido> pedidos = filaPedidos.instantaneo();
+		if (!pedidos.vazia() && numPedidos > pedidos.tamanho()) {
+			throw new IllegalArgumentException("A fila não contém " + numPedidos + " elementos! Existem apenas "
+					+ pedidos.tamanho() + " elementos.");
+		}
+		StringBuilder resposta = new StringBuilder();
+
+		Iterator<Pedido> primeirosPedidos = pedidos.iterator();
+		for (int n = 0; n < numPedidos && primeirosPedidos.hasNext(); n++) {
+			Pedido pedido = primeirosPedidos.next();
+			resumirPedido(resposta, pedido);
+			Produto[] produtos = pedido.getProdutos();
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				resposta.append("  ").append(i + 1).append(". ").append(produtos[i].getDescricao())
+						.append(" - R$ ").append(String.format("%.2f", App.precoDeVenda(produtos[i]))).append('\n');
+			}
+		}
+		return resposta.toString();
+	}
+
+	String valorMedioPrimeirosPedidos(int numPedidos) {
+		double valorMedio = filaPedidos.calcularValorMedio(App::valorFinal, numPedidos);
+		return String.format("Valor total médio: R$ %.2f\n", valorMedio);
+	}
+
+	String pedidosAcimaDeValor(int numPedidos, double valorMinimo) {
+		return resumirPedidos(filaPedidos.filtrar(pedido -> App.valorFinal(pedido) > valorMinimo, numPedidos));
+	}
+
+	String pedidosComProduto(int numPedidos, String identificacao) {
+
+		Produto produtoBuscado = localizarProduto(identificacao);
+		if (produtoBuscado == null) {
+			throw new IllegalArgumentException("Produto não encontrado: " + identificacao);
+		}
+
+		return resumirPedidos(filaPedidos.filtrar(pedido -> {
+			Produto[] produtos = pedido.getProdutos();
+			for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+				if (produtos[i].equals(produtoBuscado)) {
+					return true;
+				}
+			}
+			return false;
+		}, numPedidos));
+	}
+
+	String pedidosPorFaixaDeNumero(int de, int ate) {
+		return resumirPedidos(pedidosPorNumero.intervalo(de, ate));
+	}
+
+	/** Localiza um produto do catálogo pelo código (se numérico) ou pela descrição. */
+	private static Produto localizarProduto(String identificacao) {
+		try {
+			return App.buscarProdutoPorCodigo(Integer.parseInt(identificacao));
+		} catch (NumberFormatException e) {
+			return App.buscarProdutoPorDescricao(identificacao);
+		}
+	}
+
+	private static String resumirPedidos(Fila<Pedido> pedidos) {
+
+		StringBuilder resposta = new StringBuilder();
+		int contador = 0;
+
+		while (!pedidos.vazia()) {
+			resumirPedido(resposta, pedidos.desenfileirar());
+			contador++;
+		}
+		resposta.append("Total de pedidos encontrados: ").append(contador).append('\n');
+		return resposta.toString();
+	}
+
+	private static void resumirPedido(StringBuilder resposta, Pedido pedido) {
+		resposta.append(String.format("Número do pedido: %02d\n", pedido.getIdPedido()))
+				.append("Data do pedido: ").append(pedido.getDataPedido()).append('\n')
+				.append("Quantidade de produtos: ").append(pedido.getQuantosProdutos()).append('\n')
+				.append(String.format("Valor total: R$ %.2f\n", App.valorFinal(pedido)));
+	}
+
+	private static String lerCorpo(HttpExchange troca) throws IOException {
+		try (InputStream entrada = troca.getRequestBody()) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static Map<String, String> lerParametros(HttpExchange troca) {
+
+		Map<String, String> parametros = new HashMap<>();
+		String consulta = troca.getRequestURI().getRawQuery();
+
+		if (consulta != null) {
+			for (String par : consulta.split("&")) {
+				int igual = par.indexOf('=');
+				if (igual > 0) {
+					parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+							URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return parametros;
+	}
+
+	private static String texto(Map<String, String> parametros, String nome) {
+		String valor = parametros.get(nome);
+		if (valor == null) {
+			throw new IllegalArgumentException("Parâmetro obrigatório ausente: " + nome);
+		}
+		return valor;
+	}
+
+	private static int inteiro(Map<String, String> parametros, String nome) {
+		int valor = Integer.parseInt(texto(parametros, nome));
+		if (valor <= 0) {
+			throw new IllegalArgumentException("Número inválido de pedidos!");
+		}
+		return valor;
+	}
+
+	private static double real(Map<String, String> parametros, String nome) {
+		double valor = Double.parseDouble(texto(parametros, nome));
+		if (valor < 0) {
+			throw new IllegalArgumentException("Valor inválido!");
+		}
+		return valor;
+	}
+
+	/**
+	 * Rota do servidor. Trata a conversão da resposta e dos erros para HTTP:
+	 * entradas inválidas ou insuficientes geram 400; um método diferente do da rota gera 405,
+	 * com o cabeçalho Allow, sem chamar {@link #responder}.
+	 */
+	private abstract static class Rota implements HttpHandler {
+
+		private final String metodo;
+
+		/** @param metodo Método HTTP aceito pela rota */
+		Rota(String metodo) {
+			this.metodo = metodo;
+		}
+
+		abstract String responder(HttpExchange troca, Map<String, String> parametros) throws IOException;
+
+		@Override
+		public void handle(HttpExchange troca) throws IOException {
+
+			int status = 200;
+			String resposta;
+
+			if (!troca.getRequestMethod().equalsIgnoreCase(metodo)) {
+				status = 405;
+				resposta = "Erro: Método não suportado: " + troca.getRequestMethod() + "\n";
+				troca.getResponseHeaders().set("Allow", metodo);
+			} else {
+				try {
+					resposta = responder(troca, lerParametros(troca));
+				} catch (IllegalArgumentException | NoSuchElementException e) {
+					status = 400;
+					resposta = "Erro: " + e.getMessage() + "\n";
+				}
+			}
+
+			byte[] bytes = resposta.getBytes(StandardCharsets.UTF_8);
+			troca.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+			troca.sendResponseHeaders(status, bytes.length);
+			try (OutputStream saida = troca.getResponseBody()) {
+				saida.write(bytes);
+			}
+		}
+	}
+}
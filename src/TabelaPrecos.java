@@ -0,0 +1,247 @@
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Tabela pré-calculada com o preço de venda atual de cada produto de uma versão do catálogo, em
+ * um vetor primitivo indexado pelo código do produto (código - menor código). A retirada de
+ * vencidos mantém a tabela, em que os retirados já têm preço de vencido; a cada recarga do
+ * arquivo de produtos, {@link App} cria uma nova tabela.
+ *
+ * O preço de um produto só muda quando um perecível entra em uma janela de desconto por validade
+ * ou quando vence. Por isso, em vez de recalcular o preço a cada consulta, a tabela mantém uma
+ * agenda (fila de prioridade por dia) com os próximos eventos de cada perecível, e a
+ * reprecificação diária processa apenas os eventos vencidos.
+ *
+ * Os preços ficam em um estado imutável, publicado por uma referência volátil: a reprecificação
+ * calcula um novo vetor e o publica por inteiro, e a consulta de preço é uma leitura de vetor,
+ * sem bloqueio, sempre sobre um vetor completo.
+ */
+public class TabelaPrecos {
+
+	/** Numeração das publicações de preços, comum a todas as tabelas */
+	private static final AtomicLong PUBLICACOES = new AtomicLong();
+
+	/** Deslocamento do dia do evento na chave da agenda (a posição do produto ocupa os 32 bits inferiores) */
+	private static final int BITS_INDICE = 32;
+
+	private final Produto[] produtos;
+	private final int primeiroId;
+	private final MotorPrecos motor;
+	private final MotorPrecos.AvaliadorProduto avaliador;
+	private final int[] prazosDesconto;
+
+	/** Eventos de reprecificação: (dia << 32) | (código - primeiroId), em ordem crescente de dia */
+	private final PriorityQueue<Long> agenda;
+
+	private volatile Estado estado;
+
+	/**
+	 * Calcula a tabela de preços para o dia informado e agenda os eventos futuros dos perecíveis.
+	 *
+	 * @param produtos        Vetor de produtos da versão do catálogo.
+	 * @param quantosProdutos Quantidade de posições válidas no vetor.
+	 * @param motor           Motor de preços com as regras a aplicar.
+	 * @param hoje            Dia da precificação inicial.
+	 */
+	public TabelaPrecos(Produto[] produtos, int quantosProdutos, MotorPrecos motor, LocalDate hoje) {
+
+		int menor = Integer.MAX_VALUE;
+		int maior = Integer.MIN_VALUE;
+		for (int i = 0; i < quantosProdutos; i++) {
+			menor = Math.min(menor, produtos[i].idProduto);
+			maior = Math.max(maior, produtos[i].idProduto);
+		}
+		this.primeiroId = quantosProdutos == 0 ? 0 : menor;
+		this.produtos = new Produto[quantosProdutos == 0 ? 0 : maior - menor + 1];
+		for (int i = 0; i < quantosProdutos; i++) {
+			this.produtos[produtos[i].idProduto - primeiroId] = produtos[i];
+		}
+
+		this.motor = motor;
+		this.avaliador = motor.getAvaliadorProduto();
+		this.agenda = new PriorityQueue<>();
+
+		int quantosPrazos = 0;
+		int[] prazos = new int[motor.getRegras().length];
+		for (RegraPreco regra : motor.getRegras()) {
+			if (regra.getTipo() == RegraPreco.Tipo.VALIDADE) {
+				prazos[quantosPrazos++] = Integer.parseInt(regra.getParametro());
+			}
+		}
+		this.prazosDesconto = Arrays.copyOf(prazos, quantosPrazos);
+
+		long dia = hoje.toEpochDay();
+		double[] precos = new double[this.produtos.length];
+		for (int i = 0; i < this.produtos.length; i++) {
+			if (this.produtos[i] != null) {
+				precos[i] = calcular(i, dia);
+				agendar(i, dia);
+			}
+		}
+		estado = new Estado(precos, dia);
+	}
+
+	/**
+	 * Retorna o preço de venda atual do produto. Produtos que não fazem parte desta versão do
+	 * catálogo (por exemplo, o de um pedido antigo, retirado em uma recarga) são calculados pelo
+	 * motor de preços.
+	 *
+	 * @param produto O produto.
+	 * @return Preço de venda do produto no dia da última atualização.
+	 * @throws IllegalArgumentException se o produto estiver vencido.
+	 */
+	public double preco(Produto produto) {
+
+		Estado atual = estado;
+		int indice = produto.idProduto - primeiroId;
+		if (indice < 0 || indice >= produtos.length || produtos[indice] != produto) {
+			return avaliador.valorDeVenda(produto, atual.dia);
+		}
+
+		double preco = atual.precos[indice];
+		if (Double.isNaN(preco)) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		return preco;
+	}
+
+	/**
+	 * Calcula o valor final do pedido com os preços da tabela e o desconto da forma de
+	 * pagamento do motor de preços.
+	 *
+	 * @param pedido O pedido.
+	 * @return Valor final do pedido, arredondado como {@link Pedido#valorFinal()}.
+	 * @throws IllegalArgumentException se algum produto do pedido estiver vencido.
+	 */
+	public double valorFinal(Pedido pedido) {
+
+		Produto[] produtosPedido = pedido.getProdutos();
+		double valor = 0;
+		for (int i = 0; i < pedido.getQuantosProdutos(); i++) {
+			valor += preco(produtosPedido[i]);
+		}
+		return Pedido.arredondarCentavos(valor * motor.fatorPagamento(pedido.getFormaDePagamento()));
+	}
+
+	/**
+	 * Avança a tabela até o dia informado, reprecificando apenas os produtos com eventos
+	 * agendados até esse dia, e publica os novos preços.
+	 *
+	 * @param hoje Novo dia de referência.
+	 * @return Quantidade de reprecificações realizadas.
+	 */
+	public synchronized int atualizar(LocalDate hoje) {
+
+		long dia = hoje.toEpochDay();
+		double[] precos = null;
+		int reprecificados = 0;
+
+		while (!agenda.isEmpty() && (agenda.peek() >>> BITS_INDICE) <= dia) {
+			if (precos == null) {
+				precos = estado.precos.clone();
+			}
+			int indice = (int) (agenda.poll() & 0xFFFF_FFFFL);
+			precos[indice] = calcular(indice, dia);
+			reprecificados++;
+		}
+
+		estado = new Estado(precos == null ? estado.precos : precos, dia);
+		return reprecificados;
+	}
+
+	/**
+	 * Agenda a reprecificação diária, logo após a meia-noite, da tabela em uso no momento de
+	 * cada execução. Cada execução agenda a seguinte para a próxima meia-noite local, e não 24
+	 * horas depois, para acompanhar as mudanças de horário de verão. Uma falha na reprecificação
+	 * é informada em System.err e não interrompe os dias seguintes. O agendamento termina com o
+	 * encerramento do agendador.
+	 *
+	 * @param agendador Executor responsável pelas execuções.
+	 * @param tabela    Fornece a tabela em uso (substituída a cada versão do catálogo).
+	 */
+	public static void agendarReprecificacaoDiaria(ScheduledExecutorService agendador, Supplier<TabelaPrecos> tabela) {
+
+		ZonedDateTime agora = ZonedDateTime.now();
+		long atraso = Duration.between(agora, agora.toLocalDate().plusDays(1).atStartOfDay(agora.getZone())).toMillis();
+
+		agendador.schedule(() -> {
+			try {
+				tabela.get().atualizar(LocalDate.now());
+			} catch (RuntimeException e) {
+				System.err.println("Falha na reprecificação diária: " + e);
+			} finally {
+				if (!agendador.isShutdown()) {
+					agendarReprecificacaoDiaria(agendador, tabela);
+				}
+			}
+		}, atraso, TimeUnit.MILLISECONDS);
+	}
+
+	/** @return Quantidade de eventos ainda pendentes na agenda. */
+	public synchronized int eventosPendentes() {
+		return agenda.size();
+	}
+
+	/** @return O preço do produto na posição informada, ou NaN se estiver vencido. */
+	private double calcular(int indice, long dia) {
+		try {
+			return avaliador.valorDeVenda(produtos[indice], dia);
+		} catch (IllegalArgumentException vencido) {
+			return Double.NaN;
+		}
+	}
+
+	/** Agenda a entrada do perecível em cada janela de desconto e o dia seguinte ao vencimento. */
+	private void agendar(int indice, long hoje) {
+
+		if (!(produtos[indice] instanceof ProdutoPerecivel)) {
+			return;
+		}
+
+		long validade = ((ProdutoPerecivel) produtos[indice]).getDataDeValidade().toEpochDay();
+		for (int prazo : prazosDesconto) {
+			agendarEvento(validade - prazo, indice, hoje);
+		}
+		agendarEvento(validade + 1, indice, hoje);
+	}
+
+	private void agendarEvento(long dia, int indice, long hoje) {
+		if (dia > hoje) {
+			agenda.add((dia << BITS_INDICE) | indice);
+		}
+	}
+
+	/** @return Dia (epochDay) dos preços publicados. */
+	public long getDia() {
+		return estado.dia;
+	}
+
+	/**
+	 * @return Número da publicação atual dos preços: muda a cada {@link #atualizar} e é diferente
+	 *         entre tabelas, o que permite guardar resultados calculados com estes preços.
+	 */
+	public long getVersao() {
+		return estado.versao;
+	}
+
+	/** Preços publicados e o dia a que se referem; nunca alterado depois de publicado. */
+	private static class Estado {
+
+		private final double[] precos;
+		private final long dia;
+		private final long versao;
+
+		Estado(double[] precos, long dia) {
+			this.precos = precos;
+			this.dia = dia;
+			this.versao = PUBLICACOES.incrementAndGet();
+		}
+	}
+}
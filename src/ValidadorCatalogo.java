@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Valida as linhas de um arquivo de produtos, no formato lido por {@link App#lerProdutos(String)},
+ * sem criar os produtos: cada linha é conferida com as mesmas regras de
+ * {@link Produto#criarDoTexto(String)} e dos construtores (tipo, descrição com pelo menos 3
+ * caracteres, preço e margem positivos, validade não vencida), e as linhas inválidas são
+ * relatadas com o motivo, em vez de interromper a leitura com uma exceção.
+ *
+ * As linhas são divididas em partes validadas em paralelo; os problemas de cada parte são
+ * reunidos na ordem do arquivo.
+ *
+ * Uso: java ValidadorCatalogo arquivoProdutos [partes]
+ */
+public class ValidadorCatalogo {
+
+	/** Quantidade máxima de problemas exibidos por {@link #main(String[])} */
+	private static final int PROBLEMAS_EXIBIDOS = 20;
+
+	private ValidadorCatalogo() {
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 1) {
+			System.out.println("Uso: java ValidadorCatalogo arquivoProdutos [partes]");
+			return;
+		}
+
+		int partes = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 4;
+		long inicio = System.nanoTime();
+		List<String> linhas = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+		Fila<Problema> problemas = validarArquivo(linhas, partes);
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		int exibidos = 0;
+		for (Problema problema : problemas) {
+			if (exibidos++ == PROBLEMAS_EXIBIDOS) {
+				System.out.println("...");
+				break;
+			}
+			System.out.println(problema);
+		}
+		System.out.println(String.format("%d linhas verificadas em %.2f s. Linhas inválidas: %d",
+				Math.max(0, linhas.size() - 1), segundos, problemas.tamanho()));
+	}
+
+	/**
+	 * Valida o conteúdo completo de um arquivo de produtos: a quantidade de produtos na primeira
+	 * linha e, em seguida, as linhas de produtos.
+	 *
+	 * @param linhas Linhas do arquivo.
+	 * @param partes Quantidade de partes validadas em paralelo (mínimo 1).
+	 * @return Problemas encontrados, em ordem de linha (vazia se o arquivo for válido).
+	 */
+	public static Fila<Problema> validarArquivo(List<String> linhas, int partes) {
+
+		Fila<Problema> problemas = new Fila<>();
+		int numProdutos;
+		try {
+			numProdutos = Integer.parseInt(linhas.isEmpty() ? "" : linhas.get(0).trim());
+		} catch (NumberFormatException e) {
+			numProdutos = -1;
+		}
+		if (numProdutos < 0) {
+			problemas.enfileirar(new Problema(1, "quantidade de produtos inválida", linhas.isEmpty() ? "" : linhas.get(0)));
+			return problemas;
+		}
+
+		List<String> produtos = linhas.subList(1, Math.min(linhas.size(), numProdutos + 1));
+		problemas.concatenar(validar(produtos, 2, partes));
+		if (produtos.size() < numProdutos) {
+			problemas.enfileirar(new Problema(linhas.size() + 1,
+					"arquivo incompleto: " + produtos.size() + " de " + numProdutos + " produtos", ""));
+		}
+		return problemas;
+	}
+
+	/**
+	 * Valida linhas de produtos.
+	 *
+	 * @param linhas        Linhas de produtos, sem a linha da quantidade.
+	 * @param primeiraLinha Número, no arquivo, da primeira linha da lista (usado nos relatos).
+	 * @param partes        Quantidade de partes validadas em paralelo (mínimo 1).
+	 * @return Problemas encontrados, em ordem de linha (vazia se todas forem válidas).
+	 */
+	public static Fila<Problema> validar(List<String> linhas, int primeiraLinha, int partes) {
+
+		if (partes < 1) {
+			throw new IllegalArgumentException("Deve haver pelo menos uma parte!");
+		}
+
+		LocalDate hoje = LocalDate.now();
+		int tamanhoParte = (linhas.size() + partes - 1) / partes;
+		Fila<Problema> problemas = new Fila<>();
+
+		@SuppressWarnings("unchecked")
+		Fila<Problema>[] porParte = IntStream.range(0, partes).parallel().mapToObj(parte -> {
+			Fila<Problema> encontrados = new Fila<>();
+			int fim = Math.min(linhas.size(), (parte + 1) * tamanhoParte);
+			for (int i = parte * tamanhoParte; i < fim; i++) {
+				String motivo = validarLinha(linhas.get(i), hoje);
+				if (motivo != null) {
+					encontrados.enfileirar(new Problema(primeiraLinha + i, motivo, linhas.get(i)));
+				}
+			}
+			return encontrados;
+		}).toArray(Fila[]::new);
+
+		for (Fila<Problema> encontrados : porParte) {
+			problemas.concatenar(encontrados);
+		}
+		return problemas;
+	}
+
+	/**
+	 * Confere uma linha de produto.
+	 *
+	 * @param linha Linha no formato tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade]
+	 * @param hoje  Dia de referência para a validade dos perecíveis.
+	 * @return O motivo pelo qual a linha é inválida, ou null se ela for válida.
+	 */
+	public static String validarLinha(String linha, LocalDate hoje) {
+
+		String[] dados = linha.split(";");
+		if (dados.length < 4) {
+			return "esperados pelo menos 4 campos, encontrados " + dados.length;
+		}
+
+		int tipo;
+		try {
+			tipo = Integer.parseInt(dados[0]);
+		} catch (NumberFormatException e) {
+			tipo = 0;
+		}
+		if (tipo != 1 && tipo != 2) {
+			return "tipo de produto inválido: " + dados[0];
+		}
+
+		if (dados[1].length() < 3) {
+			return "descrição com menos de 3 caracteres";
+		}
+		if (!positivo(dados[2])) {
+			return "preço de custo inválido: " + dados[2];
+		}
+		if (!positivo(dados[3])) {
+			return "margem de lucro inválida: " + dados[3];
+		}
+
+		if (tipo == 2) {
+			if (dados.length < 5) {
+				return "produto perecível sem data de validade";
+			}
+			try {
+				if (LocalDate.parse(dados[4], Produto.FORMATO_DATA).isBefore(hoje)) {
+					return "data de validade vencida: " + dados[4];
+				}
+			} catch (DateTimeParseException e) {
+				return "data de validade inválida: " + dados[4];
+			}
+		}
+		return null;
+	}
+
+	/** Verifica se o texto é um número maior que zero, aceitando vírgula decimal. */
+	private static boolean positivo(String texto) {
+		try {
+			return Double.parseDouble(texto.replace(",", ".")) > 0.0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/** Linha inválida de um arquivo de produtos. */
+	public static class Problema {
+
+		private final int linha;
+		private final String motivo;
+		private final String texto;
+
+		Problema(int linha, String motivo, String texto) {
+			this.linha = linha;
+			this.motivo = motivo;
+			this.texto = texto;
+		}
+
+		/** @return Número da linha no arquivo (a primeira é 1) */
+		public int getLinha() {
+			return linha;
+		}
+
+		public String getMotivo() {
+			return motivo;
+		}
+
+		public String getTexto() {
+			return texto;
+		}
+
+		@Override
+		public String toString() {
+			return "Linha " + linha + ": " + motivo + (texto.isEmpty() ? "" : " -> " + texto);
+		}
+	}
+}